@@ -0,0 +1,56 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.kit;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+
+/**
+ * {@link KeyExtractor} using the method and the arguments as key. Arguments are compared with their
+ * <code>equals</code> method, arrays are compared by their elements.
+ *
+ * @since 1.1
+ */
+public class ArgumentsKeyExtractor implements KeyExtractor, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public Object getKey(final Method method, final Object[] args) {
+        return new Key(method, args);
+    }
+
+    private static final class Key {
+        private final Method method;
+        private final Object[] args;
+        private final int hashCode;
+
+        private Key(final Method method, final Object[] args) {
+            this.method = method;
+            this.args = args;
+            hashCode = 31 * method.hashCode() + Arrays.deepHashCode(args);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj instanceof Key) {
+                final Key key = (Key)obj;
+                return hashCode == key.hashCode && method.equals(key.method) && Arrays.deepEquals(args, key.args);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
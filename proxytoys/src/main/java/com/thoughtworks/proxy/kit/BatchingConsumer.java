@@ -0,0 +1,269 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.kit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A background consumer of a bounded {@link RingBuffer}. Any number of producers offer elements without blocking, a
+ * single daemon thread drains the buffer in batches and hands every batch to {@link #consume(List)}. The thread is
+ * started with the first offered element and ends after one second without any element, the next element starts a
+ * new one. An idle consumer does therefore not keep a thread, nor is it kept reachable by one.
+ * <p>
+ * After {@link #close()} the thread consumes the pending elements and ends. An element offered concurrently to the
+ * close operation is consumed by the offering thread itself, no element is lost.
+ * </p>
+ *
+ * @param <E> the type of the elements
+ * @since 1.1
+ */
+public abstract class BatchingConsumer<E> {
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final long IDLE_NANOS = 100 * 1000 * 1000;
+    private static final long KEEP_ALIVE_NANOS = 1000 * 1000 * 1000;
+
+    private final String name;
+    private final RingBuffer<E> buffer;
+    private final Object flushLock = new Object();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Thread consumer;
+    private volatile boolean consumerWaiting;
+    private volatile boolean closed;
+    private volatile long consumed;
+    private volatile int flushWaiters;
+
+    /**
+     * Construct a BatchingConsumer.
+     *
+     * @param name     the name of the background thread
+     * @param capacity the minimal capacity of the buffer
+     * @throws IllegalArgumentException if the capacity is not positive
+     * @since 1.1
+     */
+    protected BatchingConsumer(final String name, final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.name = name;
+        this.buffer = new RingBuffer<E>(capacity);
+    }
+
+    /**
+     * Consume a batch of elements. Any exception stops the background thread, an implementation should therefore
+     * handle the failures of the single elements on its own.
+     *
+     * @param batch the drained elements in the order they were offered
+     * @since 1.1
+     */
+    protected abstract void consume(List<E> batch);
+
+    /**
+     * Offer an element for the background consumption.
+     *
+     * @param element the element
+     * @return <code>false</code> if the buffer is full
+     * @since 1.1
+     */
+    public boolean offer(final E element) {
+        if (!buffer.offer(element)) {
+            return false;
+        }
+        if (closed || (!running.get() && !start())) {
+            consumeAfterClose();
+        } else if (consumerWaiting) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /**
+     * Wake up the background thread, e.g. to make room in a full buffer.
+     *
+     * @since 1.1
+     */
+    public void wakeUp() {
+        final Thread thread = consumer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Start the background thread if none is running.
+     *
+     * @return <code>false</code> if the consumer has been closed
+     */
+    private synchronized boolean start() {
+        if (closed) {
+            return false;
+        }
+        if (running.compareAndSet(false, true)) {
+            final Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    drain();
+                }
+            }, name);
+            thread.setDaemon(true);
+            consumer = thread;
+            thread.start();
+        }
+        return true;
+    }
+
+    private void drain() {
+        final List<E> batch = new ArrayList<E>();
+        boolean ended = false;
+        try {
+            long idleSince = System.nanoTime();
+            while (true) {
+                batch.clear();
+                if (buffer.drainTo(batch, MAX_BATCH_SIZE) == 0) {
+                    if (closed && buffer.isEmpty()) {
+                        break;
+                    } else if (buffer.isEmpty() && System.nanoTime() - idleSince >= KEEP_ALIVE_NANOS) {
+                        // end the idle thread, unless an element has been offered concurrently
+                        running.set(false);
+                        if (buffer.isEmpty() || !running.compareAndSet(false, true)) {
+                            break;
+                        }
+                        idleSince = System.nanoTime();
+                    }
+                    consumerWaiting = true;
+                    if (buffer.isEmpty() && !closed) {
+                        LockSupport.parkNanos(IDLE_NANOS);
+                    } else {
+                        Thread.yield();
+                    }
+                    consumerWaiting = false;
+                    continue;
+                }
+                process(batch);
+                idleSince = System.nanoTime();
+                if (flushWaiters > 0) {
+                    synchronized (flushLock) {
+                        flushLock.notifyAll();
+                    }
+                }
+            }
+            ended = true;
+        } finally {
+            if (!ended) {
+                // a failed batch ends the thread, the next element starts a new one
+                running.set(false);
+            }
+            synchronized (flushLock) {
+                flushLock.notifyAll();
+            }
+        }
+    }
+
+    private void process(final List<E> batch) {
+        consume(batch);
+        consumed += batch.size();
+    }
+
+    /**
+     * Consume an element that was offered concurrently to the close operation. The background thread may already have
+     * finished, therefore the remaining elements are consumed by the calling thread after the background thread has
+     * ended.
+     */
+    private synchronized void consumeAfterClose() {
+        join();
+        final List<E> batch = new ArrayList<E>();
+        while (!buffer.isEmpty()) {
+            batch.clear();
+            if (buffer.drainTo(batch, MAX_BATCH_SIZE) == 0) {
+                Thread.yield();
+            } else {
+                process(batch);
+            }
+        }
+    }
+
+    /**
+     * Wait until all elements offered so far have been consumed.
+     *
+     * @since 1.1
+     */
+    public void flush() {
+        final long target = buffer.getOfferCount();
+        while (consumed < target && !closed) {
+            if (!running.get()) {
+                if (buffer.isEmpty() || !start()) {
+                    return;
+                }
+            } else {
+                wakeUp();
+            }
+            synchronized (flushLock) {
+                ++flushWaiters;
+                try {
+                    if (consumed < target && running.get()) {
+                        flushLock.wait(IDLE_NANOS / 1000000);
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    --flushWaiters;
+                }
+            }
+        }
+    }
+
+    /**
+     * Consume all pending elements and stop the background thread. Any further element is consumed by the offering
+     * thread.
+     *
+     * @since 1.1
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        join();
+    }
+
+    private void join() {
+        final Thread thread = consumer;
+        if (thread != null && thread != Thread.currentThread()) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Check whether the consumer has been closed.
+     *
+     * @return <code>true</code> if closed
+     * @since 1.1
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Retrieve the number of elements waiting in the buffer.
+     *
+     * @return the number of pending elements
+     * @since 1.1
+     */
+    public int size() {
+        return buffer.size();
+    }
+}
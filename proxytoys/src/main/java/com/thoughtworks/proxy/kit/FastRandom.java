@@ -0,0 +1,56 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.kit;
+
+/**
+ * A fast source of pseudo random numbers for load balancing and sampling. Every thread uses an own SplitMix64
+ * generator, concurrent callers do therefore not share any written state. The numbers are not suitable for security
+ * purposes.
+ *
+ * @since 1.1
+ */
+public final class FastRandom {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final ThreadLocal<long[]> SEED = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[]{System.nanoTime() ^ Thread.currentThread().getId() * GOLDEN_GAMMA};
+        }
+    };
+
+    private FastRandom() {
+    }
+
+    /**
+     * Retrieve the next random number of the current thread.
+     *
+     * @return a uniformly distributed long value
+     * @since 1.1
+     */
+    public static long nextLong() {
+        final long[] seed = SEED.get();
+        long z = seed[0] += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Retrieve the next random number of the current thread within a range.
+     *
+     * @param bound the exclusive upper bound, must be positive
+     * @return a value between 0 and <code>bound</code>
+     * @since 1.1
+     */
+    public static int nextInt(final int bound) {
+        return (int)((nextLong() >>> 1) % bound);
+    }
+}
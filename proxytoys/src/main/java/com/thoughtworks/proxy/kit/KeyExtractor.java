@@ -0,0 +1,35 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.kit;
+
+import java.lang.reflect.Method;
+
+
+/**
+ * Extractor for the key of a call. The toys use the key to identify equal calls, e.g. concurrent calls of a
+ * coalescing future proxy with equal keys share a single execution and a caching proxy returns the same result for
+ * equal keys.
+ *
+ * @see ArgumentsKeyExtractor
+ * @since 1.1
+ */
+public interface KeyExtractor {
+
+    /**
+     * Extract the key of a call.
+     *
+     * @param method the called method
+     * @param args   the arguments of the call
+     * @return the key, that must implement <code>equals</code> and <code>hashCode</code>
+     * @since 1.1
+     */
+    Object getKey(Method method, Object[] args);
+}
@@ -0,0 +1,151 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.kit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * A lock-free histogram of latencies in nanoseconds.
+ * <p>
+ * The histogram uses logarithmic buckets, every power of two is divided into 2<sup><em>bits</em></sup> linear
+ * sub-buckets. By default a power of two has four sub-buckets and a percentile is therefore reported with a relative
+ * error of at most 25 percent, every additional bit halves the error and doubles the memory footprint. Recording a
+ * value costs only two atomic increments and the memory footprint is constant.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class LatencyHistogram {
+    private final int subBucketBits;
+    private final AtomicLongArray buckets;
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Construct a LatencyHistogram with four sub-buckets for every power of two.
+     *
+     * @since 1.1
+     */
+    public LatencyHistogram() {
+        this(2);
+    }
+
+    /**
+     * Construct a LatencyHistogram with a given precision.
+     *
+     * @param subBucketBits the number of bits selecting the linear sub-bucket of a power of two
+     * @throws IllegalArgumentException if the number of bits is not between 0 and 8
+     * @since 1.1
+     */
+    public LatencyHistogram(final int subBucketBits) {
+        if (subBucketBits < 0 || subBucketBits > 8) {
+            throw new IllegalArgumentException("Number of sub-bucket bits out of range: " + subBucketBits);
+        }
+        this.subBucketBits = subBucketBits;
+        buckets = new AtomicLongArray(64 << subBucketBits);
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos the latency in nanoseconds, negative values are recorded as 0
+     * @since 1.1
+     */
+    public void record(final long nanos) {
+        buckets.incrementAndGet(indexOf(subBucketBits, nanos < 0 ? 0 : nanos));
+        count.incrementAndGet();
+    }
+
+    /**
+     * Retrieve the number of recorded latencies.
+     *
+     * @return the number of latencies
+     * @since 1.1
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Retrieve the counts of the buckets.
+     *
+     * @param reset <code>true</code> to reset the counts
+     * @return the counts of the buckets in ascending order of their latencies
+     * @since 1.1
+     */
+    public long[] getCounts(final boolean reset) {
+        final long[] counts = new long[buckets.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = reset ? buckets.getAndSet(i, 0) : buckets.get(i);
+            total += counts[i];
+        }
+        if (reset) {
+            count.addAndGet(-total);
+        }
+        return counts;
+    }
+
+    /**
+     * Estimate a percentile of the recorded latencies. The estimate is the upper bound of the bucket containing the
+     * percentile.
+     *
+     * @param percentile the percentile as fraction between 0 and 1
+     * @return the latency in nanoseconds or 0 if no latency has been recorded
+     * @since 1.1
+     */
+    public long getPercentile(final double percentile) {
+        final long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long)Math.ceil(percentile * total));
+        long sum = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            sum += buckets.get(i);
+            if (sum >= rank) {
+                return upperBoundOf(subBucketBits, i);
+            }
+        }
+        // concurrent recording, the count is ahead of the buckets
+        return upperBoundOf(subBucketBits, buckets.length() - 1);
+    }
+
+    private static int indexOf(final int subBucketBits, final long value) {
+        final int subBuckets = 1 << subBucketBits;
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent < subBucketBits) {
+            return (int)value;
+        }
+        final int shift = exponent - subBucketBits;
+        return (shift + 1) * subBuckets + (int)((value >>> shift) & (subBuckets - 1));
+    }
+
+    /**
+     * Retrieve the largest latency counted by a bucket.
+     *
+     * @param subBucketBits the number of bits selecting the linear sub-bucket of a power of two
+     * @param index         the index of the bucket
+     * @return the latency in nanoseconds
+     * @since 1.1
+     */
+    public static long upperBoundOf(final int subBucketBits, final int index) {
+        final int subBuckets = 1 << subBucketBits;
+        if (index < subBuckets) {
+            return index;
+        }
+        final int shift = index / subBuckets - 1;
+        final long lower = (long)(subBuckets + index % subBuckets) << shift;
+        final long upper = lower + (1L << shift) - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
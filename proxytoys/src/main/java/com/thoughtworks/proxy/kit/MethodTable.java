@@ -0,0 +1,124 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.kit;
+
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+
+/**
+ * The table of the public methods of a type, identified by signature hashes.
+ * <p>
+ * A signature hash is a 64-bit value calculated from the declaring class, the name, the parameter types and the return
+ * type of a method. It is stable across JVMs as long as the signature is unchanged and can therefore be used as a
+ * compact replacement for the {@link Method} in a serialized stream. The tables are shared and cached per type, the
+ * cache does not prevent the unloading of the types.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class MethodTable {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final Map<Class<?>, SoftReference<MethodTable>> tables = new WeakHashMap<Class<?>, SoftReference<MethodTable>>();
+
+    private final Class<?> type;
+    private final Method[] methods;
+    private final Map<Long, Method> signatures;
+
+    private MethodTable(final Class<?> type) {
+        this.type = type;
+        methods = type.getMethods();
+        signatures = new HashMap<Long, Method>(methods.length * 2);
+        for (final Method method : methods) {
+            final Long hash = Long.valueOf(signatureHash(method));
+            if (signatures.containsKey(hash)) {
+                // ambiguous hash, the method cannot be resolved
+                signatures.put(hash, null);
+            } else {
+                signatures.put(hash, method);
+            }
+        }
+    }
+
+    /**
+     * Retrieve the shared method table of a type.
+     *
+     * @param type the type
+     * @return the method table
+     * @since 1.1
+     */
+    public static MethodTable forType(final Class<?> type) {
+        synchronized (tables) {
+            final SoftReference<MethodTable> reference = tables.get(type);
+            MethodTable table = reference == null ? null : reference.get();
+            if (table == null) {
+                table = new MethodTable(type);
+                tables.put(type, new SoftReference<MethodTable>(table));
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Calculate the signature hash of a method.
+     *
+     * @param method the method
+     * @return the hash
+     * @since 1.1
+     */
+    public static long signatureHash(final Method method) {
+        long hash = hash(FNV_OFFSET, method.getDeclaringClass().getName());
+        hash = hash(hash, method.getName());
+        for (final Class<?> parameterType : method.getParameterTypes()) {
+            hash = hash(hash, parameterType.getName());
+        }
+        return hash(hash, method.getReturnType().getName());
+    }
+
+    private static long hash(long hash, final String name) {
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ name.charAt(i)) * FNV_PRIME;
+        }
+        // separator, that cannot be part of a name
+        return (hash ^ '(') * FNV_PRIME;
+    }
+
+    /**
+     * Retrieve the public methods of the type. The result is the same as the one of {@link Class#getMethods()}.
+     *
+     * @return a new array with the methods
+     * @since 1.1
+     */
+    public Method[] getMethods() {
+        return methods.clone();
+    }
+
+    /**
+     * Retrieve a method by its signature hash.
+     *
+     * @param signatureHash the signature hash
+     * @return the method
+     * @throws NoSuchMethodException if the type has no unique method with this signature hash
+     * @since 1.1
+     */
+    public Method getMethod(final long signatureHash) throws NoSuchMethodException {
+        final Method method = signatures.get(Long.valueOf(signatureHash));
+        if (method == null) {
+            throw new NoSuchMethodException("No method of "
+                + type.getName() + " with signature hash " + Long.toHexString(signatureHash));
+        }
+        return method;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.kit;
+
+/**
+ * Indicates how a proxy handles a call, if one of its limits is reached, e.g. the maximum number of pending calls of a
+ * bounded future proxy or a limit of a throttling proxy.
+ *
+ * @since 1.1
+ */
+public enum RejectionPolicy {
+    /**
+     * The caller is blocked until the limit allows the call.
+     *
+     * @since 1.1
+     */
+    BLOCK,
+
+    /**
+     * The caller runs the call itself synchronously.
+     *
+     * @since 1.1
+     */
+    CALLER_RUNS,
+
+    /**
+     * The call fails with a {@link java.util.concurrent.RejectedExecutionException}.
+     *
+     * @since 1.1
+     */
+    FAIL_FAST,
+
+    /**
+     * The call is not executed and returns a {@linkplain com.thoughtworks.proxy.toys.nullobject.Null null object}.
+     *
+     * @since 1.1
+     */
+    NULL_RESULT
+}
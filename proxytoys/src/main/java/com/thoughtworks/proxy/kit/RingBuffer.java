@@ -0,0 +1,154 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.kit;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * A bounded, lock-free ring buffer for multiple producers and a single consumer.
+ * <p>
+ * Producers claim a slot by advancing the tail sequence with a CAS operation and publish the element into the claimed
+ * slot afterwards. The single consumer takes the published elements in the order of their claimed sequence. The
+ * capacity is always rounded up to the next power of two.
+ * </p>
+ *
+ * @param <E> the type of the elements
+ * @since 1.1
+ */
+public class RingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * Construct a RingBuffer.
+     *
+     * @param capacity the minimal capacity of the buffer
+     * @throws IllegalArgumentException if the capacity is not positive
+     * @since 1.1
+     */
+    public RingBuffer(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        slots = new AtomicReferenceArray<E>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * Append an element to the buffer. This method may be called concurrently by any number of threads.
+     *
+     * @param element the element to append, must not be <code>null</code>
+     * @return <code>true</code> if the element was appended, <code>false</code> if the buffer is full
+     * @throws NullPointerException if the element is <code>null</code>
+     * @since 1.1
+     */
+    public boolean offer(final E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.set((int)sequence & mask, element);
+        return true;
+    }
+
+    /**
+     * Remove the available elements from the buffer and add them to the given collection. This method must only be
+     * called by the single consumer thread. It stops at the first slot that has been claimed, but not published yet.
+     *
+     * @param collection the collection receiving the elements
+     * @param maxElements the maximum number of elements to transfer
+     * @return the number of transferred elements
+     * @since 1.1
+     */
+    public int drainTo(final Collection<? super E> collection, final int maxElements) {
+        long sequence = head;
+        int count = 0;
+        while (count < maxElements) {
+            final int index = (int)sequence & mask;
+            final E element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.set(index, null);
+            collection.add(element);
+            ++sequence;
+            ++count;
+            head = sequence;
+        }
+        return count;
+    }
+
+    /**
+     * Check whether the buffer is empty. Note, that claimed, but unpublished elements count as available.
+     *
+     * @return <code>true</code> if no element is pending
+     * @since 1.1
+     */
+    public boolean isEmpty() {
+        return tail.get() == head;
+    }
+
+    /**
+     * Retrieve the current number of pending elements.
+     *
+     * @return the number of elements
+     * @since 1.1
+     */
+    public int size() {
+        return (int)(tail.get() - head);
+    }
+
+    /**
+     * Retrieve the capacity of the buffer.
+     *
+     * @return the capacity
+     * @since 1.1
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Retrieve the total number of elements ever appended to the buffer.
+     *
+     * @return the number of appended elements
+     * @since 1.1
+     */
+    public long getOfferCount() {
+        return tail.get();
+    }
+
+    /**
+     * Retrieve the total number of elements ever taken from the buffer.
+     *
+     * @return the number of taken elements
+     * @since 1.1
+     */
+    public long getDrainCount() {
+        return head;
+    }
+}
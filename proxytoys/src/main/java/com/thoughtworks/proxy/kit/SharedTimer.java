@@ -0,0 +1,48 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.kit;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The timer shared by the toys for short delayed tasks like timeouts, hedged calls or periodic reports. The timer
+ * uses a single daemon thread, that is started with the first access. Scheduled tasks must therefore return quickly
+ * and hand any real work over to an executor.
+ *
+ * @since 1.1
+ */
+public final class SharedTimer {
+    private static ScheduledExecutorService timer;
+
+    private SharedTimer() {
+    }
+
+    /**
+     * Retrieve the shared timer.
+     *
+     * @return the timer
+     * @since 1.1
+     */
+    public static synchronized ScheduledExecutorService getTimer() {
+        if (timer == null) {
+            timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "proxytoys-timer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return timer;
+    }
+}
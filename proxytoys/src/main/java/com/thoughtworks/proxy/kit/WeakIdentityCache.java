@@ -0,0 +1,105 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.kit;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * A cache with weak keys compared by identity and weak values.
+ * <p>
+ * The cache is meant for values referencing their keys, e.g. a proxy for the key. Since the value is weakly referenced
+ * also, it does not keep its key alive. An entry is therefore available as long as the value is in use somewhere else.
+ * The cache is thread-safe.
+ * </p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @since 1.1
+ */
+public class WeakIdentityCache<K, V> {
+
+    private final ReferenceQueue<K> queue = new ReferenceQueue<K>();
+    private final Map<IdentityKey<K>, WeakReference<V>> entries = new HashMap<IdentityKey<K>, WeakReference<V>>();
+
+    private static final class IdentityKey<K> extends WeakReference<K> {
+        private final int hash;
+
+        private IdentityKey(final K key, final ReferenceQueue<K> queue) {
+            super(key, queue);
+            hash = System.identityHashCode(key);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof IdentityKey) {
+                final Object key = get();
+                return key != null && key == ((IdentityKey<?>)obj).get();
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Retrieve the cached value of a key.
+     *
+     * @param key the key
+     * @return the value or <code>null</code> if no value is available
+     * @since 1.1
+     */
+    public synchronized V get(final K key) {
+        expunge();
+        final WeakReference<V> reference = entries.get(new IdentityKey<K>(key, null));
+        return reference == null ? null : reference.get();
+    }
+
+    /**
+     * Cache a value for a key. An existing value of the key is replaced.
+     *
+     * @param key   the key, must not be <code>null</code>
+     * @param value the value
+     * @since 1.1
+     */
+    public synchronized void put(final K key, final V value) {
+        expunge();
+        entries.put(new IdentityKey<K>(key, queue), new WeakReference<V>(value));
+    }
+
+    /**
+     * Retrieve the number of entries. The number includes entries, whose key or value has been collected, but not
+     * expunged yet.
+     *
+     * @return the number of entries
+     * @since 1.1
+     */
+    public synchronized int size() {
+        expunge();
+        return entries.size();
+    }
+
+    private void expunge() {
+        for (Reference<? extends K> reference; (reference = queue.poll()) != null;) {
+            entries.remove(reference);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.async;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.thoughtworks.proxy.ProxyFactory;
+import com.thoughtworks.proxy.factory.StandardProxyFactory;
+import com.thoughtworks.proxy.toys.future.FutureExecutor;
+
+
+/**
+ * Factory for proxies adapting a synchronous type to an asynchronous one. Every method of the asynchronous type
+ * returns an {@link AsyncResult} for the call of the matching method in the synchronous type, that runs on an
+ * executor. In contrast to the {@linkplain com.thoughtworks.proxy.toys.future.Future Future toy} the caller can query
+ * the state of the call, chain further processing, cancel it or wait with a timeout.
+ *
+ * @see com.thoughtworks.proxy.toys.async
+ * @since 1.1
+ */
+public class Async<T> {
+    private Class<T> type;
+    private Class<?> syncType;
+    private Object delegate;
+    private ExecutorService executor;
+    private long timeout;
+    private TimeUnit unit = TimeUnit.MILLISECONDS;
+
+    private Async(Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * Creates a factory for proxies implementing an asynchronous type.
+     *
+     * @param type the asynchronous type of the proxy
+     * @return a factory that will proxy instances of the supplied type
+     * @since 1.1
+     */
+    public static <T> AsyncWith<T> proxy(Class<T> type) {
+        return new AsyncWith<T>(new Async<T>(type));
+    }
+
+    public static class AsyncWith<T> {
+        private Async<T> async;
+
+        private AsyncWith(Async<T> async) {
+            this.async = async;
+        }
+
+        /**
+         * With this synchronous delegate.
+         *
+         * @param syncType the synchronous type with the methods matching the asynchronous type
+         * @param delegate the delegate implementing the synchronous type
+         * @return the factory that will call the supplied delegate asynchronously
+         * @since 1.1
+         */
+        public <S> AsyncBuild<T> with(Class<S> syncType, S delegate) {
+            async.syncType = syncType;
+            async.delegate = delegate;
+            return new AsyncBuild<T>(async);
+        }
+    }
+
+    public static class AsyncBuild<T> {
+        private Async<T> async;
+
+        private AsyncBuild(Async<T> async) {
+            this.async = async;
+        }
+
+        /**
+         * Defines the executor running the calls. The executor is not shut down by the proxy. Without an explicit
+         * executor the {@linkplain FutureExecutor#getShared() shared executor} of the future proxies is used. The
+         * executor is not serialized, a deserialized proxy always uses the shared executor.
+         *
+         * @param executor the executor
+         * @return the factory that will run the calls with the given executor
+         * @since 1.1
+         */
+        public AsyncBuild<T> executing(ExecutorService executor) {
+            async.executor = executor;
+            return this;
+        }
+
+        /**
+         * Let every call expire after a timeout. An expired call fails with a
+         * {@link java.util.concurrent.TimeoutException} and is interrupted.
+         *
+         * @param timeout the timeout
+         * @param unit    the time unit of the timeout
+         * @return the factory that will let the calls expire after the timeout
+         * @since 1.1
+         */
+        public AsyncBuild<T> timeout(long timeout, TimeUnit unit) {
+            async.timeout = timeout;
+            async.unit = unit;
+            return this;
+        }
+
+        /**
+         * Create an asynchronous proxy using the {@link StandardProxyFactory}.
+         *
+         * @return the created proxy implementing the asynchronous type
+         * @throws IllegalArgumentException if the types do not match
+         * @since 1.1
+         */
+        public T build() {
+            return build(new StandardProxyFactory());
+        }
+
+        /**
+         * Create an asynchronous proxy using a special {@link ProxyFactory}.
+         *
+         * @param factory the {@link ProxyFactory} to use
+         * @return the created proxy implementing the asynchronous type
+         * @throws IllegalArgumentException if the types do not match
+         * @since 1.1
+         */
+        public T build(ProxyFactory factory) {
+            ExecutorService executor = async.executor != null ? async.executor : FutureExecutor.getShared();
+            return factory.<T>createProxy(
+                new AsyncInvoker(async.type, async.syncType, async.delegate, executor, async.timeout, async.unit),
+                async.type);
+        }
+    }
+}
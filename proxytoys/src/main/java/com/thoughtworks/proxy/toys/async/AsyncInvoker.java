@@ -0,0 +1,145 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.async;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.thoughtworks.proxy.Invoker;
+import com.thoughtworks.proxy.kit.ReflectionUtils;
+import com.thoughtworks.proxy.kit.SharedTimer;
+import com.thoughtworks.proxy.toys.future.FutureExecutor;
+
+
+/**
+ * {@link com.thoughtworks.proxy.Invoker Invoker} adapting a synchronous type to an asynchronous one. Every method of
+ * the asynchronous type returns an {@link AsyncResult} and has a method with the same name and parameters in the
+ * synchronous type. A call runs this method of the delegate on the executor and returns immediately.
+ * <p>
+ * The methods are matched once at construction time. With a timeout every call expires if it has not returned in
+ * time, the timeouts are observed by a single shared daemon thread.
+ * </p>
+ * <p>
+ * The executor is not serialized, a deserialized invoker runs its calls on the
+ * {@linkplain FutureExecutor#getShared() shared executor} of the future proxies.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class AsyncInvoker implements Invoker {
+    private static final long serialVersionUID = 1L;
+    private static final Executor DIRECT = new Executor() {
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    private final Class<?>[] types;
+    private final Object delegate;
+    private final long timeoutNanos;
+    private final transient ExecutorService executor;
+    private final transient Map<Method, Method> methods;
+
+    /**
+     * Construct the invoker.
+     *
+     * @param asyncType the asynchronous type implemented by the proxy
+     * @param syncType  the synchronous type of the delegate
+     * @param delegate  the delegate
+     * @param executor  the executor running the calls
+     * @param timeout   the timeout of a call, 0 for no timeout
+     * @param unit      the time unit of the timeout
+     * @throws IllegalArgumentException if a method of the asynchronous type has no matching synchronous method or
+     *                                  does not return an {@link AsyncResult}
+     * @since 1.1
+     */
+    public AsyncInvoker(
+            final Class<?> asyncType, final Class<?> syncType, final Object delegate, final ExecutorService executor,
+            final long timeout, final TimeUnit unit) {
+        this.types = new Class<?>[]{asyncType, syncType};
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeoutNanos = unit.toNanos(timeout);
+        methods = new HashMap<Method, Method>();
+        for (final Method method : asyncType.getMethods()) {
+            if (method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            if (!method.getReturnType().isAssignableFrom(AsyncResult.class)) {
+                throw new IllegalArgumentException("Method " + method + " does not return a Future");
+            }
+            try {
+                methods.put(method, syncType.getMethod(method.getName(), method.getParameterTypes()));
+            } catch (final NoSuchMethodException e) {
+                throw new IllegalArgumentException("No synchronous method for " + method);
+            }
+        }
+    }
+
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        final Method syncMethod = methods.get(method);
+        if (syncMethod == null) {
+            if (method.equals(ReflectionUtils.equals)) {
+                return args[0] == proxy;
+            } else if (method.equals(ReflectionUtils.hashCode)) {
+                return System.identityHashCode(proxy);
+            }
+            try {
+                return method.invoke(delegate, args);
+            } catch (final InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+        final AsyncResult<Object> result = new AsyncResult<Object>(new Callable<Object>() {
+            public Object call() throws Exception {
+                try {
+                    return syncMethod.invoke(delegate, args);
+                } catch (final InvocationTargetException e) {
+                    final Throwable target = e.getTargetException();
+                    if (target instanceof Error) {
+                        throw (Error)target;
+                    }
+                    throw (Exception)target;
+                }
+            }
+        });
+        executor.execute(result);
+        if (timeoutNanos > 0 && !result.isDone()) {
+            final ScheduledFuture<?> expiry = SharedTimer.getTimer().schedule(new Runnable() {
+                public void run() {
+                    result.expire();
+                }
+            }, timeoutNanos, TimeUnit.NANOSECONDS);
+            result.addListener(new Runnable() {
+                public void run() {
+                    expiry.cancel(false);
+                }
+            }, DIRECT);
+        }
+        return result;
+    }
+
+    private Object readResolve() {
+        if (types == null) {
+            // instantiated by XStream from an empty serialized form, the fields are set afterwards
+            return this;
+        }
+        return new AsyncInvoker(types[0], types[1], delegate, FutureExecutor.getShared(), timeoutNanos,
+            TimeUnit.NANOSECONDS);
+    }
+}
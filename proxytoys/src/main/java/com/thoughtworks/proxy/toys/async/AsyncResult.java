@@ -0,0 +1,112 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.async;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * The result of an asynchronous call. It is a {@link java.util.concurrent.Future} that notifies listeners as soon as
+ * it is done, so that further processing can be chained without blocking a thread. A call can be cancelled or
+ * expire, an expired call fails with a {@link TimeoutException} and the running call is interrupted.
+ *
+ * @param <V> the type of the result
+ * @since 1.1
+ */
+public class AsyncResult<V> extends FutureTask<V> {
+    private final List<Runnable> listeners = new ArrayList<Runnable>();
+    private Thread runner;
+    private boolean notified;
+
+    /**
+     * Construct an AsyncResult.
+     *
+     * @param callable the call
+     * @since 1.1
+     */
+    public AsyncResult(Callable<V> callable) {
+        super(callable);
+    }
+
+    /**
+     * Add a listener, that is run as soon as the call is done. A listener added to a completed call is run
+     * immediately.
+     *
+     * @param listener the listener
+     * @param executor the executor running the listener
+     * @since 1.1
+     */
+    public void addListener(final Runnable listener, final Executor executor) {
+        final Runnable task = new Runnable() {
+            public void run() {
+                executor.execute(listener);
+            }
+        };
+        synchronized (listeners) {
+            if (!notified) {
+                listeners.add(task);
+                return;
+            }
+        }
+        task.run();
+    }
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            runner = Thread.currentThread();
+        }
+        try {
+            super.run();
+        } finally {
+            synchronized (this) {
+                runner = null;
+            }
+            // clear an interrupt of an expired call, that arrived after the call returned
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Let the call expire. The call fails with a {@link TimeoutException} and the running call is interrupted. An
+     * already completed call is not affected.
+     *
+     * @since 1.1
+     */
+    public void expire() {
+        if (!isDone()) {
+            setException(new TimeoutException("Asynchronous call expired"));
+            synchronized (this) {
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void done() {
+        final Runnable[] tasks;
+        synchronized (listeners) {
+            notified = true;
+            tasks = listeners.toArray(new Runnable[listeners.size()]);
+            listeners.clear();
+        }
+        for (final Runnable task : tasks) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.caching;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.thoughtworks.proxy.kit.RingBuffer;
+
+
+/**
+ * The store for the cached results of a {@link CachingInvoker}. The store is bounded by the total weight of its
+ * results, the results expire optionally a fixed time after they have been stored.
+ * <p>
+ * A result is looked up in a concurrent map without any lock. The accesses are recorded in a lossy buffer and
+ * applied to the eviction order and the frequency sketch in batches by the thread holding the lock, a reading thread
+ * never waits for the lock. Any modification of the store is guarded by the lock.
+ * </p>
+ *
+ * @since 1.1
+ */
+final class CacheStore {
+    /**
+     * The value returned by {@link #get(Object, long)} if no result is cached.
+     */
+    static final Object MISS = new Object();
+    private static final int READ_BUFFER_SIZE = 128;
+
+    private final EvictionPolicy policy;
+    private final long maximumWeight;
+    private final Weigher weigher;
+    private final long timeToLive;
+    private final ConcurrentMap<Object, Entry> results = new ConcurrentHashMap<Object, Entry>();
+    private final RingBuffer<Object> reads = new RingBuffer<Object>(READ_BUFFER_SIZE);
+    private final List<Object> drained = new ArrayList<Object>(READ_BUFFER_SIZE);
+    private final ReentrantLock lock = new ReentrantLock();
+    // the results in access order guarded by the lock, the window is used by TINY_LFU only
+    private final LinkedHashMap<Object, Entry> window = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+    private final LinkedHashMap<Object, Entry> main = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+    private final long windowMaximum;
+    private final FrequencySketch sketch;
+    private long windowWeight;
+    private long mainWeight;
+    private long evictions;
+    private volatile long generation;
+
+    private static final class Entry {
+        private final Object result;
+        private final long weight;
+        private final long expiry;
+
+        private Entry(final Object result, final long weight, final long expiry) {
+            this.result = result;
+            this.weight = weight;
+            this.expiry = expiry;
+        }
+    }
+
+    /**
+     * Construct a CacheStore.
+     *
+     * @param policy        the eviction policy
+     * @param maximumWeight the maximum total weight of the results
+     * @param weigher       the weigher of the results
+     * @param timeToLive    the time to live of a result in nanoseconds, 0 for no expiry
+     */
+    CacheStore(final EvictionPolicy policy, final long maximumWeight, final Weigher weigher, final long timeToLive) {
+        this.policy = policy;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.timeToLive = timeToLive;
+        if (policy == EvictionPolicy.TINY_LFU) {
+            windowMaximum = Math.max(1, maximumWeight / 100);
+            sketch = new FrequencySketch(Math.min(maximumWeight, 1 << 20));
+        } else {
+            windowMaximum = 0;
+            sketch = null;
+        }
+    }
+
+    /**
+     * Retrieve the generation of the store. The generation changes with every invalidation.
+     *
+     * @return the generation
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Retrieve a result.
+     *
+     * @param key the key of the call
+     * @param now the current time in nanoseconds
+     * @return the result or {@link #MISS} if no result is cached
+     */
+    Object get(final Object key, final long now) {
+        final Entry entry = results.get(key);
+        if (entry == null) {
+            if (sketch != null) {
+                // the sketch counts any access to admit frequently requested results
+                recordAccess(key);
+            }
+            return MISS;
+        }
+        if (timeToLive > 0 && now - entry.expiry >= 0) {
+            lock.lock();
+            try {
+                if (results.get(key) == entry) {
+                    remove(key);
+                }
+            } finally {
+                lock.unlock();
+            }
+            return MISS;
+        }
+        recordAccess(key);
+        return entry.result;
+    }
+
+    private void recordAccess(final Object key) {
+        if (!reads.offer(key) && lock.tryLock()) {
+            try {
+                drainReads();
+            } finally {
+                lock.unlock();
+            }
+        }
+        // an access is lost, if the buffer is full while another thread holds the lock
+    }
+
+    /**
+     * Apply the buffered accesses. Must be called with the lock held.
+     */
+    private void drainReads() {
+        reads.drainTo(drained, READ_BUFFER_SIZE);
+        for (final Object key : drained) {
+            if (sketch != null) {
+                sketch.increment(key);
+            }
+            // a lookup moves the result to the end of the access order
+            if (main.get(key) == null) {
+                window.get(key);
+            }
+        }
+        drained.clear();
+    }
+
+    /**
+     * Store a result, if the store has not been invalidated since the call started. A result heavier than the maximum
+     * weight is not stored.
+     *
+     * @param key        the key of the call
+     * @param result     the result
+     * @param now        the current time in nanoseconds
+     * @param generation the generation of the store at the start of the call
+     */
+    void put(final Object key, final Object result, final long now, final long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        final long weight = weigher.weigh(key, result);
+        if (weight < 0) {
+            throw new IllegalStateException("Negative weight " + weight + " for " + key);
+        }
+        lock.lock();
+        try {
+            if (generation != this.generation) {
+                return;
+            }
+            drainReads();
+            remove(key);
+            if (weight > maximumWeight) {
+                return;
+            }
+            final Entry entry = new Entry(result, weight, now + timeToLive);
+            results.put(key, entry);
+            if (policy == EvictionPolicy.LRU) {
+                main.put(key, entry);
+                mainWeight += weight;
+                evict(maximumWeight);
+            } else {
+                window.put(key, entry);
+                windowWeight += weight;
+                while (windowWeight > windowMaximum && !window.isEmpty()) {
+                    final Map.Entry<Object, Entry> candidate = eldest(window);
+                    window.remove(candidate.getKey());
+                    windowWeight -= candidate.getValue().weight;
+                    admit(candidate.getKey(), candidate.getValue());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void admit(final Object key, final Entry entry) {
+        final long mainMaximum = maximumWeight - windowMaximum;
+        if (entry.weight > mainMaximum) {
+            results.remove(key);
+            evictions++;
+            return;
+        }
+        if (mainWeight + entry.weight > mainMaximum) {
+            final Object victim = eldest(main).getKey();
+            if (sketch.frequency(key) <= sketch.frequency(victim)) {
+                results.remove(key);
+                evictions++;
+                return;
+            }
+        }
+        main.put(key, entry);
+        mainWeight += entry.weight;
+        evict(mainMaximum);
+    }
+
+    private void evict(final long maximum) {
+        for (final Iterator<Map.Entry<Object, Entry>> iter = main.entrySet().iterator();
+                mainWeight > maximum && iter.hasNext();) {
+            final Map.Entry<Object, Entry> eldest = iter.next();
+            mainWeight -= eldest.getValue().weight;
+            results.remove(eldest.getKey());
+            iter.remove();
+            evictions++;
+        }
+    }
+
+    private static Map.Entry<Object, Entry> eldest(final LinkedHashMap<Object, Entry> map) {
+        return map.entrySet().iterator().next();
+    }
+
+    private void remove(final Object key) {
+        results.remove(key);
+        Entry entry = main.remove(key);
+        if (entry != null) {
+            mainWeight -= entry.weight;
+        }
+        entry = window.remove(key);
+        if (entry != null) {
+            windowWeight -= entry.weight;
+        }
+    }
+
+    /**
+     * Invalidate a result.
+     *
+     * @param key the key of the call
+     */
+    void invalidate(final Object key) {
+        lock.lock();
+        try {
+            generation++;
+            remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Invalidate all results.
+     */
+    void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            results.clear();
+            main.clear();
+            window.clear();
+            mainWeight = 0;
+            windowWeight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieve the number of evicted results.
+     *
+     * @return the number of evictions
+     */
+    long getEvictions() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieve the number of cached results.
+     *
+     * @return the number of results
+     */
+    int size() {
+        return results.size();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.caching;
+
+import java.lang.reflect.Method;
+
+
+/**
+ * Control of the cache of a proxy created by the {@link Caching} toy. Any such proxy implements this interface
+ * additionally to invalidate cached results and to query the statistics of the cache.
+ *
+ * @since 1.1
+ */
+public interface Cached {
+
+    /**
+     * Invalidate the cached result of a call. A call of the method with equal arguments is passed to the delegate
+     * again.
+     *
+     * @param method the cached method
+     * @param args   the arguments of the call
+     * @since 1.1
+     */
+    void invalidate(Method method, Object... args);
+
+    /**
+     * Invalidate all cached results.
+     *
+     * @since 1.1
+     */
+    void invalidateAll();
+
+    /**
+     * Retrieve the number of cacheable calls answered from the cache.
+     *
+     * @return the number of hits
+     * @since 1.1
+     */
+    long getHits();
+
+    /**
+     * Retrieve the number of cacheable calls passed to the delegate. A call waiting for the result of a concurrent
+     * call with equal arguments is counted as miss.
+     *
+     * @return the number of misses
+     * @since 1.1
+     */
+    long getMisses();
+
+    /**
+     * Retrieve the fraction of cacheable calls answered from the cache.
+     *
+     * @return the hit ratio between 0 and 1 or 0 if no cacheable call has been made
+     * @since 1.1
+     */
+    double getHitRatio();
+
+    /**
+     * Retrieve the number of results evicted from the cache or not admitted into the cache, because the cache is
+     * full. Expired results are not counted.
+     *
+     * @return the number of evictions
+     * @since 1.1
+     */
+    long getEvictions();
+
+    /**
+     * Retrieve the number of cached results. The number may include expired results, that have not been removed yet.
+     *
+     * @return the number of results
+     * @since 1.1
+     */
+    int getSize();
+}
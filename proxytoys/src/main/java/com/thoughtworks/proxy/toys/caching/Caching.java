@@ -0,0 +1,189 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.caching;
+
+import java.util.concurrent.TimeUnit;
+
+import com.thoughtworks.proxy.ProxyFactory;
+import com.thoughtworks.proxy.factory.StandardProxyFactory;
+import com.thoughtworks.proxy.kit.KeyExtractor;
+import com.thoughtworks.proxy.kit.ReflectionUtils;
+
+
+/**
+ * Factory for proxies memoizing the results of a delegate. The proxy returns the cached result of an earlier call with
+ * equal arguments instead of calling the delegate again. It implements additionally {@link Cached} to invalidate the
+ * cached results and to query the hit ratio.
+ *
+ * @see com.thoughtworks.proxy.toys.caching
+ * @since 1.1
+ */
+public class Caching<T> {
+    private Class<?>[] types;
+    private Object delegate;
+    private String[] cacheableMethods;
+    private KeyExtractor keyExtractor;
+    private EvictionPolicy policy = EvictionPolicy.LRU;
+    private long maximumWeight = 1024;
+    private Weigher weigher;
+    private long timeToLive;
+    private TimeUnit unit;
+
+    private Caching(Class<?>[] types) {
+        this.types = types;
+    }
+
+    /**
+     * Creates a factory for proxies caching the results of a type.
+     *
+     * @param primaryType the type of the proxy
+     * @return a factory that will proxy instances of the supplied type
+     * @since 1.1
+     */
+    public static <T> CachingWith<T> proxy(Class<T> primaryType) {
+        return new CachingWith<T>(new Caching<T>(new Class<?>[]{primaryType}));
+    }
+
+    /**
+     * Creates a factory for proxies caching the results of several types.
+     *
+     * @param primaryType the main type of the proxy
+     * @param types       the other types of the proxy
+     * @return a factory that will proxy instances of the supplied types
+     * @since 1.1
+     */
+    public static <T> CachingWith<T> proxy(Class<T> primaryType, Class<?>... types) {
+        return new CachingWith<T>(new Caching<T>(ReflectionUtils.makeTypesArray(primaryType, types)));
+    }
+
+    public static class CachingWith<T> {
+        private Caching<T> caching;
+
+        private CachingWith(Caching<T> caching) {
+            this.caching = caching;
+        }
+
+        /**
+         * With this delegate.
+         *
+         * @param delegate the delegate implementing the types of the proxy
+         * @return the factory that will cache the results of the supplied delegate
+         * @since 1.1
+         */
+        public CachingBuild<T> with(Object delegate) {
+            caching.delegate = delegate;
+            return new CachingBuild<T>(caching);
+        }
+    }
+
+    public static class CachingBuild<T> {
+        private Caching<T> caching;
+
+        private CachingBuild(Caching<T> caching) {
+            this.caching = caching;
+        }
+
+        /**
+         * Cache only the results of some methods. By default the results of all methods with a return value are
+         * cached.
+         *
+         * @param methodNames the names of the cacheable methods
+         * @return the factory that will cache only the results of the named methods
+         * @since 1.1
+         */
+        public CachingBuild<T> caching(String... methodNames) {
+            caching.cacheableMethods = methodNames;
+            return this;
+        }
+
+        /**
+         * Use a special key for the calls. By default the key is built from the method and all arguments.
+         *
+         * @param keyExtractor the extractor for the key of a call
+         * @return the factory that will cache the results with the extracted keys
+         * @since 1.1
+         */
+        public CachingBuild<T> keyedBy(KeyExtractor keyExtractor) {
+            caching.keyExtractor = keyExtractor;
+            return this;
+        }
+
+        /**
+         * Bound the number of cached results. By default up to 1024 results are cached and the least recently used
+         * ones are evicted.
+         *
+         * @param policy      the eviction policy
+         * @param maximumSize the maximum number of cached results
+         * @return the factory that will cache the supplied number of results
+         * @since 1.1
+         */
+        public CachingBuild<T> evicting(EvictionPolicy policy, long maximumSize) {
+            return evicting(policy, maximumSize, null);
+        }
+
+        /**
+         * Bound the total weight of the cached results.
+         *
+         * @param policy        the eviction policy
+         * @param maximumWeight the maximum total weight of the cached results
+         * @param weigher       the weigher of the results
+         * @return the factory that will cache results up to the supplied weight
+         * @since 1.1
+         */
+        public CachingBuild<T> evicting(EvictionPolicy policy, long maximumWeight, Weigher weigher) {
+            caching.policy = policy;
+            caching.maximumWeight = maximumWeight;
+            caching.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Expire the cached results. By default a result is cached until it is evicted or invalidated.
+         *
+         * @param timeToLive the time a result is cached after the call of the delegate
+         * @param unit       the time unit of the time to live
+         * @return the factory that will expire the cached results
+         * @since 1.1
+         */
+        public CachingBuild<T> expiring(long timeToLive, TimeUnit unit) {
+            caching.timeToLive = timeToLive;
+            caching.unit = unit;
+            return this;
+        }
+
+        /**
+         * Create a caching proxy using the {@link StandardProxyFactory}.
+         *
+         * @return the created proxy implementing the types and {@link Cached}
+         * @since 1.1
+         */
+        public T build() {
+            return build(new StandardProxyFactory());
+        }
+
+        /**
+         * Create a caching proxy using a special {@link ProxyFactory}.
+         *
+         * @param factory the {@link ProxyFactory} to use
+         * @return the created proxy implementing the types and {@link Cached}
+         * @since 1.1
+         */
+        public T build(ProxyFactory factory) {
+            Class<?>[] types = new Class[caching.types.length + 1];
+            System.arraycopy(caching.types, 0, types, 0, caching.types.length);
+            types[caching.types.length] = Cached.class;
+            CachingInvoker invoker = new CachingInvoker(
+                caching.delegate, caching.cacheableMethods, caching.keyExtractor, caching.policy,
+                caching.maximumWeight, caching.weigher, caching.timeToLive, caching.unit);
+            return factory.<T>createProxy(invoker, types);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.caching;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.thoughtworks.proxy.Invoker;
+import com.thoughtworks.proxy.kit.ArgumentsKeyExtractor;
+import com.thoughtworks.proxy.kit.KeyExtractor;
+
+
+/**
+ * {@link Invoker} memoizing the results of a delegate. The result of a cacheable call is stored with the key of the
+ * call and returned for any later call with an equal key until it is evicted, it expires or it is invalidated. Calls
+ * of void methods and of methods declared by {@link Object} are never cached, neither are exceptions.
+ * <p>
+ * Concurrent calls with an equal key, that miss the cache, are coalesced: only the first call is passed to the
+ * delegate, the other ones wait for its result. A result, that was computed while the cache was invalidated, is
+ * returned, but not stored. The proxy implements additionally {@link Cached} for the invalidation and the statistics.
+ * The cached results and the statistics are not serialized.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class CachingInvoker implements Invoker {
+    private static final long serialVersionUID = 1L;
+    private static final Weigher SINGLE_WEIGHER = new SingleWeigher();
+
+    private final Object delegate;
+    private final Set<String> cacheableMethods;
+    private final KeyExtractor keyExtractor;
+    private final EvictionPolicy policy;
+    private final long maximumWeight;
+    private final Weigher weigher;
+    private final long timeToLive;
+    private transient volatile State state;
+
+    private static final class State {
+        private final CacheStore store;
+        private final ConcurrentMap<Object, FutureTask<Object>> loads = new ConcurrentHashMap<Object, FutureTask<Object>>();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+
+        private State(final CacheStore store) {
+            this.store = store;
+        }
+    }
+
+    private static final class SingleWeigher implements Weigher, java.io.Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public long weigh(final Object key, final Object result) {
+            return 1;
+        }
+    }
+
+    /**
+     * Construct a CachingInvoker caching all methods in up to 1024 results evicted by {@link EvictionPolicy#LRU}.
+     *
+     * @param delegate the delegate
+     * @since 1.1
+     */
+    public CachingInvoker(final Object delegate) {
+        this(delegate, null, null, EvictionPolicy.LRU, 1024, null, 0, null);
+    }
+
+    /**
+     * Construct a CachingInvoker.
+     *
+     * @param delegate         the delegate
+     * @param cacheableMethods the names of the cacheable methods, <code>null</code> for all methods
+     * @param keyExtractor     the extractor for the key of a call, <code>null</code> for an {@link ArgumentsKeyExtractor}
+     * @param policy           the eviction policy
+     * @param maximumWeight    the maximum total weight of the cached results
+     * @param weigher          the weigher of the results, <code>null</code> to weigh every result with 1
+     * @param timeToLive       the time a result is cached, 0 to cache it until it is evicted
+     * @param unit             the time unit of the time to live
+     * @throws IllegalArgumentException if the maximum weight is not positive or the time to live is negative
+     * @since 1.1
+     */
+    public CachingInvoker(
+        final Object delegate, final String[] cacheableMethods, final KeyExtractor keyExtractor,
+        final EvictionPolicy policy, final long maximumWeight, final Weigher weigher, final long timeToLive,
+        final TimeUnit unit) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive: " + maximumWeight);
+        }
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("Time to live must not be negative: " + timeToLive);
+        }
+        this.delegate = delegate;
+        this.cacheableMethods = cacheableMethods == null ? null : new HashSet<String>(Arrays.asList(cacheableMethods));
+        this.keyExtractor = keyExtractor == null ? new ArgumentsKeyExtractor() : keyExtractor;
+        this.policy = policy == null ? EvictionPolicy.LRU : policy;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher == null ? SINGLE_WEIGHER : weigher;
+        this.timeToLive = timeToLive == 0 ? 0 : unit.toNanos(timeToLive);
+    }
+
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Cached.class) {
+            return control(method, args);
+        }
+        if (!isCacheable(method)) {
+            return invokeDelegate(method, args);
+        }
+        final State state = getState();
+        final Object key = getKey(method, args);
+        final Object cached = state.store.get(key, System.nanoTime());
+        if (cached != CacheStore.MISS) {
+            state.hits.incrementAndGet();
+            return cached;
+        }
+        state.misses.incrementAndGet();
+        final long generation = state.store.getGeneration();
+        final FutureTask<Object> load = new FutureTask<Object>(new Callable<Object>() {
+            public Object call() throws Exception {
+                return method.invoke(delegate, args);
+            }
+        });
+        final FutureTask<Object> concurrentLoad = state.loads.putIfAbsent(key, load);
+        if (concurrentLoad != null) {
+            return getResult(concurrentLoad);
+        }
+        try {
+            load.run();
+            final Object result = getResult(load);
+            state.store.put(key, result, System.nanoTime(), generation);
+            return result;
+        } finally {
+            state.loads.remove(key, load);
+        }
+    }
+
+    private boolean isCacheable(final Method method) {
+        return method.getReturnType() != void.class
+            && method.getDeclaringClass() != Object.class
+            && (cacheableMethods == null || cacheableMethods.contains(method.getName()));
+    }
+
+    private Object getKey(final Method method, final Object[] args) {
+        // a call without arguments may be passed with null or an empty array
+        return keyExtractor.getKey(method, args == null || args.length == 0 ? null : args);
+    }
+
+    private Object invokeDelegate(final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static Object getResult(final FutureTask<Object> load) throws Throwable {
+        try {
+            return load.get();
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof InvocationTargetException
+                ? ((InvocationTargetException)cause).getTargetException()
+                : cause;
+        }
+    }
+
+    private Object control(final Method method, final Object[] args) {
+        final State state = getState();
+        final String name = method.getName();
+        if (name.equals("invalidate")) {
+            state.store.invalidate(getKey((Method)args[0], (Object[])args[1]));
+            return null;
+        } else if (name.equals("invalidateAll")) {
+            state.store.invalidateAll();
+            return null;
+        } else if (name.equals("getHits")) {
+            return state.hits.get();
+        } else if (name.equals("getMisses")) {
+            return state.misses.get();
+        } else if (name.equals("getHitRatio")) {
+            final long hits = state.hits.get();
+            final long total = hits + state.misses.get();
+            return total == 0 ? 0.0 : (double)hits / total;
+        } else if (name.equals("getEvictions")) {
+            return state.store.getEvictions();
+        } else {
+            return state.store.size();
+        }
+    }
+
+    private State getState() {
+        State current = state;
+        if (current == null) {
+            synchronized (this) {
+                if (state == null) {
+                    state = new State(new CacheStore(policy, maximumWeight, weigher, timeToLive));
+                }
+                current = state;
+            }
+        }
+        return current;
+    }
+}
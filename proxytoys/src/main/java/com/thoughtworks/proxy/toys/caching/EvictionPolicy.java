@@ -0,0 +1,30 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.caching;
+
+/**
+ * The policy selecting the result to evict, when the cache of a {@link Caching} proxy is full.
+ *
+ * @since 1.1
+ */
+public enum EvictionPolicy {
+    /**
+     * Evict the least recently used result.
+     */
+    LRU,
+    /**
+     * Keep the frequently used results. A new result enters a small window evicting the least recently used results.
+     * A result leaving the window replaces the least recently used result of the main cache only, if it has been used
+     * more frequently. The frequencies are estimated by a compact sketch, that ages over time. The policy is resistant
+     * against scans of rarely used keys.
+     */
+    TINY_LFU
+}
@@ -0,0 +1,89 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.caching;
+
+/**
+ * A count-min sketch estimating the access frequency of keys. Every key is counted in four saturating counters, its
+ * frequency is the minimum of these counters. All counters are halved periodically, so that the sketch forgets old
+ * accesses. The sketch is not thread-safe.
+ *
+ * @since 1.1
+ */
+final class FrequencySketch {
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+    private static final int MAXIMUM = 15;
+
+    private final byte[] counters;
+    private final int shift;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Construct a FrequencySketch.
+     *
+     * @param capacity the expected number of keys
+     */
+    FrequencySketch(final long capacity) {
+        int bits = 4;
+        while (bits < 24 && (1L << bits) < 4 * capacity) {
+            bits++;
+        }
+        counters = new byte[1 << bits];
+        shift = 32 - bits;
+        sampleSize = 10 << bits;
+    }
+
+    /**
+     * Count an access of a key.
+     *
+     * @param key the key
+     */
+    void increment(final Object key) {
+        final int hash = spread(key.hashCode());
+        for (final int seed : SEEDS) {
+            final int index = indexOf(hash, seed);
+            if (counters[index] < MAXIMUM) {
+                counters[index]++;
+            }
+        }
+        if (++additions >= sampleSize) {
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] >>= 1;
+            }
+            additions >>= 1;
+        }
+    }
+
+    /**
+     * Estimate the access frequency of a key.
+     *
+     * @param key the key
+     * @return the estimated number of recent accesses
+     */
+    int frequency(final Object key) {
+        final int hash = spread(key.hashCode());
+        int frequency = MAXIMUM;
+        for (final int seed : SEEDS) {
+            frequency = Math.min(frequency, counters[indexOf(hash, seed)]);
+        }
+        return frequency;
+    }
+
+    private int indexOf(final int hash, final int seed) {
+        final int h = (hash + seed) * seed;
+        return (h ^ (h >>> 16)) >>> shift;
+    }
+
+    private static int spread(final int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
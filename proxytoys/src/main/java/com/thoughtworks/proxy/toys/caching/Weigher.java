@@ -0,0 +1,30 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.caching;
+
+/**
+ * Weigher for the results of a {@link Caching} proxy. The sum of the weights of all cached results is bounded by the
+ * maximum weight of the cache.
+ *
+ * @since 1.1
+ */
+public interface Weigher {
+
+    /**
+     * Weigh a cached result.
+     *
+     * @param key    the key of the call
+     * @param result the result of the call, may be <code>null</code>
+     * @return the weight, that must not be negative
+     * @since 1.1
+     */
+    long weigh(Object key, Object result);
+}
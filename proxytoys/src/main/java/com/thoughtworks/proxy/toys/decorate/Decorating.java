@@ -10,6 +10,9 @@
  */
 package com.thoughtworks.proxy.toys.decorate;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.thoughtworks.proxy.ProxyFactory;
 import com.thoughtworks.proxy.factory.StandardProxyFactory;
 import com.thoughtworks.proxy.kit.ReflectionUtils;
@@ -35,7 +38,7 @@ public class Decorating<U, T> {
 
     private U delegate;
     private Class<?>[] types;
-    private Decorator<T> decorator;
+    private List<Decorator<T>> decorators = new ArrayList<Decorator<T>>();
     
     private Decorating(final U delegate, final Class<T>primaryType, final Class<?>... types) {
     	this.delegate = delegate;
@@ -137,7 +140,7 @@ public class Decorating<U, T> {
          * @since 1.0
          */
         public DecoratingBuild<U, T> visiting(Decorator<T> decorator) {
-            decorating.decorator = decorator;
+            decorating.decorators.add(decorator);
             return new DecoratingBuild<U, T>(decorating);
         }
     }
@@ -149,6 +152,20 @@ public class Decorating<U, T> {
             this.decorating = decorating;
         }
 
+        /**
+         * Specify an additional decorator. All decorators are run by a single proxy in the order they were visited,
+         * the result is equivalent to a decorating proxy for a decorating proxy with the next decorator.
+         *
+         * @param decorator the decorator
+         * @return the factory that will proxy instances of the supplied type.
+         * @see DecoratingInvoker#DecoratingInvoker(Object, Decorator[])
+         * @since 1.1
+         */
+        public DecoratingBuild<U, T> visiting(Decorator<T> decorator) {
+            decorating.decorators.add(decorator);
+            return this;
+        }
+
         /**
          * Creating a decorating proxy for an object using the {@link StandardProxyFactory}.
          *
@@ -167,7 +184,9 @@ public class Decorating<U, T> {
          * @since 1.0
          */
         public T build(final ProxyFactory proxyFactory) {
-            DecoratingInvoker<T> invoker = new DecoratingInvoker<T>(decorating.delegate, decorating.decorator);
+            @SuppressWarnings("unchecked")
+            Decorator<T>[] decorators = decorating.decorators.toArray(new Decorator[decorating.decorators.size()]);
+            DecoratingInvoker<T> invoker = new DecoratingInvoker<T>(decorating.delegate, decorators);
             return proxyFactory.<T>createProxy(invoker, decorating.types);
         }
     }
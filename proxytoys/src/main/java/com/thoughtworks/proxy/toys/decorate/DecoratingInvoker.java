@@ -28,6 +28,8 @@ import com.thoughtworks.proxy.kit.PrivateInvoker;
 public class DecoratingInvoker<T> implements Invoker {
     private static final long serialVersionUID = 8293471912861497447L;
     private Invoker decorated;
+    private Decorator<T>[] decorators;
+    // the single decorator of an invoker serialized before version 1.1
     private Decorator<T> decorator;
 
     /**
@@ -37,9 +39,9 @@ public class DecoratingInvoker<T> implements Invoker {
      * @param decorator the decorating instance.
      * @since 1.0
      */
+    @SuppressWarnings("unchecked")
     public DecoratingInvoker(final Invoker decorated, final Decorator<T> decorator) {
-        this.decorated = decorated;
-        this.decorator = decorator;
+        this(decorated, new Decorator[]{decorator});
     }
 
     /**
@@ -53,10 +55,62 @@ public class DecoratingInvoker<T> implements Invoker {
         this(new PrivateInvoker(delegate), decorator);
     }
 
+    /**
+     * Construct a DecoratingInvoker decorating another Invoker with a chain of decorators. The invoker behaves like
+     * nested decorating proxies with the first decorator as outermost one, but calls the decorated Invoker only once
+     * and passes the same proxy instance to all decorators. An exception thrown by an inner decorator is passed as
+     * target exception to the outer ones.
+     *
+     * @param decorated the decorated {@link Invoker}.
+     * @param decorators the decorating instances, the first one is the outermost.
+     * @throws IllegalArgumentException if no decorator is given
+     * @since 1.1
+     */
+    public DecoratingInvoker(final Invoker decorated, final Decorator<T>[] decorators) {
+        if (decorators.length == 0) {
+            throw new IllegalArgumentException("No decorator given");
+        }
+        this.decorated = decorated;
+        this.decorators = decorators.clone();
+    }
+
+    /**
+     * Construct a DecoratingInvoker decorating another object with a chain of decorators.
+     *
+     * @param delegate  the decorated object.
+     * @param decorators the decorating instances, the first one is the outermost.
+     * @throws IllegalArgumentException if no decorator is given
+     * @since 1.1
+     */
+    public DecoratingInvoker(final Object delegate, final Decorator<T>[] decorators) {
+        this(new PrivateInvoker(delegate), decorators);
+    }
+
     public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
         @SuppressWarnings("unchecked")
         final T typedProxy = (T)proxy;
+        return invoke(0, typedProxy, proxy, method, args);
+    }
+
+    private Object invoke(
+            final int level, final T typedProxy, final Object proxy, final Method method, final Object[] args)
+            throws Throwable {
+        final Decorator<T> decorator = decorators[level];
         final Object[] decoratedArgs = decorator.beforeMethodStarts(typedProxy, method, args);
+        if (level + 1 < decorators.length) {
+            final Object result;
+            try {
+                result = invoke(level + 1, typedProxy, proxy, method, decoratedArgs);
+            } catch (Throwable t) {
+                // a nested decorating proxy would have failed as target of this one
+                throw decorator.decorateTargetException(typedProxy, method, decoratedArgs, t);
+            }
+            try {
+                return decorator.decorateResult(typedProxy, method, decoratedArgs, result);
+            } catch (Exception e) {
+                throw decorator.decorateInvocationException(typedProxy, method, decoratedArgs, e);
+            }
+        }
         try {
             final Object result = decorated.invoke(proxy, method, decoratedArgs);
             return decorator.decorateResult(typedProxy, method, decoratedArgs, result);
@@ -66,4 +120,13 @@ public class DecoratingInvoker<T> implements Invoker {
             throw decorator.decorateInvocationException(typedProxy, method, decoratedArgs, e);
         }
     }
+
+    @SuppressWarnings("unchecked")
+    private Object readResolve() {
+        if (decorator != null) {
+            decorators = new Decorator[]{decorator};
+            decorator = null;
+        }
+        return this;
+    }
 }
@@ -45,7 +45,7 @@ import com.thoughtworks.proxy.kit.SimpleReference;
 public class DelegatingInvoker<T> implements Invoker {
 
     private static final long serialVersionUID = 1L;
-    private transient Map<Method, Method> methodCache;
+    private transient Map<Class<?>, Map<Method, Method>> methodCache;
     private ProxyFactory proxyFactory;
     private ObjectReference<T> delegateReference;
     private DelegationMode delegationMode;
@@ -65,7 +65,7 @@ public class DelegatingInvoker<T> implements Invoker {
         this.proxyFactory = proxyFactory;
         this.delegateReference = delegateReference;
         this.delegationMode = delegationMode;
-        this.methodCache = new HashMap<Method, Method>();
+        this.methodCache = new HashMap<Class<?>, Map<Method, Method>>();
     }
 
     /**
@@ -79,8 +79,25 @@ public class DelegatingInvoker<T> implements Invoker {
     }
 
     public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        return invokeWithDelegate(delegate(), proxy, method, args);
+    }
+
+    /**
+     * Invoke a method of the proxy with a given delegate. Derived classes may use this method to ensure that the
+     * delegate does not change during the invocation.
+     *
+     * @param target the delegate for this invocation
+     * @param proxy  the proxy instance
+     * @param method the invoked method on the proxy
+     * @param args   the arguments for the invocation
+     * @return the method's result
+     * @throws Throwable if the invocation fails
+     * @since 1.1
+     */
+    protected Object invokeWithDelegate(final T target, final Object proxy, final Method method, final Object[] args)
+            throws Throwable {
         final Object result;
-        Object delegate = delegate();
+        Object delegate = target;
 
         // equals(...) and hashCode()
         if (method.equals(ReflectionUtils.equals)) {
@@ -108,12 +125,19 @@ public class DelegatingInvoker<T> implements Invoker {
 
             // regular method call
         } else {
-            Method methodToCall = methodCache.get(method);
+            // the delegate may have been exchanged by an object of a different type
+            final Class<?> type = target.getClass();
+            Map<Method, Method> methods = methodCache.get(type);
+            if (methods == null) {
+                methods = new HashMap<Method, Method>();
+                methodCache.put(type, methods);
+            }
+            Method methodToCall = methods.get(method);
             if (methodToCall == null) {
-                methodToCall = getMethodToInvoke(method, args);
-                methodCache.put(method, methodToCall);
+                methodToCall = getMethodToInvoke(target, method, args);
+                methods.put(method, methodToCall);
             }
-            result = invokeOnDelegate(methodToCall, args);
+            result = invokeOnDelegate(target, methodToCall, args);
         }
         return result;
     }
@@ -128,38 +152,74 @@ public class DelegatingInvoker<T> implements Invoker {
     }
 
     /**
-     * Lookup a matching method. The lookup will only be done once for every method called on the proxy.
+     * Lookup a matching method of the current delegate.
      *
      * @param method the invoked method on the proxy
      * @param args   the arguments for the invocation
      * @return the matching method
      * @throws DelegationException if no matching method can be found
      * @since 0.2
+     * @deprecated As of 1.1 this method is no longer called by the invoker, override
+     *             {@link #getMethodToInvoke(Object, Method, Object[])} instead
      */
+    @Deprecated
     protected Method getMethodToInvoke(final Method method, final Object[] args) {
+        return getMethodToInvoke(delegate(), method, args);
+    }
+
+    /**
+     * Lookup a matching method of a given delegate. The lookup will only be done once for every method called on the
+     * proxy and every type of delegate.
+     *
+     * @param delegate the delegate
+     * @param method   the invoked method on the proxy
+     * @param args     the arguments for the invocation
+     * @return the matching method
+     * @throws DelegationException if no matching method can be found
+     * @since 1.1
+     */
+    protected Method getMethodToInvoke(final T delegate, final Method method, final Object[] args) {
         if (delegationMode == DIRECT) {
             return method;
         } else {
             final String methodName = method.getName();
             try {
-                return delegate().getClass().getMethod(methodName, method.getParameterTypes());
+                return delegate.getClass().getMethod(methodName, method.getParameterTypes());
             } catch (Exception e) {
-                throw new DelegationException("Unable to find method " + methodName, e, delegate());
+                throw new DelegationException("Unable to find method " + methodName, e, delegate);
             }
         }
     }
 
     /**
-     * Invoke the given method on the delegate.
+     * Invoke the given method on the current delegate.
      *
      * @param method the method to invoke
      * @param args   the arguments for the invocation
      * @return the method's result
      * @throws InvocationTargetException if the invoked method throws any exception
      * @since 0.1
+     * @deprecated As of 1.1 this method is no longer called by the invoker, override
+     *             {@link #invokeOnDelegate(Object, Method, Object[])} instead
      */
+    @Deprecated
     protected Object invokeOnDelegate(final Method method, final Object[] args) throws InvocationTargetException {
-        final Object delegate = delegate();
+        return invokeOnDelegate(delegate(), method, args);
+    }
+
+    /**
+     * Invoke the given method on a given delegate. Derived classes overwrite this method to decorate any invocation
+     * of a regular method.
+     *
+     * @param delegate the delegate
+     * @param method   the method to invoke
+     * @param args     the arguments for the invocation
+     * @return the method's result
+     * @throws InvocationTargetException if the invoked method throws any exception
+     * @since 1.1
+     */
+    protected Object invokeOnDelegate(final T delegate, final Method method, final Object[] args)
+            throws InvocationTargetException {
         try {
             return method.invoke(delegate, args);
         } catch (InvocationTargetException e) {
@@ -214,6 +274,6 @@ public class DelegatingInvoker<T> implements Invoker {
 
     private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
-        methodCache = new HashMap<Method, Method>();
+        methodCache = new HashMap<Class<?>, Map<Method, Method>>();
     }
 }
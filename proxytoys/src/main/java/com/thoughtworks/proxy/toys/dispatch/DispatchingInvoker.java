@@ -17,16 +17,18 @@ import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.thoughtworks.proxy.Invoker;
 import com.thoughtworks.proxy.ProxyFactory;
 import com.thoughtworks.proxy.factory.InvokerReference;
-import com.thoughtworks.proxy.factory.StandardProxyFactory;
+import com.thoughtworks.proxy.kit.MethodTable;
 import com.thoughtworks.proxy.kit.ObjectReference;
 import com.thoughtworks.proxy.kit.ReflectionUtils;
 import com.thoughtworks.proxy.toys.delegate.DelegatingInvoker;
@@ -34,6 +36,11 @@ import com.thoughtworks.proxy.toys.delegate.DelegatingInvoker;
 
 /**
  * Invoker that dispatches all invocations to different objects according the membership of the method.
+ * <p>
+ * The invoker builds an immutable index of all methods of the dispatched types at construction time, so that the
+ * dispatch of a call is a single lookup independent of the number of the dispatched types. If multiple types declare
+ * the same method, the first type wins.
+ * </p>
  *
  * @author J&ouml;rg Schaible after idea by Rickard &Ouml;berg
  * @since 0.2
@@ -44,6 +51,7 @@ public class DispatchingInvoker implements Invoker {
     private Invoker[] invokers;
     private transient Set<Method>[] methodSets;
     private transient Method[] toStringMethods;
+    private transient Map<Method, Invoker> index;
 
     /**
      * Construct a DispatchingInvoker.
@@ -65,7 +73,7 @@ public class DispatchingInvoker implements Invoker {
             for (final ObjectReference<Object> delegateReference : delegateReferences) {
                 if (types[i].isAssignableFrom(delegateReference.get().getClass())) {
                     invokers[i] = new DelegatingInvoker<Object>(proxyFactory, delegateReference, DIRECT);
-                    methodSets[i] = new HashSet<Method>(Arrays.asList(types[i].getMethods()));
+                    methodSets[i] = new HashSet<Method>(Arrays.asList(MethodTable.forType(types[i]).getMethods()));
                     for (Method method : methodSets[i]) {
                         if (method.getName().equals("toString") && method.getParameterTypes().length == 0) {
                             toStringMethods[i] = method;
@@ -79,6 +87,7 @@ public class DispatchingInvoker implements Invoker {
                 throw new DispatchingException("Cannot dispatch type " + types[i].getName(), types[i]);
             }
         }
+        index = createIndex();
     }
 
     /**
@@ -90,11 +99,14 @@ public class DispatchingInvoker implements Invoker {
     }
 
     public Object invoke(final Object proxy, Method method, final Object[] args) throws Throwable {
-        if (method.equals(ReflectionUtils.equals)) {
+        final Invoker target = index.get(method);
+        if (target != null) {
+            return target.invoke(proxy, method, args);
+        } else if (method.equals(ReflectionUtils.equals)) {
             final Object arg = args[0];
-            if (new StandardProxyFactory().isProxyClass(arg.getClass())
-                    && (InvokerReference.class.cast(arg)).getInvoker() instanceof DispatchingInvoker) {
-                final DispatchingInvoker invoker = DispatchingInvoker.class.cast((InvokerReference.class.cast(arg)).getInvoker());
+            if (arg instanceof InvokerReference
+                    && InvokerReference.class.cast(arg).getInvoker() instanceof DispatchingInvoker) {
+                final DispatchingInvoker invoker = DispatchingInvoker.class.cast(InvokerReference.class.cast(arg).getInvoker());
                 if (types.size() == invoker.types.size()) {
                     boolean isEqual = true;
                     for (int i = 0; isEqual && i < types.size(); ++i) {
@@ -114,75 +126,95 @@ public class DispatchingInvoker implements Invoker {
         } else if (method.equals(ReflectionUtils.hashCode)) {
             return hashCode();
         } else if (method.equals(ReflectionUtils.toString)) {
-            for (int i = 0; i < invokers.length; i++) {
-                Method toString = toStringMethods[i];
-                if (toString != null && toString.getDeclaringClass().isAssignableFrom(proxy.getClass())) {
-                    return invokers[i].invoke(proxy, method, args);
-                }
-            }
             return types.toString();
-        } else {
-            for (int i = 0; i < invokers.length; i++) {
-                if (methodSets[i].contains(method)) {
-                    return invokers[i].invoke(proxy, method, args);
-                }
-            }
         }
         throw new RuntimeException("Cannot dispatch method " + method.getName());
     }
 
+    /**
+     * Create the index of the methods. The methods {@link Object#equals(Object)} and {@link Object#hashCode()} are
+     * never dispatched, while {@link Object#toString()} is dispatched to the first type declaring it.
+     *
+     * @return the immutable index
+     */
+    private Map<Method, Invoker> createIndex() {
+        final Map<Method, Invoker> map = new HashMap<Method, Invoker>();
+        for (int i = invokers.length; i-- > 0;) {
+            for (final Method method : methodSets[i]) {
+                map.put(method, invokers[i]);
+            }
+            if (toStringMethods[i] != null) {
+                map.put(ReflectionUtils.toString, invokers[i]);
+            }
+        }
+        map.remove(ReflectionUtils.equals);
+        map.remove(ReflectionUtils.hashCode);
+        return Collections.unmodifiableMap(map);
+    }
+
     private void writeObject(final ObjectOutputStream out) throws IOException {
         out.defaultWriteObject();
-        @SuppressWarnings("unchecked")
-        final List<Class<?>>[] types = new List[methodSets.length];
-        @SuppressWarnings("unchecked")
-        final List<String>[] names = new List[methodSets.length];
-        @SuppressWarnings("unchecked")
-        final List<Class<?>[]>[] arguments = new List[methodSets.length];
+        final long[][] signatures = new long[methodSets.length][];
         for (int i = 0; i < methodSets.length; i++) {
-            final Method[] methods = methodSets[i].toArray(new Method[methodSets[i].size()]);
-            types[i] = new ArrayList<Class<?>>();
-            names[i] = new ArrayList<String>();
-            arguments[i] = new ArrayList<Class<?>[]>();
-            for (Method method : methods) {
-                types[i].add(method.getDeclaringClass());
-                names[i].add(method.getName());
-                arguments[i].add(method.getParameterTypes());
+            signatures[i] = new long[methodSets[i].size()];
+            int j = 0;
+            for (final Method method : methodSets[i]) {
+                signatures[i][j++] = MethodTable.signatureHash(method);
             }
         }
-        out.writeObject(types);
-        out.writeObject(names);
-        out.writeObject(arguments);
+        out.writeObject(signatures);
     }
 
     private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
-        @SuppressWarnings("unchecked")
-        final List<Class<?>>[] types = List[].class.cast(in.readObject());
-        @SuppressWarnings("unchecked")
-        final List<String>[] names = List[].class.cast(in.readObject());
-        @SuppressWarnings("unchecked")
-        final List<Class<?>[]>[] arguments = List[].class.cast(in.readObject());
-        @SuppressWarnings("unchecked")
-        final Set<Method>[] set = new Set[types.length];
-        methodSets = set;
-        toStringMethods = new Method[types.length];
+        final Object methods = in.readObject();
         try {
-            for (int i = 0; i < methodSets.length; i++) {
-                methodSets[i] = new HashSet<Method>();
-                for (int j = 0; j < types[i].size(); j++) {
-                    final Class<?> type = types[i].get(j);
-                    final String name = names[i].get(j);
-                    final Class<?>[] argumentTypes = arguments[i].get(j);
-                    final Method method = type.getMethod(name, argumentTypes);
-                    methodSets[i].add(method);
-                    if (name.equals("toString") && argumentTypes.length == 0) {
-                        toStringMethods[i] = method;
+            if (methods instanceof long[][]) {
+                final long[][] signatures = long[][].class.cast(methods);
+                initMethodSets(signatures.length);
+                for (int i = 0; i < methodSets.length; i++) {
+                    final MethodTable table = MethodTable.forType(types.get(i));
+                    for (final long signature : signatures[i]) {
+                        addMethod(i, table.getMethod(signature));
+                    }
+                }
+            } else {
+                // the methods of an invoker serialized before 1.1 are stored by declaring class, name and arguments
+                @SuppressWarnings("unchecked")
+                final List<Class<?>>[] declaringTypes = List[].class.cast(methods);
+                @SuppressWarnings("unchecked")
+                final List<String>[] names = List[].class.cast(in.readObject());
+                @SuppressWarnings("unchecked")
+                final List<Class<?>[]>[] arguments = List[].class.cast(in.readObject());
+                initMethodSets(declaringTypes.length);
+                for (int i = 0; i < methodSets.length; i++) {
+                    for (int j = 0; j < declaringTypes[i].size(); j++) {
+                        addMethod(i, declaringTypes[i].get(j).getMethod(names[i].get(j), arguments[i].get(j)));
                     }
                 }
             }
         } catch (final NoSuchMethodException e) {
             throw new InvalidObjectException(e.getMessage());
+        } catch (final ClassCastException e) {
+            throw new InvalidObjectException("Unknown serialized form of the dispatched methods");
+        }
+        index = createIndex();
+    }
+
+    private void initMethodSets(final int length) {
+        @SuppressWarnings("unchecked")
+        final Set<Method>[] sets = new Set[length];
+        methodSets = sets;
+        toStringMethods = new Method[length];
+        for (int i = 0; i < length; i++) {
+            methodSets[i] = new HashSet<Method>();
+        }
+    }
+
+    private void addMethod(final int i, final Method method) {
+        methodSets[i].add(method);
+        if (method.getName().equals("toString") && method.getParameterTypes().length == 0) {
+            toStringMethods[i] = method;
         }
     }
 }
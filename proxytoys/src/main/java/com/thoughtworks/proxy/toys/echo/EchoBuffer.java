@@ -0,0 +1,151 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.echo;
+
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.thoughtworks.proxy.kit.BatchingConsumer;
+import com.thoughtworks.proxy.kit.RingBuffer;
+
+
+/**
+ * An asynchronous target for the echoed invocations. An {@link EchoDecorator} using the buffer captures only raw
+ * records of the calls, results and exceptions and appends them to a bounded {@link RingBuffer}. The background thread
+ * of a {@link BatchingConsumer} formats the records and writes them in batches to the {@link PrintWriter}, flushing it
+ * once per batch. A record is dropped if the buffer is full, the traced call is never blocked.
+ * <p>
+ * The arguments and results are formatted by the background thread, a mutable object is therefore written in the state
+ * it has at this time. The background thread is a daemon thread, it is started with the first record and ends after a
+ * second without any. A buffer can be shared by any number of proxies.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class EchoBuffer implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final PrintWriter out;
+    private final int capacity;
+    private transient volatile BatchingConsumer<EchoRecord> consumer;
+    private transient AtomicLong dropped;
+
+    /**
+     * Construct an EchoBuffer.
+     *
+     * @param out      the {@link PrintWriter} receiving the logs
+     * @param capacity the minimal number of buffered records
+     * @throws IllegalArgumentException if the capacity is not positive
+     * @since 1.1
+     */
+    public EchoBuffer(final PrintWriter out, final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.out = out;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Append a record. A closed buffer writes the record directly.
+     *
+     * @param record the record
+     */
+    void append(final EchoRecord record) {
+        final BatchingConsumer<EchoRecord> writer = getConsumer();
+        if (writer.isClosed()) {
+            write(record);
+        } else if (!writer.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private BatchingConsumer<EchoRecord> getConsumer() {
+        BatchingConsumer<EchoRecord> current = consumer;
+        if (current == null) {
+            synchronized (this) {
+                if (consumer == null) {
+                    dropped = new AtomicLong();
+                    consumer = new BatchingConsumer<EchoRecord>("Echo Buffer", capacity) {
+                        @Override
+                        protected void consume(final List<EchoRecord> batch) {
+                            write(batch);
+                        }
+                    };
+                }
+                current = consumer;
+            }
+        }
+        return current;
+    }
+
+    private void write(final List<EchoRecord> batch) {
+        for (final EchoRecord record : batch) {
+            try {
+                record.writeTo(out);
+            } catch (final RuntimeException e) {
+                // a failing toString of an argument or result must not stop the background thread
+                out.println("<" + e.getClass().getName() + ">");
+            }
+        }
+        out.flush();
+    }
+
+    private void write(final EchoRecord record) {
+        record.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Wait until all records appended so far have been written.
+     *
+     * @since 1.1
+     */
+    public void flush() {
+        final BatchingConsumer<EchoRecord> writer = consumer;
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Write all pending records and stop the background thread. Any further record is written synchronously.
+     *
+     * @since 1.1
+     */
+    public void close() {
+        getConsumer().close();
+    }
+
+    /**
+     * Retrieve the number of records waiting in the buffer.
+     *
+     * @return the number of pending records
+     * @since 1.1
+     */
+    public int getPendingRecords() {
+        final BatchingConsumer<EchoRecord> writer = consumer;
+        return writer == null ? 0 : writer.size();
+    }
+
+    /**
+     * Retrieve the number of records dropped, because the buffer was full.
+     *
+     * @return the number of dropped records
+     * @since 1.1
+     */
+    public long getDroppedRecords() {
+        final AtomicLong counter = dropped;
+        return counter == null ? 0L : counter.get();
+    }
+}
@@ -14,6 +14,7 @@ import java.io.PrintWriter;
 import java.lang.reflect.Method;
 
 import com.thoughtworks.proxy.ProxyFactory;
+import com.thoughtworks.proxy.kit.WeakIdentityCache;
 import com.thoughtworks.proxy.toys.decorate.Decorating;
 import com.thoughtworks.proxy.toys.decorate.Decorator;
 
@@ -21,7 +22,13 @@ import com.thoughtworks.proxy.toys.decorate.Decorator;
  * A {@link com.thoughtworks.proxy.toys.decorate.Decorator} implementation that echoes any invocation to a {@link PrintWriter}.
  * <p>
  * The implementation will try to create new proxies for every return value, that can be proxied by the
- * {@link ProxyFactory} in use.
+ * {@link ProxyFactory} in use. The proxy of a result is reused as long as it is in use, i.e. an object returned
+ * repeatedly is always decorated by the same proxy.
+ * </p>
+ * <p>
+ * With an {@link EchoBuffer} the decorator captures only raw records, that are formatted and written asynchronously.
+ * With an {@link EchoTrace} the decorator writes compact binary records. An {@link EchoFilter} and a maximum depth
+ * of decorated results limit the echoed calls.
  * </p>
  *
  * @author Dan North
@@ -30,8 +37,21 @@ import com.thoughtworks.proxy.toys.decorate.Decorator;
  */
 public class EchoDecorator<T> extends Decorator<T> {
     private static final long serialVersionUID = 1L;
+    private static final ThreadLocal<Decisions> ECHOED = new ThreadLocal<Decisions>() {
+        @Override
+        protected Decisions initialValue() {
+            return new Decisions();
+        }
+    };
     private final PrintWriter out;
     private final ProxyFactory factory;
+    private final EchoBuffer buffer;
+    private final EchoTrace trace;
+    private final EchoFilter filter;
+    private final int maxDepth;
+    private final int depth;
+    private transient volatile EchoDecorator<?> resultDecorator;
+    private transient volatile WeakIdentityCache<Object, Object> resultCache;
 
     /**
      * Construct an EchoingDecorator.
@@ -43,80 +63,269 @@ public class EchoDecorator<T> extends Decorator<T> {
     public EchoDecorator(final PrintWriter out, final ProxyFactory factory) {
         this.out = out;
         this.factory = factory;
+        this.buffer = null;
+        this.trace = null;
+        this.filter = null;
+        this.maxDepth = Integer.MAX_VALUE;
+        this.depth = 0;
+    }
+
+    /**
+     * Construct an EchoingDecorator writing asynchronously into a buffer.
+     *
+     * @param buffer  the {@link EchoBuffer} receiving the logs
+     * @param factory the {@link ProxyFactory} to use
+     * @since 1.1
+     */
+    public EchoDecorator(final EchoBuffer buffer, final ProxyFactory factory) {
+        this.out = null;
+        this.factory = factory;
+        this.buffer = buffer;
+        this.trace = null;
+        this.filter = null;
+        this.maxDepth = Integer.MAX_VALUE;
+        this.depth = 0;
+    }
+
+    /**
+     * Construct an EchoingDecorator writing binary records into a trace.
+     *
+     * @param trace   the {@link EchoTrace} receiving the records
+     * @param factory the {@link ProxyFactory} to use
+     * @since 1.1
+     */
+    public EchoDecorator(final EchoTrace trace, final ProxyFactory factory) {
+        this.out = null;
+        this.factory = factory;
+        this.buffer = null;
+        this.trace = trace;
+        this.filter = null;
+        this.maxDepth = Integer.MAX_VALUE;
+        this.depth = 0;
+    }
+
+    /**
+     * Construct an EchoingDecorator echoing only selected calls. The decorator uses the same target as the given one.
+     *
+     * @param echo     the decorator defining the target of the logs
+     * @param filter   the {@link EchoFilter} selecting the echoed calls, may be <code>null</code> to echo any call
+     * @param maxDepth the maximum depth of decorated results, i.e. 0 will not decorate any result, 1 only the results
+     *            of the proxied object
+     * @throws IllegalArgumentException if the maximum depth is negative
+     * @since 1.1
+     */
+    public EchoDecorator(final EchoDecorator<T> echo, final EchoFilter filter, final int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Maximum depth must not be negative: " + maxDepth);
+        }
+        this.out = echo.out;
+        this.factory = echo.factory;
+        this.buffer = echo.buffer;
+        this.trace = echo.trace;
+        this.filter = filter;
+        this.maxDepth = maxDepth;
+        this.depth = 0;
+    }
+
+    private EchoDecorator(final EchoDecorator<?> parent) {
+        this.out = parent.out;
+        this.factory = parent.factory;
+        this.buffer = parent.buffer;
+        this.trace = parent.trace;
+        this.filter = parent.filter;
+        this.maxDepth = parent.maxDepth;
+        this.depth = parent.depth + 1;
     }
 
     @Override
     public Object[] beforeMethodStarts(final T proxy, final Method method, final Object[] args) {
-        printMethodCall(method, args);
+        if (filter == null) {
+            printMethodCall(method, args);
+        } else {
+            // the decision is kept for the outcome of the call
+            final boolean echoed = filter.accept(method);
+            ECHOED.get().push(method, echoed);
+            if (echoed) {
+                printMethodCall(method, args);
+            }
+        }
         return super.beforeMethodStarts(proxy, method, args);
     }
 
 	@Override
+    public Object decorateResult(final T proxy, final Method method, final Object[] args, final Object result) {
+        if (filter == null) {
+            return echoResult(method, result);
+        }
+        final Decisions decisions = ECHOED.get();
+        if (!decisions.peek(method)) {
+            decisions.pop(method);
+            return result;
+        }
+        // an exception decorating the result is passed to decorateInvocationException, that pops the decision
+        final Object decorated = echoResult(method, result);
+        decisions.pop(method);
+        return decorated;
+    }
+
     @SuppressWarnings("unchecked")
-    public Object decorateResult(final T proxy, final Method method, final Object[] args, Object result) {
+    private Object echoResult(final Method method, Object result) {
         Class returnType = method.getReturnType();
         printMethodResult(result);
+        if (depth >= maxDepth) {
+            return result;
+        }
         if (returnType != Object.class && factory.canProxy(returnType)) {
-            result = Decorating.proxy(result, returnType).visiting(this).build(factory);
+            result = decorate(result, returnType);
         } else if (result != null && returnType == Object.class && factory.canProxy(result.getClass())) {
             returnType = result.getClass();
-			result = Decorating.proxy(result, returnType).visiting(this).build(factory);
+			result = decorate(result, returnType);
         }
         return result;
     }
 
+    /**
+     * Decorate a result. The decorated result is cached as long as it is in use, a repeatedly returned object is
+     * decorated by the same proxy.
+     */
+    @SuppressWarnings("unchecked")
+    private Object decorate(final Object result, final Class returnType) {
+        if (result == null) {
+            return Decorating.proxy(result, returnType).visiting(getResultDecorator()).build(factory);
+        }
+        final WeakIdentityCache<Object, Object> cache = getResultCache();
+        Object decorated = cache.get(result);
+        if (!returnType.isInstance(decorated)) {
+            decorated = Decorating.proxy(result, returnType).visiting(getResultDecorator()).build(factory);
+            cache.put(result, decorated);
+        }
+        return decorated;
+    }
+
+    private WeakIdentityCache<Object, Object> getResultCache() {
+        WeakIdentityCache<Object, Object> cache = resultCache;
+        if (cache == null) {
+            synchronized (this) {
+                if (resultCache == null) {
+                    resultCache = new WeakIdentityCache<Object, Object>();
+                }
+                cache = resultCache;
+            }
+        }
+        return cache;
+    }
+
     @Override
     public Throwable decorateTargetException(
             final T proxy, final Method method, final Object[] args, final Throwable cause) {
-        printTargetException(cause);
+        if (filter == null || ECHOED.get().pop(method)) {
+            printTargetException(cause);
+        }
         return super.decorateTargetException(proxy, method, args, cause);
     }
 
     @Override
     public Exception decorateInvocationException(
             final T proxy, final Method method, final Object[] args, final Exception cause) {
-        printInvocationException(cause);
+        if (filter == null || ECHOED.get().pop(method)) {
+            printInvocationException(cause);
+        }
         return super.decorateInvocationException(proxy, method, args, cause);
     }
 
-    private void printMethodCall(Method method, Object[] args) {
-        final StringBuilder buf = new StringBuilder("[");
-        buf.append(Thread.currentThread().getName());
-        buf.append("] ");
-        buf.append(method.getDeclaringClass().getName());
-        buf.append(".").append(method.getName());
+    @SuppressWarnings("unchecked")
+    private EchoDecorator getResultDecorator() {
+        if (maxDepth == Integer.MAX_VALUE) {
+            return this;
+        }
+        if (resultDecorator == null) {
+            resultDecorator = new EchoDecorator(this);
+        }
+        return resultDecorator;
+    }
 
-        if (args == null) {
-            args = new Object[0];
+    /**
+     * The echo decisions of the running calls of a thread. Every decision is kept with its method. A call ended by an
+     * Error leaves its decision on the stack, it is discarded by the next lookup of an outer call.
+     */
+    private static final class Decisions {
+        private boolean[] echoed = new boolean[16];
+        private Method[] methods = new Method[16];
+        private int size;
+
+        private void push(final Method method, final boolean decision) {
+            if (size == echoed.length) {
+                final boolean[] grownEchoed = new boolean[size * 2];
+                final Method[] grownMethods = new Method[size * 2];
+                System.arraycopy(echoed, 0, grownEchoed, 0, size);
+                System.arraycopy(methods, 0, grownMethods, 0, size);
+                echoed = grownEchoed;
+                methods = grownMethods;
+            }
+            methods[size] = method;
+            echoed[size++] = decision;
+        }
+
+        /**
+         * Retrieve the decision for the running call of a method without removing it.
+         *
+         * @return <code>true</code> if the call is echoed
+         */
+        private boolean peek(final Method method) {
+            while (size > 0 && methods[size - 1] != method) {
+                methods[--size] = null;
+            }
+            return size > 0 && echoed[size - 1];
         }
-        buf.append("(");
-        for (int i = 0; i < args.length; i++) {
-            buf.append(i == 0 ? "<" : ", <").append(args[i]).append(">");
+
+        /**
+         * Remove the decision for the running call of a method.
+         *
+         * @return <code>true</code> if the call is echoed
+         */
+        private boolean pop(final Method method) {
+            final boolean decision = peek(method);
+            if (size > 0) {
+                methods[--size] = null;
+            }
+            return decision;
+        }
+    }
+
+    private void printMethodCall(final Method method, final Object[] args) {
+        if (trace != null) {
+            trace.write(EchoRecord.CALL, method, args, null);
+        } else {
+            echo(new EchoRecord(EchoRecord.CALL, method, buffer == null || args == null ? args : args.clone(), null));
         }
-        buf.append(") ");
-        out.print(buf);
-        out.flush();
     }
 
     private void printMethodResult(final Object result) {
-        final StringBuilder buf = new StringBuilder("--> <");
-        buf.append(result == null ? "NULL" : result.toString());
-        buf.append(">");
-        out.println(buf);
-        out.flush();
+        echo(EchoRecord.RESULT, result);
     }
 
     private void printTargetException(final Throwable throwable) {
-        final StringBuilder buf = new StringBuilder("throws ");
-        buf.append(throwable.getClass().getName());
-        buf.append(": ");
-        buf.append(throwable.getMessage());
-        out.println(buf);
-        out.flush();
+        echo(EchoRecord.TARGET_EXCEPTION, throwable);
     }
 
     private void printInvocationException(final Throwable throwable) {
-        out.print("INTERNAL ERROR, ");
-        printTargetException(throwable);
+        echo(EchoRecord.INVOCATION_EXCEPTION, throwable);
+    }
+
+    private void echo(final int kind, final Object value) {
+        if (trace != null) {
+            trace.write(kind, null, null, value);
+        } else {
+            echo(new EchoRecord(kind, null, null, value));
+        }
+    }
+
+    private void echo(final EchoRecord record) {
+        if (buffer != null) {
+            buffer.append(record);
+        } else {
+            record.writeTo(out);
+            out.flush();
+        }
     }
 }
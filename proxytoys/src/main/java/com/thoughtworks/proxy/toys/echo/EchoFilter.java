@@ -0,0 +1,35 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.echo;
+
+import java.lang.reflect.Method;
+
+
+/**
+ * Filter for the echoed calls. The filter is asked before a call is echoed, a rejected call is neither written nor
+ * are its results decorated.
+ *
+ * @see MethodEchoFilter
+ * @see SamplingEchoFilter
+ * @see RateLimitingEchoFilter
+ * @since 1.1
+ */
+public interface EchoFilter {
+
+    /**
+     * Decide whether a call is echoed.
+     *
+     * @param method the called method
+     * @return <code>true</code> if the call is echoed
+     * @since 1.1
+     */
+    boolean accept(Method method);
+}
@@ -0,0 +1,83 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.echo;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+
+
+/**
+ * A raw record of an echoed event. The record keeps only references, the text is formatted when the record is
+ * written.
+ *
+ * @since 1.1
+ */
+final class EchoRecord {
+    static final int CALL = 0;
+    static final int RESULT = 1;
+    static final int TARGET_EXCEPTION = 2;
+    static final int INVOCATION_EXCEPTION = 3;
+
+    final int kind;
+    final String threadName;
+    final long timestamp;
+    final Method method;
+    final Object[] args;
+    final Object value;
+
+    EchoRecord(final int kind, final Method method, final Object[] args, final Object value) {
+        this.kind = kind;
+        this.threadName = Thread.currentThread().getName();
+        this.timestamp = System.currentTimeMillis();
+        this.method = method;
+        this.args = args;
+        this.value = value;
+    }
+
+    /**
+     * Format the record and write it.
+     *
+     * @param out the writer receiving the text
+     */
+    void writeTo(final PrintWriter out) {
+        final StringBuilder buf;
+        switch (kind) {
+        case CALL:
+            buf = new StringBuilder("[");
+            buf.append(threadName);
+            buf.append("] ");
+            buf.append(method.getDeclaringClass().getName());
+            buf.append(".").append(method.getName());
+            buf.append("(");
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    buf.append(i == 0 ? "<" : ", <").append(args[i]).append(">");
+                }
+            }
+            buf.append(") ");
+            out.print(buf);
+            break;
+        case RESULT:
+            buf = new StringBuilder("--> <");
+            buf.append(value == null ? "NULL" : value.toString());
+            buf.append(">");
+            out.println(buf);
+            break;
+        default:
+            final Throwable throwable = (Throwable)value;
+            buf = new StringBuilder(kind == INVOCATION_EXCEPTION ? "INTERNAL ERROR, throws " : "throws ");
+            buf.append(throwable.getClass().getName());
+            buf.append(": ");
+            buf.append(throwable.getMessage());
+            out.println(buf);
+        }
+    }
+}
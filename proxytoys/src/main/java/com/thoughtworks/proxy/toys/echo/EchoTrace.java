@@ -0,0 +1,439 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.echo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * A compact binary target for the echoed invocations. An {@link EchoDecorator} using the trace writes binary records
+ * into a memory-mapped file instead of formatting any text. The file is rolled when it is full, i.e. the records are
+ * written into the files <em>file</em>.0, <em>file</em>.1 and so on, and only the most recent files are kept.
+ * <p>
+ * Every file starts with a header and contains its own dictionaries of methods, threads and exception types, each entry
+ * is written once before the first record referring it. A call record contains the id of the method, the id of the
+ * thread, a nanosecond timestamp and optionally the hash codes of the arguments. The outcome of a call is written as
+ * separate record with the hash code of the result or the type and message of the thrown exception. Records are
+ * appended lock-free by the calling threads, that claim their space with a single atomic counter of the file. A record
+ * is dropped if it does not fit into an empty file, while another thread rolls the file, or if the trace has been
+ * closed. Use the {@link EchoTraceDecoder} to turn the files into the text format of the echoing proxy.
+ * </p>
+ * <p>
+ * The trace never fails the traced call. If a file cannot be opened, the trace is marked as failed and drops every
+ * further record.
+ * </p>
+ * <p>
+ * The trace references only the mapping of its current file, a rolled file is released as soon as the threads writing
+ * into it have finished their records. Java provides no way to unmap a file explicitly, the mapping is unmapped only
+ * when the garbage collector reclaims it. The disk space of a deleted file is therefore freed after the next garbage
+ * collection, and on some platforms a file cannot even be deleted before.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class EchoTrace implements Serializable {
+    private static final long serialVersionUID = 1L;
+    static final int MAGIC = 0x45434854;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 4 + 2 + 8 + 8;
+    static final byte END = 0;
+    static final byte METHOD = 1;
+    static final byte THREAD = 2;
+    static final byte TYPE = 3;
+    static final byte CALL = 4;
+    static final byte RESULT = 5;
+    static final byte TARGET_EXCEPTION = 6;
+    static final byte INVOCATION_EXCEPTION = 7;
+    static final byte NO_HASH = 0;
+    static final byte HASH = 1;
+    static final byte NULL = 2;
+    private static final int MAX_STRING_LENGTH = 1024;
+
+    private final File file;
+    private final int fileSize;
+    private final int maxFiles;
+    private final boolean hashing;
+    private transient volatile Segment segment;
+    private transient volatile boolean closed;
+    private transient volatile boolean failed;
+    private transient AtomicBoolean rolling;
+    private transient AtomicLong dropped;
+
+    /**
+     * Construct an EchoTrace.
+     *
+     * @param file     the base name of the trace files
+     * @param fileSize the size of a single trace file in bytes
+     * @param maxFiles the maximum number of kept trace files
+     * @param hashing  <code>true</code> to record the hash codes of arguments and results
+     * @throws IllegalArgumentException if the file size is less than 4KB or no file should be kept
+     * @since 1.1
+     */
+    public EchoTrace(final File file, final int fileSize, final int maxFiles, final boolean hashing) {
+        if (fileSize < 4096) {
+            throw new IllegalArgumentException("File size must be at least 4096 bytes: " + fileSize);
+        }
+        if (maxFiles <= 0) {
+            throw new IllegalArgumentException("Number of files must be positive: " + maxFiles);
+        }
+        this.file = file;
+        this.fileSize = fileSize;
+        this.maxFiles = maxFiles;
+        this.hashing = hashing;
+        rolling = new AtomicBoolean();
+        dropped = new AtomicLong();
+    }
+
+    /**
+     * A single memory-mapped trace file with its dictionaries.
+     */
+    private final class Segment {
+        private final int index;
+        private final RandomAccessFile randomAccessFile;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger position = new AtomicInteger(HEADER_SIZE);
+        private final AtomicInteger nextId = new AtomicInteger();
+        private final ConcurrentMap<Object, Integer> ids = new ConcurrentHashMap<Object, Integer>();
+        private final ConcurrentMap<Long, Boolean> threads = new ConcurrentHashMap<Long, Boolean>();
+
+        private Segment(final int index) throws IOException {
+            this.index = index;
+            final File segmentFile = getFile(index);
+            segmentFile.delete();
+            randomAccessFile = new RandomAccessFile(segmentFile, "rw");
+            try {
+                buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            } catch (final IOException e) {
+                randomAccessFile.close();
+                throw e;
+            }
+            buffer.putInt(0, MAGIC);
+            buffer.putShort(4, VERSION);
+            buffer.putLong(6, System.currentTimeMillis());
+            buffer.putLong(14, System.nanoTime());
+        }
+
+        /**
+         * Claim space for a record.
+         *
+         * @param length the length of the record
+         * @return the offset of the record or -1 if the segment is full
+         */
+        private int claim(final int length) {
+            while (true) {
+                final int offset = position.get();
+                if (offset + length > fileSize) {
+                    return -1;
+                }
+                if (position.compareAndSet(offset, offset + length)) {
+                    return offset;
+                }
+            }
+        }
+
+        private void close() {
+            buffer.force();
+            try {
+                randomAccessFile.close();
+            } catch (final IOException e) {
+                // the mapping stays valid
+            }
+            // the dictionaries are no longer needed, a late writer of a full segment defines its entries again
+            ids.clear();
+            threads.clear();
+        }
+    }
+
+    /**
+     * Retrieve the file for a segment.
+     *
+     * @param index the index of the segment
+     * @return the file
+     */
+    File getFile(final int index) {
+        return new File(file.getPath() + "." + index);
+    }
+
+    /**
+     * Write a record.
+     *
+     * @param kind   the kind of the record as defined by {@link EchoRecord}
+     * @param method the called method (for a call only)
+     * @param args   the arguments of the call (for a call only)
+     * @param value  the result or the thrown exception
+     */
+    void write(final int kind, final Method method, final Object[] args, final Object value) {
+        final long nanos = System.nanoTime();
+        final Thread thread = Thread.currentThread();
+        final long threadId = thread.getId();
+        final int argCount = args == null ? 0 : Math.min(args.length, 255);
+        for (int attempt = 0; attempt < 2 && !closed; attempt++) {
+            final Segment current = getSegment();
+            if (current == null) {
+                break;
+            }
+            if (threadId(current, thread, threadId)) {
+                final int offset;
+                switch (kind) {
+                case EchoRecord.CALL:
+                    final int methodId = id(current, method);
+                    if (methodId < 0) {
+                        break;
+                    }
+                    offset = current.claim(1 + 4 + 8 + 8 + 1 + 1 + (hashing ? 4 * argCount : 0));
+                    if (offset < 0) {
+                        break;
+                    }
+                    current.buffer.putInt(offset + 1, methodId);
+                    current.buffer.putLong(offset + 5, threadId);
+                    current.buffer.putLong(offset + 13, nanos);
+                    current.buffer.put(offset + 21, (byte)argCount);
+                    current.buffer.put(offset + 22, hashing ? HASH : NO_HASH);
+                    if (hashing) {
+                        for (int i = 0; i < argCount; i++) {
+                            current.buffer.putInt(offset + 23 + 4 * i, hash(args[i]));
+                        }
+                    }
+                    current.buffer.put(offset, CALL);
+                    return;
+                case EchoRecord.RESULT:
+                    offset = current.claim(1 + 8 + 8 + 1 + 4);
+                    if (offset < 0) {
+                        break;
+                    }
+                    current.buffer.putLong(offset + 1, threadId);
+                    current.buffer.putLong(offset + 9, nanos);
+                    current.buffer.put(offset + 17, value == null ? NULL : hashing ? HASH : NO_HASH);
+                    current.buffer.putInt(offset + 18, hashing ? hash(value) : 0);
+                    current.buffer.put(offset, RESULT);
+                    return;
+                default:
+                    final Throwable throwable = (Throwable)value;
+                    final int typeId = id(current, throwable.getClass());
+                    if (typeId < 0) {
+                        break;
+                    }
+                    final byte[] message = encode(String.valueOf(throwable.getMessage()));
+                    offset = current.claim(1 + 8 + 8 + 4 + 2 + message.length);
+                    if (offset < 0) {
+                        break;
+                    }
+                    current.buffer.putLong(offset + 1, threadId);
+                    current.buffer.putLong(offset + 9, nanos);
+                    current.buffer.putInt(offset + 17, typeId);
+                    put(current, offset + 21, message);
+                    current.buffer.put(offset, kind == EchoRecord.TARGET_EXCEPTION
+                        ? TARGET_EXCEPTION
+                        : INVOCATION_EXCEPTION);
+                    return;
+                }
+            }
+            roll(current);
+        }
+        dropped.incrementAndGet();
+    }
+
+    private static int hash(final Object object) {
+        try {
+            return object == null ? 0 : object.hashCode();
+        } catch (final RuntimeException e) {
+            return System.identityHashCode(object);
+        }
+    }
+
+    /**
+     * Ensure the thread is defined in the segment.
+     *
+     * @return <code>false</code> if the segment is full
+     */
+    private boolean threadId(final Segment current, final Thread thread, final long threadId) {
+        final Long key = Long.valueOf(threadId);
+        if (current.threads.containsKey(key)) {
+            return true;
+        }
+        final byte[] name = encode(thread.getName());
+        final int offset = current.claim(1 + 8 + 2 + name.length);
+        if (offset < 0) {
+            return false;
+        }
+        current.buffer.putLong(offset + 1, threadId);
+        put(current, offset + 9, name);
+        current.buffer.put(offset, THREAD);
+        // the entry is published after its definition has been written
+        current.threads.put(key, Boolean.TRUE);
+        return true;
+    }
+
+    /**
+     * Retrieve the id of a method or exception type. The entry is defined in the segment if necessary.
+     *
+     * @return the id or -1 if the segment is full
+     */
+    private int id(final Segment current, final Object key) {
+        final Integer known = current.ids.get(key);
+        if (known != null) {
+            return known.intValue();
+        }
+        final int id = current.nextId.getAndIncrement();
+        final int offset;
+        if (key instanceof Method) {
+            final Method method = (Method)key;
+            final byte[] type = encode(method.getDeclaringClass().getName());
+            final byte[] name = encode(method.getName());
+            offset = current.claim(1 + 4 + 2 + type.length + 2 + name.length);
+            if (offset < 0) {
+                return -1;
+            }
+            current.buffer.putInt(offset + 1, id);
+            put(current, offset + 5, type);
+            put(current, offset + 7 + type.length, name);
+            current.buffer.put(offset, METHOD);
+        } else {
+            final byte[] type = encode(((Class<?>)key).getName());
+            offset = current.claim(1 + 4 + 2 + type.length);
+            if (offset < 0) {
+                return -1;
+            }
+            current.buffer.putInt(offset + 1, id);
+            put(current, offset + 5, type);
+            current.buffer.put(offset, TYPE);
+        }
+        // a concurrent definition of the same key is harmless, both ids are valid
+        final Integer previous = current.ids.putIfAbsent(key, Integer.valueOf(id));
+        return previous == null ? id : previous.intValue();
+    }
+
+    private static byte[] encode(final String string) {
+        try {
+            final byte[] bytes = string.getBytes("UTF-8");
+            if (bytes.length <= MAX_STRING_LENGTH) {
+                return bytes;
+            }
+            final byte[] truncated = new byte[MAX_STRING_LENGTH];
+            System.arraycopy(bytes, 0, truncated, 0, MAX_STRING_LENGTH);
+            return truncated;
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    private static void put(final Segment current, final int offset, final byte[] bytes) {
+        current.buffer.putShort(offset, (short)bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            current.buffer.put(offset + 2 + i, bytes[i]);
+        }
+    }
+
+    private Segment getSegment() {
+        final Segment current = segment;
+        if (current == null) {
+            roll(null);
+            return segment;
+        }
+        return current;
+    }
+
+    private Segment open(final int index) {
+        try {
+            final Segment next = new Segment(index);
+            if (index >= maxFiles) {
+                getFile(index - maxFiles).delete();
+            }
+            return next;
+        } catch (final IOException e) {
+            failed = true;
+            return null;
+        }
+    }
+
+    /**
+     * Replace the full segment. Only one thread rolls the segment without holding any lock, concurrent threads drop
+     * their records instead of waiting for the file I/O.
+     *
+     * @param full the full segment or <code>null</code> to open the first one
+     */
+    private void roll(final Segment full) {
+        if (!rolling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (segment == full && !closed && !failed) {
+                if (full != null) {
+                    full.close();
+                }
+                // the full segment is no longer referenced by the trace
+                final Segment next = open(full == null ? 0 : full.index + 1);
+                segment = next;
+                if (closed && next != null) {
+                    // closed while the file was opened
+                    segment = null;
+                    next.close();
+                }
+            }
+        } finally {
+            rolling.set(false);
+        }
+    }
+
+    /**
+     * Force the current file to the disk and stop tracing. Any further record is dropped. The trace releases the
+     * mapping of the file, it is unmapped with its garbage collection.
+     *
+     * @since 1.1
+     */
+    public synchronized void close() {
+        closed = true;
+        final Segment current = segment;
+        segment = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    /**
+     * Query whether the trace failed to open a file. A failed trace drops any further record.
+     *
+     * @return <code>true</code> if a file could not be opened
+     * @since 1.1
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Retrieve the number of dropped records.
+     *
+     * @return the number of dropped records
+     * @since 1.1
+     */
+    public long getDroppedRecords() {
+        return dropped.get();
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        rolling = new AtomicBoolean();
+        dropped = new AtomicLong();
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.echo;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Decoder for the binary files of an {@link EchoTrace}. The decoder writes the records in the text format of the
+ * echoing proxy. Since the trace does not contain the values of arguments and results, they are written as hash codes
+ * <code>&lt;#1a2b3c4d&gt;</code> or as <code>&lt;?&gt;</code> if no hash codes have been recorded.
+ * <p>
+ * The decoder can be used from the command line, the arguments are the trace files in chronological order:
+ * </p>
+ * <pre>
+ * java com.thoughtworks.proxy.toys.echo.EchoTraceDecoder [-t] trace.bin.0 trace.bin.1
+ * </pre>
+ * <p>
+ * With the option <code>-t</code> each call is prefixed with the microseconds passed since the trace file was started.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class EchoTraceDecoder {
+    private final PrintWriter out;
+    private final boolean timestamps;
+
+    /**
+     * Construct an EchoTraceDecoder.
+     *
+     * @param out        the {@link PrintWriter} receiving the text
+     * @param timestamps <code>true</code> to prefix each call with its relative time
+     * @since 1.1
+     */
+    public EchoTraceDecoder(final PrintWriter out, final boolean timestamps) {
+        this.out = out;
+        this.timestamps = timestamps;
+    }
+
+    /**
+     * Decode a trace file.
+     *
+     * @param file the trace file
+     * @throws IOException if the file cannot be read or is no trace file
+     * @since 1.1
+     */
+    public void decode(final File file) throws IOException {
+        final InputStream input = new BufferedInputStream(new FileInputStream(file));
+        try {
+            decode(input);
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Decode the content of a trace file.
+     *
+     * @param input the stream with the content of the trace file
+     * @throws IOException if the stream cannot be read or contains no trace
+     * @since 1.1
+     */
+    public void decode(final InputStream input) throws IOException {
+        final DataInputStream data = new DataInputStream(input);
+        if (data.readInt() != EchoTrace.MAGIC) {
+            throw new IOException("No echo trace");
+        }
+        final short version = data.readShort();
+        if (version != EchoTrace.VERSION) {
+            throw new IOException("Unsupported version of echo trace: " + version);
+        }
+        data.readLong();
+        final long startNanos = data.readLong();
+        final Map<Integer, String> methods = new HashMap<Integer, String>();
+        final Map<Integer, String> types = new HashMap<Integer, String>();
+        final Map<Long, String> threads = new HashMap<Long, String>();
+        try {
+            while (true) {
+                final byte kind = data.readByte();
+                switch (kind) {
+                case EchoTrace.METHOD:
+                    final Integer methodId = Integer.valueOf(data.readInt());
+                    final String type = readString(data);
+                    methods.put(methodId, type + "." + readString(data));
+                    break;
+                case EchoTrace.TYPE:
+                    final Integer typeId = Integer.valueOf(data.readInt());
+                    types.put(typeId, readString(data));
+                    break;
+                case EchoTrace.THREAD:
+                    final Long threadId = Long.valueOf(data.readLong());
+                    threads.put(threadId, readString(data));
+                    break;
+                case EchoTrace.CALL:
+                    final String method = methods.get(Integer.valueOf(data.readInt()));
+                    final String thread = threads.get(Long.valueOf(data.readLong()));
+                    final long nanos = data.readLong();
+                    final int argCount = data.readUnsignedByte();
+                    final boolean hashed = data.readByte() == EchoTrace.HASH;
+                    final StringBuilder buf = new StringBuilder();
+                    if (timestamps) {
+                        buf.append((nanos - startNanos) / 1000).append(" ");
+                    }
+                    buf.append("[").append(thread).append("] ").append(method).append("(");
+                    for (int i = 0; i < argCount; i++) {
+                        buf.append(i == 0 ? "<" : ", <");
+                        buf.append(hashed ? "#" + Integer.toHexString(data.readInt()) : "?");
+                        buf.append(">");
+                    }
+                    buf.append(") ");
+                    out.print(buf);
+                    break;
+                case EchoTrace.RESULT:
+                    data.readLong();
+                    data.readLong();
+                    final byte hash = data.readByte();
+                    final int hashCode = data.readInt();
+                    out.println("--> <"
+                        + (hash == EchoTrace.NULL ? "NULL" : hash == EchoTrace.HASH
+                            ? "#" + Integer.toHexString(hashCode)
+                            : "?") + ">");
+                    break;
+                case EchoTrace.TARGET_EXCEPTION:
+                case EchoTrace.INVOCATION_EXCEPTION:
+                    data.readLong();
+                    data.readLong();
+                    final String exception = types.get(Integer.valueOf(data.readInt()));
+                    final String message = readString(data);
+                    out.println((kind == EchoTrace.INVOCATION_EXCEPTION ? "INTERNAL ERROR, throws " : "throws ")
+                        + exception + ": " + message);
+                    break;
+                default:
+                    // end of the written records
+                    return;
+                }
+            }
+        } catch (final EOFException e) {
+            // end of a full file
+        } finally {
+            out.flush();
+        }
+    }
+
+    private static String readString(final DataInputStream data) throws IOException {
+        final byte[] bytes = new byte[data.readUnsignedShort()];
+        data.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    /**
+     * Decode trace files to the standard output.
+     *
+     * @param args the names of the trace files in chronological order, optionally preceded by <code>-t</code>
+     * @throws IOException if a file cannot be read or is no trace file
+     * @since 1.1
+     */
+    public static void main(final String[] args) throws IOException {
+        int first = 0;
+        if (args.length > 0 && args[0].equals("-t")) {
+            first = 1;
+        }
+        if (args.length == first) {
+            System.err.println("Usage: java " + EchoTraceDecoder.class.getName() + " [-t] file...");
+            System.exit(1);
+        }
+        final EchoTraceDecoder decoder = new EchoTraceDecoder(new PrintWriter(System.out), first == 1);
+        for (int i = first; i < args.length; i++) {
+            decoder.decode(new File(args[i]));
+        }
+    }
+}
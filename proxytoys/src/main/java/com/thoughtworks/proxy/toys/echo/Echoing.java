@@ -11,6 +11,10 @@
 package com.thoughtworks.proxy.toys.echo;
 
 import java.io.PrintWriter;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.thoughtworks.proxy.ProxyFactory;
 import com.thoughtworks.proxy.factory.StandardProxyFactory;
@@ -34,6 +38,10 @@ public class Echoing<T> {
     private Class<T> type;
     private Object delegate;
     private PrintWriter printWriter = new PrintWriter(System.err);
+    private EchoBuffer buffer;
+    private EchoTrace trace;
+    private List<EchoFilter> filters = new ArrayList<EchoFilter>();
+    private int maxDepth = Integer.MAX_VALUE;
 
     private Echoing(final Class<T> type) {
         this.type = type;
@@ -89,6 +97,30 @@ public class Echoing<T> {
             return new EchoingBuild<T>(echoing);
         }
 
+        /**
+         * Specify a buffer for asynchronous output.
+         *
+         * @param buffer which receives the output
+         * @return the factory that will proxy instances of the supplied type.
+         * @since 1.1
+         */
+        public EchoingBuild<T> to(final EchoBuffer buffer) {
+            echoing.buffer = buffer;
+            return new EchoingBuild<T>(echoing);
+        }
+
+        /**
+         * Specify a trace for binary output.
+         *
+         * @param trace which receives the output
+         * @return the factory that will proxy instances of the supplied type.
+         * @since 1.1
+         */
+        public EchoingBuild<T> to(final EchoTrace trace) {
+            echoing.trace = trace;
+            return new EchoingBuild<T>(echoing);
+        }
+
     }
 
     public static class EchoingBuild<T> {
@@ -98,6 +130,82 @@ public class Echoing<T> {
             this.echoing = echoing;
         }
 
+        /**
+         * Echo only the calls accepted by a filter. All filters must accept a call, they are asked in the given order.
+         *
+         * @param filter the filter
+         * @return the factory that will proxy instances of the supplied type.
+         * @since 1.1
+         */
+        public EchoingBuild<T> filtering(final EchoFilter filter) {
+            echoing.filters.add(filter);
+            return this;
+        }
+
+        /**
+         * Echo only calls of methods with the given names.
+         *
+         * @param methodNames the names of the echoed methods
+         * @return the factory that will proxy instances of the supplied type.
+         * @see MethodEchoFilter
+         * @since 1.1
+         */
+        public EchoingBuild<T> including(final String... methodNames) {
+            return filtering(new MethodEchoFilter(methodNames, null));
+        }
+
+        /**
+         * Never echo calls of methods with the given names.
+         *
+         * @param methodNames the names of the methods, that are not echoed
+         * @return the factory that will proxy instances of the supplied type.
+         * @see MethodEchoFilter
+         * @since 1.1
+         */
+        public EchoingBuild<T> excluding(final String... methodNames) {
+            return filtering(new MethodEchoFilter(null, methodNames));
+        }
+
+        /**
+         * Echo calls randomly with the given probability.
+         *
+         * @param probability the probability of an echoed call between 0 and 1
+         * @return the factory that will proxy instances of the supplied type.
+         * @see SamplingEchoFilter
+         * @since 1.1
+         */
+        public EchoingBuild<T> sampling(final double probability) {
+            return filtering(new SamplingEchoFilter(probability));
+        }
+
+        /**
+         * Echo a maximum number of calls per second.
+         *
+         * @param maxCallsPerSecond the maximum number of echoed calls per second
+         * @return the factory that will proxy instances of the supplied type.
+         * @see RateLimitingEchoFilter
+         * @since 1.1
+         */
+        public EchoingBuild<T> limiting(final int maxCallsPerSecond) {
+            return filtering(new RateLimitingEchoFilter(maxCallsPerSecond));
+        }
+
+        /**
+         * Limit the recursive decoration of results. The results of the proxied object have depth 1, their results
+         * depth 2 and so on.
+         *
+         * @param maxDepth the maximum depth of decorated results, 0 to decorate no result at all
+         * @return the factory that will proxy instances of the supplied type.
+         * @throws IllegalArgumentException if the maximum depth is negative
+         * @since 1.1
+         */
+        public EchoingBuild<T> depth(final int maxDepth) {
+            if (maxDepth < 0) {
+                throw new IllegalArgumentException("Maximum depth must not be negative: " + maxDepth);
+            }
+            echoing.maxDepth = maxDepth;
+            return this;
+        }
 
         /**
          * Creating a delegating proxy for an object using the {@link StandardProxyFactory}.
@@ -117,8 +225,47 @@ public class Echoing<T> {
          * @since 1.0
          */
         public T build(final ProxyFactory proxyFactory) {
-            EchoDecorator<T> decorator = new EchoDecorator<T>(echoing.printWriter, proxyFactory);
+            EchoDecorator<T> decorator;
+            if (echoing.trace != null) {
+                decorator = new EchoDecorator<T>(echoing.trace, proxyFactory);
+            } else if (echoing.buffer != null) {
+                decorator = new EchoDecorator<T>(echoing.buffer, proxyFactory);
+            } else {
+                decorator = new EchoDecorator<T>(echoing.printWriter, proxyFactory);
+            }
+            if (!echoing.filters.isEmpty() || echoing.maxDepth != Integer.MAX_VALUE) {
+                final EchoFilter filter;
+                switch (echoing.filters.size()) {
+                case 0:
+                    filter = null;
+                    break;
+                case 1:
+                    filter = echoing.filters.get(0);
+                    break;
+                default:
+                    filter = new EchoFilters(echoing.filters.toArray(new EchoFilter[echoing.filters.size()]));
+                }
+                decorator = new EchoDecorator<T>(decorator, filter, echoing.maxDepth);
+            }
             return Decorating.proxy(echoing.delegate, echoing.type).visiting(decorator).build(proxyFactory);
         }
     }
+
+    private static final class EchoFilters implements EchoFilter, Serializable {
+        private static final long serialVersionUID = 1L;
+        private final EchoFilter[] filters;
+
+        private EchoFilters(final EchoFilter[] filters) {
+            this.filters = filters;
+        }
+
+        public boolean accept(final Method method) {
+            for (final EchoFilter filter : filters) {
+                if (!filter.accept(method)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
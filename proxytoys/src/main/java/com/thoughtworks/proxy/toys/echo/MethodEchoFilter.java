@@ -0,0 +1,46 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.echo;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+
+/**
+ * {@link EchoFilter} selecting calls by the name of the method. Excluded names take precedence over included ones.
+ *
+ * @since 1.1
+ */
+public class MethodEchoFilter implements EchoFilter, Serializable {
+    private static final long serialVersionUID = 1L;
+    private final Set<String> included;
+    private final Set<String> excluded;
+
+    /**
+     * Construct a MethodEchoFilter.
+     *
+     * @param included the names of the echoed methods, <code>null</code> to echo any method
+     * @param excluded the names of the methods never echoed, may be <code>null</code>
+     * @since 1.1
+     */
+    public MethodEchoFilter(final String[] included, final String[] excluded) {
+        this.included = included == null ? null : new HashSet<String>(Arrays.asList(included));
+        this.excluded = excluded == null ? null : new HashSet<String>(Arrays.asList(excluded));
+    }
+
+    public boolean accept(final Method method) {
+        final String name = method.getName();
+        return (included == null || included.contains(name)) && (excluded == null || !excluded.contains(name));
+    }
+}
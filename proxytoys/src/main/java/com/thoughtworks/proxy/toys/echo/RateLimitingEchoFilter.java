@@ -0,0 +1,60 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.echo;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * {@link EchoFilter} accepting a maximum number of calls per second. The limit applies to fixed intervals of one
+ * second.
+ *
+ * @since 1.1
+ */
+public class RateLimitingEchoFilter implements EchoFilter, Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private final int maxCallsPerSecond;
+    private transient volatile AtomicLong permits;
+    private transient volatile long interval;
+
+    /**
+     * Construct a RateLimitingEchoFilter.
+     *
+     * @param maxCallsPerSecond the maximum number of echoed calls per second
+     * @throws IllegalArgumentException if the maximum is negative
+     * @since 1.1
+     */
+    public RateLimitingEchoFilter(final int maxCallsPerSecond) {
+        if (maxCallsPerSecond < 0) {
+            throw new IllegalArgumentException("Maximum number of calls must not be negative: " + maxCallsPerSecond);
+        }
+        this.maxCallsPerSecond = maxCallsPerSecond;
+    }
+
+    public boolean accept(final Method method) {
+        final long now = System.nanoTime() / INTERVAL_NANOS;
+        AtomicLong counter = permits;
+        if (counter == null || interval != now) {
+            synchronized (this) {
+                if (permits == null || interval != now) {
+                    permits = new AtomicLong();
+                    interval = now;
+                }
+                counter = permits;
+            }
+        }
+        return counter.incrementAndGet() <= maxCallsPerSecond;
+    }
+}
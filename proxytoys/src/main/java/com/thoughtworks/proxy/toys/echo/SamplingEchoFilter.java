@@ -0,0 +1,45 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.echo;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+
+import com.thoughtworks.proxy.kit.FastRandom;
+
+
+/**
+ * {@link EchoFilter} accepting calls randomly with a given probability.
+ *
+ * @since 1.1
+ */
+public class SamplingEchoFilter implements EchoFilter, Serializable {
+    private static final long serialVersionUID = 1L;
+    private final long threshold;
+
+    /**
+     * Construct a SamplingEchoFilter.
+     *
+     * @param probability the probability of an echoed call between 0 and 1
+     * @throws IllegalArgumentException if the probability is out of range
+     * @since 1.1
+     */
+    public SamplingEchoFilter(final double probability) {
+        if (probability < 0 || probability > 1) {
+            throw new IllegalArgumentException("Probability must be between 0 and 1: " + probability);
+        }
+        this.threshold = (long)(probability * (1L << 53));
+    }
+
+    public boolean accept(final Method method) {
+        return (FastRandom.nextLong() >>> 11) < threshold;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.failover;
+
+/**
+ * Indicates how a failover proxy selects the delegate of a call. Regardless of the mode, the proxy tries the next
+ * delegates in turn, if the selected one fails with the relevant exception.
+ *
+ * @see FailoverInvoker
+ * @since 1.1
+ */
+public enum BalancingMode {
+    /**
+     * All calls are delegated to the current delegate until it fails. The next delegate becomes the current one.
+     *
+     * @since 1.1
+     */
+    FAILOVER,
+
+    /**
+     * The calls are delegated to the delegates in turn.
+     *
+     * @since 1.1
+     */
+    ROUND_ROBIN,
+
+    /**
+     * A call is delegated to the delegate with the fewest running calls.
+     *
+     * @since 1.1
+     */
+    LEAST_IN_FLIGHT,
+
+    /**
+     * A call is delegated to the better of two randomly chosen delegates, i.e. the one with fewer running calls or the
+     * lower mean latency.
+     *
+     * @since 1.1
+     */
+    POWER_OF_TWO_CHOICES
+}
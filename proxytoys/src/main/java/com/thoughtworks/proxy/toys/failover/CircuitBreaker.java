@@ -0,0 +1,181 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.failover;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A circuit breaker for a single delegate.
+ * <p>
+ * The breaker records the outcome of the last calls in a sliding window. As soon as the window is filled and the
+ * failure rate reaches the threshold, the circuit opens and the delegate receives no calls. After the open time a
+ * single probe call is allowed in the half-open state. Its success closes the circuit again, its failure opens it for
+ * another period. All state transitions are done with atomic operations, reading the state requires no lock.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class CircuitBreaker implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final double failureRateThreshold;
+    private final int windowSize;
+    private final long openNanos;
+    private final AtomicReference<CircuitState> state;
+    private final AtomicIntegerArray outcomes;
+    private final AtomicInteger index;
+    private final AtomicInteger failures;
+    private transient volatile long openedAt;
+
+    /**
+     * Construct a CircuitBreaker.
+     *
+     * @param failureRateThreshold the failure rate opening the circuit, a value between 0 (exclusive) and 1
+     * @param windowSize           the number of recorded calls in the sliding window
+     * @param openTime             the time the circuit stays open before a probe call is allowed
+     * @param unit                 the time unit of the open time
+     * @throws IllegalArgumentException if the threshold or the window size are out of range
+     * @since 1.1
+     */
+    public CircuitBreaker(
+            final double failureRateThreshold, final int windowSize, final long openTime, final TimeUnit unit) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("Failure rate threshold out of range: " + failureRateThreshold);
+        }
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.windowSize = windowSize;
+        this.openNanos = unit.toNanos(openTime);
+        state = new AtomicReference<CircuitState>(CircuitState.CLOSED);
+        outcomes = new AtomicIntegerArray(windowSize);
+        index = new AtomicInteger();
+        failures = new AtomicInteger();
+    }
+
+    /**
+     * Construct a CircuitBreaker with the configuration of another one.
+     *
+     * @param prototype the circuit breaker with the configuration
+     */
+    CircuitBreaker(final CircuitBreaker prototype) {
+        this(prototype.failureRateThreshold, prototype.windowSize, prototype.openNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Retrieve the current state.
+     *
+     * @return the state
+     * @since 1.1
+     */
+    public CircuitState getState() {
+        return state.get();
+    }
+
+    /**
+     * Retrieve the failure rate of the sliding window.
+     *
+     * @return the failure rate
+     * @since 1.1
+     */
+    public double getFailureRate() {
+        final int calls = getRecordedCalls();
+        return calls == 0 ? 0 : (double)failures.get() / calls;
+    }
+
+    /**
+     * Check whether a call is allowed. In the open state the first caller after the open time is allowed to probe the
+     * delegate and moves the breaker into the half-open state.
+     *
+     * @return <code>true</code> if the call is allowed
+     * @since 1.1
+     */
+    public boolean allowRequest() {
+        final CircuitState current = state.get();
+        if (current == CircuitState.CLOSED) {
+            return true;
+        } else if (current == CircuitState.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            return state.compareAndSet(CircuitState.OPEN, CircuitState.HALF_OPEN);
+        }
+        return false;
+    }
+
+    /**
+     * Record a successful call.
+     *
+     * @since 1.1
+     */
+    public void onSuccess() {
+        if (state.get() == CircuitState.HALF_OPEN) {
+            reset();
+            state.compareAndSet(CircuitState.HALF_OPEN, CircuitState.CLOSED);
+        } else {
+            record(0);
+        }
+    }
+
+    /**
+     * Record a failed call.
+     *
+     * @since 1.1
+     */
+    public void onFailure() {
+        if (state.get() == CircuitState.HALF_OPEN) {
+            open(CircuitState.HALF_OPEN);
+        } else {
+            record(1);
+            if (state.get() == CircuitState.CLOSED && getRecordedCalls() == windowSize
+                    && failures.get() >= failureRateThreshold * windowSize) {
+                open(CircuitState.CLOSED);
+            }
+        }
+    }
+
+    /**
+     * Forget an allowed call, whose outcome is discarded. An abandoned probe returns the breaker into the open state,
+     * so that the next caller may probe the delegate again at once.
+     */
+    void onAbandoned() {
+        state.compareAndSet(CircuitState.HALF_OPEN, CircuitState.OPEN);
+    }
+
+    private void record(final int outcome) {
+        final int i = index.getAndIncrement();
+        final int previous = outcomes.getAndSet((i & Integer.MAX_VALUE) % windowSize, outcome);
+        if (previous != outcome) {
+            failures.addAndGet(outcome - previous);
+        }
+    }
+
+    private int getRecordedCalls() {
+        final int calls = index.get();
+        // a negative value is an overflow of a filled window
+        return calls < 0 || calls > windowSize ? windowSize : calls;
+    }
+
+    private void open(final CircuitState expected) {
+        openedAt = System.nanoTime();
+        state.compareAndSet(expected, CircuitState.OPEN);
+    }
+
+    private void reset() {
+        for (int i = 0; i < windowSize; i++) {
+            outcomes.set(i, 0);
+        }
+        failures.set(0);
+        index.set(0);
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.failover;
+
+/**
+ * The states of a {@link CircuitBreaker}.
+ *
+ * @since 1.1
+ */
+public enum CircuitState {
+    /**
+     * The delegate receives any call.
+     */
+    CLOSED,
+    /**
+     * The delegate has failed too often and receives no calls.
+     */
+    OPEN,
+    /**
+     * The delegate receives a single probe call to decide whether the circuit is closed again.
+     */
+    HALF_OPEN
+}
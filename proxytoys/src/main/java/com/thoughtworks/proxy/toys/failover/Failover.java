@@ -12,6 +12,7 @@ package com.thoughtworks.proxy.toys.failover;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import com.thoughtworks.proxy.ProxyFactory;
 import com.thoughtworks.proxy.kit.ReflectionUtils;
@@ -29,6 +30,10 @@ public class Failover<T> {
     private Class<?>[] types;
     private T[] delegates;
     private Class<? extends Throwable> exceptionClass;
+    private CircuitBreaker circuitBreaker;
+    private BalancingMode balancingMode = BalancingMode.FAILOVER;
+    private RetryPolicy retryPolicy;
+    private HedgingPolicy hedgingPolicy;
 
     private Failover(Class<T> primaryType, Class<?>... types) {
         this.types = ReflectionUtils.makeTypesArray(primaryType, types);
@@ -102,9 +107,72 @@ public class Failover<T> {
          * @return a factory that will trigger the usage of the next delegate based on the supplied Throwable type.
          * @since 1.0
          */
-        public FailoverBuild<T> excepting(Class<? extends Throwable> exceptionClass) {
+        public FailoverOptionsOrBuild<T> excepting(Class<? extends Throwable> exceptionClass) {
             failover.exceptionClass = exceptionClass;
-            return new FailoverBuild<T>(failover);
+            return new FailoverOptionsOrBuild<T>(failover);
+        }
+    }
+
+    public static class FailoverOptionsOrBuild<T> extends FailoverBuild<T> {
+
+        private FailoverOptionsOrBuild(Failover<T> failover) {
+            super(failover);
+        }
+
+        /**
+         * Guard every delegate with a circuit breaker. A delegate is skipped as long as its circuit is open.
+         *
+         * @param failureRateThreshold the failure rate opening the circuit, a value between 0 (exclusive) and 1
+         * @param windowSize           the number of calls in the sliding window of every circuit breaker
+         * @param openTime             the time a circuit stays open before a probe call is allowed
+         * @param unit                 the time unit of the open time
+         * @return a factory that will guard the delegates with circuit breakers
+         * @see CircuitBreaker
+         * @since 1.1
+         */
+        public FailoverOptionsOrBuild<T> circuitBreaker(
+                double failureRateThreshold, int windowSize, long openTime, TimeUnit unit) {
+            failover.circuitBreaker = new CircuitBreaker(failureRateThreshold, windowSize, openTime, unit);
+            return this;
+        }
+
+        /**
+         * Spread the calls over the delegates. A failing delegate is still replaced by the next one for the call.
+         *
+         * @param balancingMode the mode selecting the delegate of a call
+         * @return a factory that will select the delegate of a call according the given mode
+         * @see BalancingMode
+         * @since 1.1
+         */
+        public FailoverOptionsOrBuild<T> balancing(BalancingMode balancingMode) {
+            failover.balancingMode = balancingMode;
+            return this;
+        }
+
+        /**
+         * Retry failed calls with exponential backoff.
+         *
+         * @param retryPolicy the policy for the retries
+         * @return a factory that will retry failed calls according the given policy
+         * @see RetryPolicy
+         * @since 1.1
+         */
+        public FailoverOptionsOrBuild<T> retrying(RetryPolicy retryPolicy) {
+            failover.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Hedge slow calls with a duplicate call to the next delegate.
+         *
+         * @param hedgingPolicy the policy for the hedged calls
+         * @return a factory that will hedge slow calls according the given policy
+         * @see HedgingPolicy
+         * @since 1.1
+         */
+        public FailoverOptionsOrBuild<T> hedging(HedgingPolicy hedgingPolicy) {
+            failover.hedgingPolicy = hedgingPolicy;
+            return this;
         }
     }
 
@@ -124,7 +192,9 @@ public class Failover<T> {
          * @since 1.0
          */
         public T build(final ProxyFactory proxyFactory) {
-            return new FailoverInvoker<T>(failover.types, proxyFactory, failover.delegates, failover.exceptionClass).proxy();
+            return new FailoverInvoker<T>(
+                failover.types, proxyFactory, failover.delegates, failover.exceptionClass, failover.circuitBreaker,
+                failover.balancingMode, failover.retryPolicy, failover.hedgingPolicy).proxy();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.failover;
+
+/**
+ * Exception thrown by a failover proxy if no delegate could be called at all.
+ *
+ * @since 1.1
+ */
+public class FailoverException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Construct a FailoverException.
+     *
+     * @param message the message
+     * @since 1.1
+     */
+    public FailoverException(final String message) {
+        super(message);
+    }
+}
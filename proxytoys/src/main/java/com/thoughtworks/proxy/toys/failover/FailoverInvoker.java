@@ -5,7 +5,7 @@
  * The software in this package is published under the terms of the BSD
  * style license a copy of which has been included with this distribution in
  * the LICENSE.txt file.
- * 
+ *
  * Created on 14-May-2004
  */
 package com.thoughtworks.proxy.toys.failover;
@@ -14,8 +14,26 @@ import static com.thoughtworks.proxy.toys.delegate.DelegationMode.DIRECT;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import com.thoughtworks.proxy.ProxyFactory;
+import com.thoughtworks.proxy.kit.FastRandom;
+import com.thoughtworks.proxy.kit.LatencyHistogram;
+import com.thoughtworks.proxy.kit.SharedTimer;
 import com.thoughtworks.proxy.kit.SimpleReference;
 import com.thoughtworks.proxy.toys.hotswap.HotSwappingInvoker;
 
@@ -23,6 +41,29 @@ import com.thoughtworks.proxy.toys.hotswap.HotSwappingInvoker;
  * {@link com.thoughtworks.proxy.Invoker Invoker} that implements a failover strategy by using different delegates in
  * case of an exception. The implemented strategy is a simple round-robin algorithm to change the delegate in case of a
  * relevant exception.
+ * <p>
+ * Optionally every delegate is guarded by its own {@link CircuitBreaker}. A delegate with an open circuit is skipped
+ * until its open time has elapsed and a probe call has succeeded. If no delegate can be called at all, the invocation
+ * fails with a {@link FailoverException}. The proxy implements additionally {@link FailoverMonitor}.
+ * </p>
+ * <p>
+ * Instead of sticking to the current delegate, the invoker can also spread the calls over all delegates according a
+ * {@link BalancingMode}. The selection is lock-free, it is based on the running calls and the mean latency, that are
+ * tracked for every delegate only in the modes reading them. The methods of {@link Object} are always invoked on the
+ * current delegate.
+ * </p>
+ * <p>
+ * Without {@link RetryPolicy} every delegate is tried once without delay. With a policy the invoker cycles the
+ * delegates up to the maximum number of attempts, delays every retry with exponential backoff and consumes a token of
+ * the {@link RetryBudget} if configured. The proxy counts the retries and the exhausted budgets.
+ * </p>
+ * <p>
+ * With a {@link HedgingPolicy} the invoker records the latency distribution of every method. A call, that takes
+ * longer than the configured percentile, is duplicated to the next delegate and the first result wins. The primary call
+ * runs on the caller's thread, only the hedged call runs on the executor of the policy. The caller's thread is never
+ * interrupted, a primary call, that lost against its hedged call, runs to its end and its outcome is discarded without
+ * failover or any record in the circuit breakers.
+ * </p>
  *
  * @author Dan North
  * @author Aslak Helles&oslash;y
@@ -31,9 +72,70 @@ import com.thoughtworks.proxy.toys.hotswap.HotSwappingInvoker;
  */
 public class FailoverInvoker<T> extends HotSwappingInvoker<T> {
     private static final long serialVersionUID = -8289095570093619184L;
+    private static final Method getCircuitState;
+    private static final Method getInFlightCalls;
+    private static final Method getMeanLatencyNanos;
+    private static final Method getRetries;
+    private static final Method getExhaustedRetryBudgets;
+    private static final Method getHedgedCalls;
+
+    static {
+        try {
+            getCircuitState = FailoverMonitor.class.getMethod("getCircuitState", new Class[]{Object.class});
+            getInFlightCalls = FailoverMonitor.class.getMethod("getInFlightCalls", new Class[]{Object.class});
+            getMeanLatencyNanos = FailoverMonitor.class.getMethod("getMeanLatencyNanos", new Class[]{Object.class});
+            getRetries = FailoverMonitor.class.getMethod("getRetries", new Class[0]);
+            getExhaustedRetryBudgets = FailoverMonitor.class.getMethod("getExhaustedRetryBudgets", new Class[0]);
+            getHedgedCalls = FailoverMonitor.class.getMethod("getHedgedCalls", new Class[0]);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e.toString());
+        }
+    }
+
     private T[] delegates;
     private Class<? extends Throwable> exceptionClass;
-    private int current;
+    private volatile int current;
+    private CircuitBreaker[] breakers;
+    private BalancingMode balancingMode;
+    private RetryPolicy retryPolicy;
+    private HedgingPolicy hedgingPolicy;
+    private transient volatile Statistics statistics;
+
+    private static final class Statistics {
+        private final AtomicIntegerArray inFlight;
+        private final AtomicLongArray calls;
+        private final AtomicLongArray nanos;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicLong exhausted = new AtomicLong();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong hedged = new AtomicLong();
+        private final ConcurrentMap<Method, LatencyHistogram> histograms =
+            new ConcurrentHashMap<Method, LatencyHistogram>();
+
+        private Statistics(final int length) {
+            inFlight = new AtomicIntegerArray(length);
+            calls = new AtomicLongArray(length);
+            nanos = new AtomicLongArray(length);
+        }
+
+        private long meanLatency(final int index) {
+            final long count = calls.get(index);
+            return count == 0 ? 0 : nanos.get(index) / count;
+        }
+
+        private LatencyHistogram getHistogram(final Method method) {
+            LatencyHistogram histogram = histograms.get(method);
+            if (histogram == null) {
+                final LatencyHistogram newHistogram = new LatencyHistogram();
+                histogram = histograms.putIfAbsent(method, newHistogram);
+                if (histogram == null) {
+                    histogram = newHistogram;
+                }
+            }
+            return histogram;
+        }
+    }
 
     /**
      * Construct a FailoverInvoker.
@@ -45,34 +147,638 @@ public class FailoverInvoker<T> extends HotSwappingInvoker<T> {
      * @since 0.1
      */
     public FailoverInvoker(final Class<?>[] types, final ProxyFactory proxyFactory, final T[] delegates, final Class<? extends Throwable> exceptionClass) {
+        this(types, proxyFactory, delegates, exceptionClass, null);
+    }
+
+    /**
+     * Construct a FailoverInvoker with circuit breakers.
+     *
+     * @param types          the types of the proxy
+     * @param proxyFactory   the {@link ProxyFactory} to use
+     * @param delegates      the delegates to use
+     * @param exceptionClass the type of the exception
+     * @param circuitBreaker the prototype of the circuit breaker for every delegate (may be <code>null</code>)
+     * @since 1.1
+     */
+    public FailoverInvoker(
+            final Class<?>[] types, final ProxyFactory proxyFactory, final T[] delegates,
+            final Class<? extends Throwable> exceptionClass, final CircuitBreaker circuitBreaker) {
+        this(types, proxyFactory, delegates, exceptionClass, circuitBreaker, BalancingMode.FAILOVER);
+    }
+
+    /**
+     * Construct a FailoverInvoker spreading the calls over the delegates.
+     *
+     * @param types          the types of the proxy
+     * @param proxyFactory   the {@link ProxyFactory} to use
+     * @param delegates      the delegates to use
+     * @param exceptionClass the type of the exception
+     * @param circuitBreaker the prototype of the circuit breaker for every delegate (may be <code>null</code>)
+     * @param balancingMode  the mode selecting the delegate of a call
+     * @since 1.1
+     */
+    public FailoverInvoker(
+            final Class<?>[] types, final ProxyFactory proxyFactory, final T[] delegates,
+            final Class<? extends Throwable> exceptionClass, final CircuitBreaker circuitBreaker,
+            final BalancingMode balancingMode) {
+        this(types, proxyFactory, delegates, exceptionClass, circuitBreaker, balancingMode, null);
+    }
+
+    /**
+     * Construct a FailoverInvoker with a retry policy.
+     *
+     * @param types          the types of the proxy
+     * @param proxyFactory   the {@link ProxyFactory} to use
+     * @param delegates      the delegates to use
+     * @param exceptionClass the type of the exception
+     * @param circuitBreaker the prototype of the circuit breaker for every delegate (may be <code>null</code>)
+     * @param balancingMode  the mode selecting the delegate of a call
+     * @param retryPolicy    the policy for the retries after a failure (may be <code>null</code> to try every
+     *                       delegate once without delay)
+     * @since 1.1
+     */
+    public FailoverInvoker(
+            final Class<?>[] types, final ProxyFactory proxyFactory, final T[] delegates,
+            final Class<? extends Throwable> exceptionClass, final CircuitBreaker circuitBreaker,
+            final BalancingMode balancingMode, final RetryPolicy retryPolicy) {
+        this(types, proxyFactory, delegates, exceptionClass, circuitBreaker, balancingMode, retryPolicy, null);
+    }
+
+    /**
+     * Construct a FailoverInvoker with a hedging policy.
+     *
+     * @param types          the types of the proxy
+     * @param proxyFactory   the {@link ProxyFactory} to use
+     * @param delegates      the delegates to use
+     * @param exceptionClass the type of the exception
+     * @param circuitBreaker the prototype of the circuit breaker for every delegate (may be <code>null</code>)
+     * @param balancingMode  the mode selecting the delegate of a call
+     * @param retryPolicy    the policy for the retries after a failure (may be <code>null</code> to try every
+     *                       delegate once without delay)
+     * @param hedgingPolicy  the policy for hedged calls (may be <code>null</code>)
+     * @since 1.1
+     */
+    public FailoverInvoker(
+            final Class<?>[] types, final ProxyFactory proxyFactory, final T[] delegates,
+            final Class<? extends Throwable> exceptionClass, final CircuitBreaker circuitBreaker,
+            final BalancingMode balancingMode, final RetryPolicy retryPolicy, final HedgingPolicy hedgingPolicy) {
         super(types, proxyFactory, new SimpleReference<Object>(delegates[0]), DIRECT);
         this.delegates = delegates;
         this.exceptionClass = exceptionClass;
+        this.balancingMode = balancingMode;
+        this.retryPolicy = retryPolicy;
+        this.hedgingPolicy = hedgingPolicy;
+        if (circuitBreaker != null) {
+            breakers = new CircuitBreaker[delegates.length];
+            for (int i = 0; i < breakers.length; i++) {
+                breakers[i] = new CircuitBreaker(circuitBreaker);
+            }
+        }
+    }
+
+    @Override
+    protected Class<?>[] getProxyTypes() {
+        final Class<?>[] types = super.getProxyTypes();
+        final Class<?>[] classes = new Class[types.length + 1];
+        System.arraycopy(types, 0, classes, 0, types.length);
+        classes[types.length] = FailoverMonitor.class;
+        return classes;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.equals(getCircuitState)) {
+            final int index = indexOf(args[0]);
+            return index < 0 || breakers == null ? null : breakers[index].getState();
+        } else if (method.equals(getInFlightCalls)) {
+            final int index = indexOf(args[0]);
+            return index < 0 ? 0 : getStatistics().inFlight.get(index);
+        } else if (method.equals(getMeanLatencyNanos)) {
+            final int index = indexOf(args[0]);
+            return index < 0 ? 0L : getStatistics().meanLatency(index);
+        } else if (method.equals(getRetries)) {
+            return getStatistics().retries.get();
+        } else if (method.equals(getExhaustedRetryBudgets)) {
+            return getStatistics().exhausted.get();
+        } else if (method.equals(getHedgedCalls)) {
+            return getStatistics().hedged.get();
+        }
+        return super.invoke(proxy, method, args);
     }
 
     @Override
-    protected Object invokeOnDelegate(final Method method, final Object[] args) throws InvocationTargetException {
-        Object result = null;
-        final int original = current;
-        while (result == null) {
+    protected Object invokeOnDelegate(final Object delegate, final Method method, final Object[] args)
+            throws InvocationTargetException {
+        if (hedgingPolicy != null && hedgingPolicy.getExecutor() != null && delegates.length > 1
+                && method.getDeclaringClass() != Object.class) {
+            return hedge(new Call(delegate, method, args));
+        }
+        if (breakers == null && isSticky(method)) {
+            // the healthy path of a plain failover neither allocates nor writes any shared state
+            try {
+                return super.invokeOnDelegate(delegate, method, args);
+            } catch (final InvocationTargetException e) {
+                if (!exceptionClass.isInstance(e.getTargetException())) {
+                    throw e;
+                }
+                final Call call = new Call(delegate, method, args);
+                return resume(call, call.failed(e));
+            }
+        }
+        return execute(new Call(delegate, method, args));
+    }
+
+    private Object execute(final Call call) throws InvocationTargetException {
+        return resume(call, call.attempt());
+    }
+
+    private Object resume(final Call call, boolean done) throws InvocationTargetException {
+        while (!done) {
+            if (retryPolicy != null) {
+                if (!acquireRetry(call.stats)) {
+                    break;
+                }
+                final long backoff = retryPolicy.getBackoffNanos(call.attempts, FastRandom.nextLong());
+                final ScheduledExecutorService scheduler = retryPolicy.getScheduler();
+                if (scheduler != null && call.method.getReturnType() == Future.class) {
+                    // the retry is a plain Future, a method declaring a subtype of it would fail the cast
+                    return new ScheduledRetry(call, scheduler).schedule(backoff);
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(backoff);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            // without policy plain failover to the next delegate
+            done = call.attempt();
+        }
+        return call.getResult();
+    }
+
+    private boolean isSticky(final Method method) {
+        return balancingMode == null || balancingMode == BalancingMode.FAILOVER
+            || method.getDeclaringClass() == Object.class;
+    }
+
+    private boolean isTracking() {
+        // only these modes read the running calls and the latencies of the delegates
+        return balancingMode == BalancingMode.LEAST_IN_FLIGHT || balancingMode == BalancingMode.POWER_OF_TWO_CHOICES;
+    }
+
+    private Object hedge(final Call call) throws InvocationTargetException {
+        final Statistics stats = call.stats;
+        final LatencyHistogram histogram = stats.getHistogram(call.method);
+        final long start = System.nanoTime();
+        stats.requests.incrementAndGet();
+        if (histogram.getCount() < hedgingPolicy.getMinSamples()) {
+            try {
+                return execute(call);
+            } finally {
+                histogram.record(System.nanoTime() - start);
+            }
+        }
+        final long threshold = histogram.getPercentile(hedgingPolicy.getPercentile());
+        final Hedge hedge = new Hedge(call);
+        call.race = hedge;
+        final ScheduledFuture<?> trigger = SharedTimer.getTimer().schedule((Runnable)hedge, threshold, TimeUnit.NANOSECONDS);
+        try {
+            Throwable failure = null;
+            Object result = null;
             try {
-                result = super.invokeOnDelegate(method, args);
-                break;
-            } catch (InvocationTargetException e) {
-                if (exceptionClass.isInstance(e.getTargetException())) {
-                    synchronized (this) {
-                        current++;
-                        current = current % delegates.length;
-                        if (original == current) {
-                            throw e;
+                result = execute(call);
+            } catch (final InvocationTargetException e) {
+                failure = e;
+            } catch (final RuntimeException e) {
+                failure = e;
+            } catch (final Error e) {
+                failure = e;
+            }
+            final int state = hedge.finish();
+            if (state == Hedge.HEDGED) {
+                return hedge.result;
+            } else if (state == Hedge.RUNNING) {
+                // the primary call failed, wait for the hedged one
+                try {
+                    return hedge.future.get();
+                } catch (final ExecutionException e) {
+                    // report the failure of the primary call
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new FailoverException("Interrupted while waiting for the result of a call");
+                }
+            }
+            if (failure == null) {
+                return result;
+            } else if (failure instanceof InvocationTargetException) {
+                throw (InvocationTargetException)failure;
+            } else if (failure instanceof Error) {
+                throw (Error)failure;
+            }
+            throw (RuntimeException)failure;
+        } finally {
+            trigger.cancel(false);
+            final Future<Object> hedged = hedge.future;
+            if (hedged != null) {
+                // a running hedged call is ignored, it is never interrupted
+                hedged.cancel(false);
+            }
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The hedged call of a primary one running on the caller's thread. The timer starts the hedged call on the executor
+     * of the hedging policy, if the primary call is still running at the configured percentile. The call that
+     * succeeds first wins, the outcome of the other one is discarded.
+     */
+    private final class Hedge implements Runnable, Callable<Object> {
+        private static final int RUNNING = 0;
+        private static final int PRIMARY = 1;
+        private static final int HEDGED = 2;
+
+        private final Call call;
+        private int state;
+        private volatile Future<Object> future;
+        private volatile Object result;
+
+        private Hedge(final Call call) {
+            this.call = call;
+        }
+
+        public synchronized void run() {
+            final Statistics stats = call.stats;
+            if (state == RUNNING && stats.hedged.get() < hedgingPolicy.getMaxHedgeRate() * stats.requests.get()) {
+                stats.hedged.incrementAndGet();
+                future = hedgingPolicy.getExecutor().submit((Callable<Object>)this);
+            }
+        }
+
+        public Object call() throws InvocationTargetException {
+            return execute(new Call(call, this));
+        }
+
+        /**
+         * Claim the win for a successful call.
+         *
+         * @param winner the successful call
+         * @return <code>false</code> if the other call has already won
+         */
+        private synchronized boolean win(final Call winner) {
+            if (state == RUNNING) {
+                if (winner.hedge) {
+                    result = winner.result;
+                    state = HEDGED;
+                } else {
+                    state = PRIMARY;
+                }
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Check whether a call has lost against the other one.
+         *
+         * @param contender the call to check
+         * @return <code>true</code> if the other call has already won
+         */
+        private synchronized boolean isLost(final Call contender) {
+            return state == (contender.hedge ? PRIMARY : HEDGED);
+        }
+
+        /**
+         * Finish the primary call. A failed primary call ends the race, if no hedged call has been started.
+         *
+         * @return the state of the race, {@link #RUNNING} if the hedged call of a failed primary call is pending
+         */
+        private synchronized int finish() {
+            if (state == RUNNING && future == null) {
+                state = PRIMARY;
+            }
+            return state;
+        }
+    }
+
+    private boolean acquireRetry(final Statistics stats) {
+        final RetryBudget budget = retryPolicy.getBudget();
+        if (budget != null && !budget.tryAcquire()) {
+            stats.exhausted.incrementAndGet();
+            return false;
+        }
+        stats.retries.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * The state of a single invocation, that may be resumed for a retry.
+     */
+    private final class Call {
+        private final Object delegate;
+        private final Method method;
+        private final Object[] args;
+        private final Statistics stats;
+        private final boolean sticky;
+        private final int original;
+        private final int first;
+        private final boolean hedge;
+        private final boolean tracking;
+        private Hedge race;
+        private int position;
+        private int attempts;
+        private boolean succeeded;
+        private Object result;
+        private InvocationTargetException failure;
+
+        private Call(final Object delegate, final Method method, final Object[] args) {
+            this.delegate = delegate;
+            this.method = method;
+            this.args = args;
+            stats = getStatistics();
+            original = current;
+            sticky = isSticky(method);
+            first = sticky ? original : select(stats);
+            hedge = false;
+            tracking = isTracking();
+        }
+
+        /**
+         * Construct the hedged call of another one, that starts with the next delegate.
+         */
+        private Call(final Call primary, final Hedge race) {
+            delegate = null;
+            method = primary.method;
+            args = primary.args;
+            stats = primary.stats;
+            original = primary.original;
+            sticky = primary.sticky;
+            first = (primary.first + 1) % delegates.length;
+            hedge = true;
+            tracking = primary.tracking;
+            this.race = race;
+        }
+
+        /**
+         * Record the failure of the first attempt, that has been made without this call.
+         *
+         * @param e the relevant exception of the first attempt
+         * @return <code>false</code> if the call may be retried
+         */
+        private boolean failed(final InvocationTargetException e) {
+            failure = e;
+            position = 1;
+            final int maxAttempts = retryPolicy == null ? delegates.length : retryPolicy.getMaxAttempts();
+            return ++attempts >= maxAttempts || retryPolicy == null && position >= delegates.length;
+        }
+
+        /**
+         * Call the next available delegate.
+         *
+         * @return <code>false</code> if the call failed with the relevant exception and may be retried
+         */
+        private boolean attempt() {
+            final int length = delegates.length;
+            final int maxAttempts = retryPolicy == null ? length : retryPolicy.getMaxAttempts();
+            // without policy every delegate is tried once, otherwise the delegates are cycled
+            for (int refused = 0; refused < length && (retryPolicy != null || position < length); position++) {
+                final int index = (first + position) % length;
+                final CircuitBreaker breaker = breakers == null ? null : breakers[index];
+                if (breaker != null && !breaker.allowRequest()) {
+                    refused++;
+                    continue;
+                }
+                final Object target = position == 0 && sticky && delegate != null ? delegate : delegates[index];
+                position++;
+                final long start;
+                if (tracking) {
+                    stats.inFlight.incrementAndGet(index);
+                    start = System.nanoTime();
+                } else {
+                    start = 0;
+                }
+                boolean recorded = false;
+                try {
+                    result = FailoverInvoker.super.invokeOnDelegate(target, method, args);
+                    succeeded = true;
+                    if (race != null && !race.win(this)) {
+                        recorded = abandon(breaker);
+                        return true;
+                    }
+                    if (breaker != null) {
+                        recorded = true;
+                        breaker.onSuccess();
+                    }
+                    if (sticky && !hedge && index != original) {
+                        failover(original, index);
+                    }
+                    return true;
+                } catch (InvocationTargetException e) {
+                    failure = e;
+                    if (race != null && race.isLost(this)) {
+                        recorded = abandon(breaker);
+                        return true;
+                    } else if (!exceptionClass.isInstance(e.getTargetException())) {
+                        if (breaker != null) {
+                            recorded = true;
+                            breaker.onSuccess();
                         }
-                        hotswap(delegates[current]);
+                        return true;
+                    }
+                    if (breaker != null) {
+                        recorded = true;
+                        breaker.onFailure();
+                    }
+                    return ++attempts >= maxAttempts || retryPolicy == null && position >= length;
+                } finally {
+                    if (breaker != null && !recorded) {
+                        // any other end of the call counts as failure, a probe must never keep the circuit half-open
+                        breaker.onFailure();
+                    }
+                    if (tracking) {
+                        stats.nanos.addAndGet(index, System.nanoTime() - start);
+                        stats.calls.incrementAndGet(index);
+                        stats.inFlight.decrementAndGet(index);
                     }
-                } else {
-                    throw e;
                 }
             }
+            return true;
+        }
+
+        /**
+         * Abandon a call, that lost against its hedged call or vice versa. Its outcome is not recorded.
+         *
+         * @param breaker the circuit breaker of the called delegate (may be <code>null</code>)
+         * @return <code>true</code>
+         */
+        private boolean abandon(final CircuitBreaker breaker) {
+            if (breaker != null) {
+                breaker.onAbandoned();
+            }
+            return true;
+        }
+
+        private Object getResult() throws InvocationTargetException {
+            if (succeeded) {
+                return result;
+            } else if (failure != null) {
+                throw failure;
+            }
+            throw new FailoverException("No delegate available, all circuits are open");
+        }
+    }
+
+    /**
+     * The future of an invocation, that is retried asynchronously. It provides the result of the future returned by
+     * the successful delegate.
+     */
+    private final class ScheduledRetry implements Future<Object>, Runnable {
+        private final Call call;
+        private final ScheduledExecutorService scheduler;
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile Future<?> scheduled;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        private ScheduledRetry(final Call call, final ScheduledExecutorService scheduler) {
+            this.call = call;
+            this.scheduler = scheduler;
+        }
+
+        private ScheduledRetry schedule(final long backoff) {
+            scheduled = scheduler.schedule(this, backoff, TimeUnit.NANOSECONDS);
+            return this;
+        }
+
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            try {
+                if (!call.attempt() && acquireRetry(call.stats)) {
+                    schedule(retryPolicy.getBackoffNanos(call.attempts, FastRandom.nextLong()));
+                    return;
+                }
+            } catch (final Throwable e) {
+                error = e;
+            }
+            latch.countDown();
+        }
+
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            if (latch.getCount() == 0) {
+                return false;
+            }
+            cancelled = true;
+            final Future<?> future = scheduled;
+            if (future != null) {
+                future.cancel(mayInterruptIfRunning);
+            }
+            latch.countDown();
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return latch.getCount() == 0;
+        }
+
+        public Object get() throws InterruptedException, ExecutionException {
+            latch.await();
+            final Future<?> future = getFuture();
+            return future == null ? null : future.get();
+        }
+
+        public Object get(final long timeout, final TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+            if (!latch.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            final Future<?> future = getFuture();
+            return future == null ? null : future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        private Future<?> getFuture() throws ExecutionException {
+            if (cancelled) {
+                throw new CancellationException();
+            } else if (error != null) {
+                throw new ExecutionException(error);
+            }
+            try {
+                return (Future<?>)call.getResult();
+            } catch (final InvocationTargetException e) {
+                throw new ExecutionException(e.getTargetException());
+            } catch (final FailoverException e) {
+                throw new ExecutionException(e);
+            }
+        }
+    }
+
+    private Statistics getStatistics() {
+        Statistics current = statistics;
+        if (current == null) {
+            synchronized (this) {
+                if (statistics == null) {
+                    statistics = new Statistics(delegates.length);
+                }
+                current = statistics;
+            }
+        }
+        return current;
+    }
+
+    private int select(final Statistics stats) {
+        final int length = delegates.length;
+        if (length == 1) {
+            return 0;
+        }
+        switch (balancingMode) {
+        case ROUND_ROBIN:
+            return (stats.next.getAndIncrement() & Integer.MAX_VALUE) % length;
+        case LEAST_IN_FLIGHT:
+            // start the scan at a rotating offset to spread the ties
+            final int offset = (stats.next.getAndIncrement() & Integer.MAX_VALUE) % length;
+            int best = offset;
+            int least = Integer.MAX_VALUE;
+            for (int i = 0; i < length; i++) {
+                final int index = (offset + i) % length;
+                final int running = stats.inFlight.get(index);
+                if (running < least) {
+                    least = running;
+                    best = index;
+                }
+            }
+            return best;
+        default:
+            final long random = FastRandom.nextLong();
+            final int a = (int)((random >>> 1) % length);
+            final int b = (a + 1 + (int)((random >>> 33) % (length - 1))) % length;
+            final int runningA = stats.inFlight.get(a);
+            final int runningB = stats.inFlight.get(b);
+            if (runningA != runningB) {
+                return runningA < runningB ? a : b;
+            }
+            return stats.meanLatency(a) <= stats.meanLatency(b) ? a : b;
+        }
+    }
+
+    private synchronized void failover(final int original, final int index) {
+        if (current == original) {
+            current = index;
+            hotswap(delegates[index]);
+        }
+    }
+
+    private int indexOf(final Object delegate) {
+        for (int i = 0; i < delegates.length; i++) {
+            if (delegates[i] == delegate) {
+                return i;
+            }
         }
-        return result;
+        return -1;
     }
 }
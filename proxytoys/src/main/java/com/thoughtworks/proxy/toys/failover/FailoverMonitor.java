@@ -0,0 +1,73 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.failover;
+
+/**
+ * Interface implemented additionally by all failover proxies to monitor the delegates.
+ *
+ * @see FailoverInvoker
+ * @since 1.1
+ */
+public interface FailoverMonitor {
+
+    /**
+     * Retrieve the state of the circuit breaker of a delegate.
+     *
+     * @param delegate the delegate
+     * @return the state or <code>null</code> if the delegate is unknown or the proxy has no circuit breakers
+     * @since 1.1
+     */
+    CircuitState getCircuitState(Object delegate);
+
+    /**
+     * Retrieve the number of running calls of a delegate. The calls are only tracked with
+     * {@link BalancingMode#LEAST_IN_FLIGHT} or {@link BalancingMode#POWER_OF_TWO_CHOICES}.
+     *
+     * @param delegate the delegate
+     * @return the number of calls or 0 if the delegate is unknown
+     * @since 1.1
+     */
+    int getInFlightCalls(Object delegate);
+
+    /**
+     * Retrieve the mean latency of the completed calls of a delegate. The latencies are only tracked with
+     * {@link BalancingMode#LEAST_IN_FLIGHT} or {@link BalancingMode#POWER_OF_TWO_CHOICES}.
+     *
+     * @param delegate the delegate
+     * @return the latency in nanoseconds or 0 if the delegate is unknown or has not been called yet
+     * @since 1.1
+     */
+    long getMeanLatencyNanos(Object delegate);
+
+    /**
+     * Retrieve the number of retries of the proxy.
+     *
+     * @return the number of retries
+     * @since 1.1
+     */
+    long getRetries();
+
+    /**
+     * Retrieve the number of retries, that were suppressed by an exhausted retry budget.
+     *
+     * @return the number of suppressed retries
+     * @since 1.1
+     */
+    long getExhaustedRetryBudgets();
+
+    /**
+     * Retrieve the number of hedged calls of the proxy.
+     *
+     * @return the number of hedged calls
+     * @since 1.1
+     */
+    long getHedgedCalls();
+}
@@ -0,0 +1,103 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.failover;
+
+import java.io.Serializable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The hedging policy of a failover proxy. As soon as a call takes longer than the configured percentile of the
+ * latencies recorded for its method, a duplicate call is issued to the next delegate. The first result wins, the other
+ * call is cancelled. The rate of the hedged calls is capped to bound the additional load.
+ * <p>
+ * The primary call runs on the caller's thread, only the hedged call runs on the executor. No call is ever
+ * interrupted, the caller returns the result of a winning hedged call as soon as the primary delegate returns. The
+ * executor is not serialized, a deserialized proxy does not hedge.
+ * </p>
+ *
+ * @see FailoverInvoker
+ * @since 1.1
+ */
+public class HedgingPolicy implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final double percentile;
+    private final double maxHedgeRate;
+    private final int minSamples;
+    private final transient ExecutorService executor;
+
+    /**
+     * Construct a HedgingPolicy.
+     *
+     * @param percentile   the percentile of the latencies triggering the hedged call, a value between 0 and 1
+     * @param maxHedgeRate the maximum fraction of the calls that may be hedged, a value between 0 and 1
+     * @param minSamples   the number of recorded latencies of a method before its calls are hedged
+     * @param executor     the executor running the hedged calls
+     * @throws IllegalArgumentException if the percentile, the rate or the number of samples are out of range
+     * @since 1.1
+     */
+    public HedgingPolicy(
+            final double percentile, final double maxHedgeRate, final int minSamples, final ExecutorService executor) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Percentile out of range: " + percentile);
+        }
+        if (maxHedgeRate < 0 || maxHedgeRate > 1) {
+            throw new IllegalArgumentException("Hedge rate out of range: " + maxHedgeRate);
+        }
+        if (minSamples < 0) {
+            throw new IllegalArgumentException("Number of samples must not be negative: " + minSamples);
+        }
+        this.percentile = percentile;
+        this.maxHedgeRate = maxHedgeRate;
+        this.minSamples = minSamples;
+        this.executor = executor;
+    }
+
+    /**
+     * Retrieve the percentile of the latencies triggering the hedged call.
+     *
+     * @return the percentile
+     * @since 1.1
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * Retrieve the maximum fraction of the calls that may be hedged.
+     *
+     * @return the rate
+     * @since 1.1
+     */
+    public double getMaxHedgeRate() {
+        return maxHedgeRate;
+    }
+
+    /**
+     * Retrieve the number of recorded latencies of a method before its calls are hedged.
+     *
+     * @return the number of samples
+     * @since 1.1
+     */
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    /**
+     * Retrieve the executor running the hedged calls.
+     *
+     * @return the executor or <code>null</code> after deserialization
+     * @since 1.1
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+}
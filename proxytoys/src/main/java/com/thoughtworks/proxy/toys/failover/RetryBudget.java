@@ -0,0 +1,107 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.failover;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket limiting the retries of failover proxies. Every retry consumes a token, the bucket is refilled at a
+ * constant rate up to its capacity. An instance can be shared by several proxies to limit the total retry load, e.g.
+ * on a backend that is already in trouble.
+ * <p>
+ * The bucket is lock-free. The tokens are kept in millionths to support refill rates below one token per second.
+ * </p>
+ *
+ * @see RetryPolicy
+ * @since 1.1
+ */
+public class RetryBudget implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final long SCALE = 1000000;
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private final AtomicLong available;
+    private final AtomicLong refilledAt;
+
+    /**
+     * Construct a RetryBudget. The bucket starts filled.
+     *
+     * @param capacity        the maximum number of tokens
+     * @param tokensPerSecond the refill rate
+     * @throws IllegalArgumentException if the capacity is not positive or the rate is negative
+     * @since 1.1
+     */
+    public RetryBudget(final int capacity, final double tokensPerSecond) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (tokensPerSecond < 0) {
+            throw new IllegalArgumentException("Refill rate must not be negative: " + tokensPerSecond);
+        }
+        this.capacity = capacity * SCALE;
+        this.tokensPerNano = tokensPerSecond * SCALE / 1000000000.0;
+        available = new AtomicLong(this.capacity);
+        refilledAt = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Try to consume a token for a retry.
+     *
+     * @return <code>true</code> if the retry is allowed
+     * @since 1.1
+     */
+    public boolean tryAcquire() {
+        refill();
+        for (;;) {
+            final long tokens = available.get();
+            if (tokens < SCALE) {
+                return false;
+            }
+            if (available.compareAndSet(tokens, tokens - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Retrieve the number of available tokens.
+     *
+     * @return the number of complete tokens
+     * @since 1.1
+     */
+    public int getAvailableTokens() {
+        refill();
+        return (int)(available.get() / SCALE);
+    }
+
+    private void refill() {
+        final long last = refilledAt.get();
+        final long now = System.nanoTime();
+        final long elapsed = now - last;
+        if (elapsed <= 0 || !refilledAt.compareAndSet(last, now)) {
+            // another caller refills concurrently
+            return;
+        }
+        final long tokens = elapsed * tokensPerNano >= capacity ? capacity : (long)(elapsed * tokensPerNano);
+        if (tokens == 0) {
+            return;
+        }
+        for (;;) {
+            final long current = available.get();
+            final long next = Math.min(capacity, current + tokens);
+            if (current == next || available.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+}
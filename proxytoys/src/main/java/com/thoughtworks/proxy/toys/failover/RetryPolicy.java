@@ -0,0 +1,116 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.failover;
+
+import java.io.Serializable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The retry policy of a failover proxy. Every call of a delegate after a relevant failure is a retry, that is delayed
+ * with exponential backoff and may be limited by a shared {@link RetryBudget}. The delay doubles with every retry up
+ * to the maximum, half of it is randomized to avoid retries of many callers in lock step.
+ * <p>
+ * With a scheduler the retries of a method declaring {@link java.util.concurrent.Future} as return type are executed
+ * asynchronously, the caller receives immediately a future of the final result. Other methods, including those
+ * returning a subtype of Future, block the caller during the backoff. The scheduler is not serialized.
+ * </p>
+ *
+ * @see FailoverInvoker
+ * @since 1.1
+ */
+public class RetryPolicy implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int maxAttempts;
+    private final long initialNanos;
+    private final long maxNanos;
+    private final RetryBudget budget;
+    private final transient ScheduledExecutorService scheduler;
+
+    /**
+     * Construct a RetryPolicy.
+     *
+     * @param maxAttempts    the maximum number of delegate calls for a single invocation including the first one
+     * @param initialBackoff the backoff before the first retry
+     * @param maxBackoff     the maximum backoff
+     * @param unit           the time unit of the backoff values
+     * @param budget         the budget limiting the retries (may be <code>null</code>)
+     * @param scheduler      the scheduler for asynchronous retries (may be <code>null</code>)
+     * @throws IllegalArgumentException if the number of attempts is not positive or a backoff is negative
+     * @since 1.1
+     */
+    public RetryPolicy(
+            final int maxAttempts, final long initialBackoff, final long maxBackoff, final TimeUnit unit,
+            final RetryBudget budget, final ScheduledExecutorService scheduler) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Number of attempts must be positive: " + maxAttempts);
+        }
+        if (initialBackoff < 0 || maxBackoff < initialBackoff) {
+            throw new IllegalArgumentException("Invalid backoff range: " + initialBackoff + " - " + maxBackoff);
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialNanos = unit.toNanos(initialBackoff);
+        this.maxNanos = unit.toNanos(maxBackoff);
+        this.budget = budget;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Retrieve the maximum number of delegate calls for a single invocation.
+     *
+     * @return the number of attempts
+     * @since 1.1
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Retrieve the retry budget.
+     *
+     * @return the budget or <code>null</code>
+     * @since 1.1
+     */
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Retrieve the scheduler for asynchronous retries.
+     *
+     * @return the scheduler or <code>null</code>
+     * @since 1.1
+     */
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Calculate the backoff before a retry.
+     *
+     * @param retry  the number of the retry starting with 1
+     * @param random a random value for the jitter
+     * @return the backoff in nanoseconds
+     * @since 1.1
+     */
+    public long getBackoffNanos(final int retry, final long random) {
+        long backoff = initialNanos;
+        for (int i = 1; i < retry && backoff < maxNanos; i++) {
+            backoff <<= 1;
+        }
+        if (backoff > maxNanos || backoff < 0) {
+            backoff = maxNanos;
+        }
+        final long half = backoff >>> 1;
+        return half == 0 ? backoff : backoff - half + (random >>> 1) % (half + 1);
+    }
+}
@@ -11,11 +11,14 @@
 package com.thoughtworks.proxy.toys.future;
 
 import java.util.Set;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
 
 import com.thoughtworks.proxy.ProxyFactory;
 import com.thoughtworks.proxy.factory.StandardProxyFactory;
+import com.thoughtworks.proxy.kit.ArgumentsKeyExtractor;
+import com.thoughtworks.proxy.kit.KeyExtractor;
 import com.thoughtworks.proxy.kit.ReflectionUtils;
+import com.thoughtworks.proxy.kit.RejectionPolicy;
 
 
 /**
@@ -35,6 +38,11 @@ public class Future<T> {
 
     private Class<?>[] types;
     private Object target;
+    private ExecutorService executor;
+    private boolean blocking;
+    private KeyExtractor keyExtractor;
+    private int maxPendingCalls;
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.BLOCK;
 
     private Future(Class<?>[] types) {
         this.types = types;
@@ -104,6 +112,74 @@ public class Future<T> {
             this.future = future;
         }
 
+        /**
+         * Defines the executor running the asynchronous calls. The executor is not shut down by the proxy. Without an
+         * explicit executor the {@linkplain FutureExecutor#getShared() shared executor} is used.
+         * 
+         * @param executor the executor
+         * @return the factory that will run the calls with the given executor
+         * @since 1.1
+         */
+        public FutureBuild<T> executing(ExecutorService executor) {
+            future.executor = executor;
+            return this;
+        }
+
+        /**
+         * Return lightweight result proxies, that block on their first call until the result is available. The
+         * default result proxies return values of a null object until the result is available.
+         * 
+         * @return the factory that will create blocking result proxies
+         * @see FutureResultInvoker
+         * @since 1.1
+         */
+        public FutureBuild<T> blocking() {
+            future.blocking = true;
+            return this;
+        }
+
+        /**
+         * Coalesce concurrent calls with equal method and arguments into a single execution.
+         * 
+         * @return the factory that will coalesce concurrent calls
+         * @see ArgumentsKeyExtractor
+         * @since 1.1
+         */
+        public FutureBuild<T> coalescing() {
+            return coalescing(new ArgumentsKeyExtractor());
+        }
+
+        /**
+         * Coalesce concurrent calls with equal keys into a single execution. All callers receive the same result.
+         * 
+         * @param keyExtractor the extractor for the key of a call
+         * @return the factory that will coalesce concurrent calls
+         * @since 1.1
+         */
+        public FutureBuild<T> coalescing(KeyExtractor keyExtractor) {
+            future.keyExtractor = keyExtractor;
+            return this;
+        }
+
+        /**
+         * Limit the number of pending calls. A call exceeding the limit is handled according to the rejection policy.
+         * 
+         * @param maxPendingCalls the maximum number of pending calls
+         * @param rejectionPolicy the policy for a call exceeding the limit
+         * @return the factory that will limit the pending calls
+         * @throws IllegalArgumentException if the maximum is not positive
+         * @since 1.1
+         */
+        public FutureBuild<T> bounded(int maxPendingCalls, RejectionPolicy rejectionPolicy) {
+            if (maxPendingCalls <= 0) {
+                throw new IllegalArgumentException("Maximum number of pending calls must be positive: "
+                    + maxPendingCalls);
+            }
+            future.maxPendingCalls = maxPendingCalls;
+            future.rejectionPolicy = rejectionPolicy;
+            return this;
+        }
+
         public T build() {
             return build(new StandardProxyFactory());
         }
@@ -113,7 +189,7 @@ public class Future<T> {
          * given types. The return values of the called methods must be non-final object types.
          * 
          * @param factory the {@link ProxyFactory} to use.
-         * @return the created proxy implementing the <tt>types</tt> and {@link com.thoughtworks.proxy.toys.hotswap.Swappable}
+         * @return the created proxy implementing the <tt>types</tt> and {@link FutureMonitor}
          * @since 1.0
          */
         public T build(ProxyFactory factory) {
@@ -127,8 +203,14 @@ public class Future<T> {
                     classes.toArray(future.types);
                 }
             }
-            FutureInvoker invoker = new FutureInvoker(future.target, factory, Executors.newCachedThreadPool());
-            return factory.<T>createProxy(invoker, future.types);
+            ExecutorService executor = future.executor != null ? future.executor : FutureExecutor.getShared();
+            FutureInvoker invoker = new FutureInvoker(
+                future.target, factory, executor, future.blocking, future.keyExtractor, future.maxPendingCalls,
+                future.rejectionPolicy);
+            Class<?>[] types = new Class[future.types.length + 1];
+            System.arraycopy(future.types, 0, types, 0, future.types.length);
+            types[future.types.length] = FutureMonitor.class;
+            return factory.<T>createProxy(invoker, types);
         }
     }
 }
\ No newline at end of file
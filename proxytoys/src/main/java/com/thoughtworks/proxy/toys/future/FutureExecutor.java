@@ -0,0 +1,73 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.future;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * A bounded executor for the asynchronous calls of {@linkplain Future future proxies}. The executor runs a fixed number
+ * of daemon threads, additional calls are queued. A shared instance is used by all proxies that are built without
+ * an explicit executor.
+ *
+ * @since 1.1
+ */
+public class FutureExecutor extends ThreadPoolExecutor {
+    private static final AtomicInteger poolNumber = new AtomicInteger();
+    private static FutureExecutor shared;
+
+    /**
+     * Construct a FutureExecutor.
+     *
+     * @param threads the number of threads
+     * @since 1.1
+     */
+    public FutureExecutor(final int threads) {
+        super(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            private final String prefix = "proxytoys-future-" + poolNumber.incrementAndGet() + "-";
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Retrieve the shared executor. The executor has four threads per available processor. A new shared instance is
+     * created, if the previous one has been shut down.
+     *
+     * @return the shared executor
+     * @since 1.1
+     */
+    public static synchronized FutureExecutor getShared() {
+        if (shared == null || shared.isShutdown()) {
+            shared = new FutureExecutor(Runtime.getRuntime().availableProcessors() * 4);
+        }
+        return shared;
+    }
+
+    /**
+     * Retrieve the number of queued calls waiting for a thread.
+     *
+     * @return the queue depth
+     * @since 1.1
+     */
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+}
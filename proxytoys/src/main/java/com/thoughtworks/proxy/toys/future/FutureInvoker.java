@@ -13,10 +13,19 @@ package com.thoughtworks.proxy.toys.future;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.thoughtworks.proxy.Invoker;
 import com.thoughtworks.proxy.ProxyFactory;
+import com.thoughtworks.proxy.kit.KeyExtractor;
+import com.thoughtworks.proxy.kit.RejectionPolicy;
 import com.thoughtworks.proxy.toys.hotswap.HotSwapping;
 import com.thoughtworks.proxy.toys.hotswap.Swappable;
 import com.thoughtworks.proxy.toys.nullobject.Null;
@@ -28,6 +37,19 @@ import com.thoughtworks.proxy.toys.nullobject.Null;
  * {@linkplain HotSwapping hot swapped}. This result proxy contains first a {@linkplain Null
  * null object} and will automatically replaced later on when the asynchronous method call
  * returns the correct result.
+ * <p>
+ * In blocking mode the result proxy uses a {@link FutureResultInvoker}, that blocks on the first call until the
+ * asynchronous method has returned. If the result is already available or the return type cannot be proxied, the
+ * invoker waits for the result and returns it directly.
+ * </p>
+ * <p>
+ * A coalescing invoker executes concurrent calls with equal keys only once, all callers receive the same result. The
+ * execution is forgotten as soon as it is done, a later call is executed again.
+ * </p>
+ * <p>
+ * A bounded invoker limits the number of pending calls and applies its {@link RejectionPolicy} to any further call.
+ * The proxy implements additionally {@link FutureMonitor} to observe the backlog.
+ * </p>
  * 
  * @author Aslak Helles&oslash;y
  * @since 1.0
@@ -37,6 +59,14 @@ public class FutureInvoker implements Invoker {
     private final Object target;
     private final ProxyFactory proxyFactory;
     private final ExecutorService executor;
+    private final boolean blocking;
+    private final KeyExtractor keyExtractor;
+    private final ConcurrentMap<Object, Flight> flights;
+    private final int maxPendingCalls;
+    private final RejectionPolicy rejectionPolicy;
+    private final Semaphore permits;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
 
     /**
      * Construct the invoker.
@@ -48,28 +78,191 @@ public class FutureInvoker implements Invoker {
      * @since 1.0
      */
     public FutureInvoker(Object target, ProxyFactory proxyFactory, ExecutorService executor) {
+        this(target, proxyFactory, executor, false);
+    }
+
+    /**
+     * Construct the invoker.
+     * 
+     * @param target the instance that will have its methods called asynchronously
+     * @param proxyFactory the proxy factory used to create the proxy for the target instance
+     *            and all return types of the called methods
+     * @param executor the executor used to call the method asynchronously
+     * @param blocking <code>true</code> if the result proxy blocks until the result is available
+     * @since 1.1
+     */
+    public FutureInvoker(Object target, ProxyFactory proxyFactory, ExecutorService executor, boolean blocking) {
+        this(target, proxyFactory, executor, blocking, null);
+    }
+
+    /**
+     * Construct the invoker.
+     * 
+     * @param target the instance that will have its methods called asynchronously
+     * @param proxyFactory the proxy factory used to create the proxy for the target instance
+     *            and all return types of the called methods
+     * @param executor the executor used to call the method asynchronously
+     * @param blocking <code>true</code> if the result proxy blocks until the result is available
+     * @param keyExtractor the extractor for the key of coalesced calls (may be <code>null</code> to execute every call)
+     * @since 1.1
+     */
+    public FutureInvoker(
+            Object target, ProxyFactory proxyFactory, ExecutorService executor, boolean blocking,
+            KeyExtractor keyExtractor) {
+        this(target, proxyFactory, executor, blocking, keyExtractor, 0, RejectionPolicy.BLOCK);
+    }
+
+    /**
+     * Construct the invoker.
+     * 
+     * @param target the instance that will have its methods called asynchronously
+     * @param proxyFactory the proxy factory used to create the proxy for the target instance
+     *            and all return types of the called methods
+     * @param executor the executor used to call the method asynchronously
+     * @param blocking <code>true</code> if the result proxy blocks until the result is available
+     * @param keyExtractor the extractor for the key of coalesced calls (may be <code>null</code> to execute every call)
+     * @param maxPendingCalls the maximum number of pending calls, 0 for no limit
+     * @param rejectionPolicy the policy for a call exceeding the maximum number of pending calls
+     * @since 1.1
+     */
+    public FutureInvoker(
+            Object target, ProxyFactory proxyFactory, ExecutorService executor, boolean blocking,
+            KeyExtractor keyExtractor, int maxPendingCalls, RejectionPolicy rejectionPolicy) {
         this.target = target;
         this.proxyFactory = proxyFactory;
         this.executor = executor;
+        this.blocking = blocking;
+        this.keyExtractor = keyExtractor;
+        this.flights = keyExtractor == null ? null : new ConcurrentHashMap<Object, Flight>();
+        this.maxPendingCalls = maxPendingCalls;
+        this.rejectionPolicy = rejectionPolicy;
+        this.permits = maxPendingCalls > 0 ? new Semaphore(maxPendingCalls) : null;
     }
 
     public Object invoke(Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == FutureMonitor.class) {
+            if (method.getName().equals("getPendingCalls")) {
+                return pending.get();
+            }
+            return rejected.get();
+        }
         Class<?> returnType = method.getReturnType();
-        Object result = null;
-        if (!returnType.equals(void.class)) {
-            Object nullResult = Null.proxy(returnType).build(proxyFactory);
-            final Swappable swappableResult = Swappable.class.cast(HotSwapping.proxy(returnType).with(nullResult).build(proxyFactory));
-            result = swappableResult;
-            final Callable<Swappable> callable = new Callable<Swappable>() {
-                public Swappable call() throws IllegalAccessException, InvocationTargetException {
+        if (returnType.equals(void.class)) {
+            return null;
+        }
+        Object key = null;
+        if (keyExtractor != null) {
+            key = keyExtractor.getKey(method, args);
+            Flight flight = flights.get(key);
+            if (flight != null) {
+                return getResult(flight);
+            }
+        }
+        if (!acquire()) {
+            rejected.incrementAndGet();
+            switch (rejectionPolicy) {
+            case FAIL_FAST:
+                throw new RejectedExecutionException("Too many pending calls: " + maxPendingCalls);
+            case NULL_RESULT:
+                return Null.proxy(returnType).build(proxyFactory);
+            default:
+                Flight flight = new Flight(method, args, null, false);
+                flight.run();
+                return getResult(flight);
+            }
+        }
+        Flight flight = new Flight(method, args, key, true);
+        if (key != null) {
+            Flight concurrentFlight = flights.putIfAbsent(key, flight);
+            if (concurrentFlight != null) {
+                release();
+                return getResult(concurrentFlight);
+            }
+        }
+        pending.incrementAndGet();
+        try {
+            executor.execute(flight);
+        } catch (RejectedExecutionException e) {
+            flight.cancel(false);
+            throw e;
+        }
+        return getResult(flight);
+    }
+
+    private Object getResult(Flight flight) throws Throwable {
+        if (flight.placeholder == null || blocking && flight.isDone()) {
+            return FutureResultInvoker.getResult(flight);
+        }
+        return flight.placeholder;
+    }
+
+    private boolean acquire() throws InterruptedException {
+        if (permits == null) {
+            return true;
+        } else if (rejectionPolicy == RejectionPolicy.BLOCK) {
+            permits.acquire();
+            return true;
+        }
+        return permits.tryAcquire();
+    }
+
+    private void release() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * A single execution of a call. Coalesced calls share the execution and its result placeholder.
+     */
+    private final class Flight extends FutureTask<Object> {
+        private final Object key;
+        private final Object placeholder;
+        private final boolean submitted;
+
+        private Flight(final Method method, final Object[] args, final Object key, final boolean submitted) {
+            this(method, args, key, submitted, blocking ? null : createSwappable(method.getReturnType()));
+        }
+
+        private Flight(
+                final Method method, final Object[] args, final Object key, final boolean submitted,
+                final Swappable swappable) {
+            super(new Callable<Object>() {
+                public Object call() throws IllegalAccessException, InvocationTargetException {
                     Object invocationResult = method.invoke(target, args);
-                    swappableResult.hotswap(invocationResult);
-                    return swappableResult;
+                    if (swappable != null) {
+                        swappable.hotswap(invocationResult);
+                    }
+                    return invocationResult;
                 }
-            };
-            executor.submit(callable);
+            });
+            this.key = key;
+            this.submitted = submitted;
+            Class<?> returnType = method.getReturnType();
+            if (swappable != null) {
+                placeholder = swappable;
+            } else if (returnType.isPrimitive() || !proxyFactory.canProxy(returnType)) {
+                placeholder = null;
+            } else {
+                placeholder = proxyFactory.createProxy(new FutureResultInvoker(this), returnType);
+            }
         }
 
-        return result;
+        @Override
+        protected void done() {
+            if (key != null) {
+                // remove only this execution, a later call with the same key may have started a new one
+                flights.remove(key, this);
+            }
+            if (submitted) {
+                pending.decrementAndGet();
+                release();
+            }
+        }
+    }
+
+    private Swappable createSwappable(Class<?> returnType) {
+        Object nullResult = Null.proxy(returnType).build(proxyFactory);
+        return Swappable.class.cast(HotSwapping.proxy(returnType).with(nullResult).build(proxyFactory));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.future;
+
+/**
+ * Interface implemented additionally by all future proxies to monitor the backlog of the asynchronous calls.
+ *
+ * @see FutureInvoker
+ * @since 1.1
+ */
+public interface FutureMonitor {
+
+    /**
+     * Retrieve the number of calls, that have been submitted, but have not yet returned.
+     *
+     * @return the number of pending calls
+     * @since 1.1
+     */
+    int getPendingCalls();
+
+    /**
+     * Retrieve the number of calls, that exceeded the maximum number of pending calls.
+     *
+     * @return the number of rejected calls
+     * @since 1.1
+     */
+    long getRejectedCalls();
+}
@@ -0,0 +1,85 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.future;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import com.thoughtworks.proxy.Invoker;
+import com.thoughtworks.proxy.kit.ReflectionUtils;
+
+
+/**
+ * {@link com.thoughtworks.proxy.Invoker Invoker} for the result of an asynchronous call. The first call on the
+ * result proxy blocks until the asynchronous call has returned, then all calls are delegated to the returned value. An
+ * exception of the asynchronous call is thrown by any call on the result proxy.
+ * <p>
+ * Compared to the default result of a {@link FutureInvoker}, that combines a null object with a hot swapping proxy,
+ * this invoker requires a single proxy per call and no synchronization after the value is available.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class FutureResultInvoker implements Invoker {
+    private static final long serialVersionUID = 1L;
+    private final Future<?> future;
+
+    /**
+     * Construct the invoker.
+     *
+     * @param future the future of the asynchronous call
+     * @since 1.1
+     */
+    public FutureResultInvoker(Future<?> future) {
+        this.future = future;
+    }
+
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Object value = getResult(future);
+        if (value == null) {
+            if (method.equals(ReflectionUtils.equals)) {
+                return args[0] == proxy;
+            } else if (method.equals(ReflectionUtils.hashCode)) {
+                return System.identityHashCode(proxy);
+            } else if (method.equals(ReflectionUtils.toString)) {
+                return "null";
+            }
+            throw new NullPointerException("Asynchronous call returned null for " + method.getName());
+        }
+        try {
+            return method.invoke(value, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * Wait for the result of an asynchronous call.
+     *
+     * @param future the future of the call
+     * @return the result
+     * @throws Throwable the exception of the asynchronous call
+     */
+    static Object getResult(Future<?> future) throws Throwable {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the result of an asynchronous call");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof InvocationTargetException
+                ? ((InvocationTargetException)cause).getTargetException() : cause;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.hotswap;
+
+import java.io.Serializable;
+
+/**
+ * Snapshot of the call statistics of a single delegate of a weighted hot swapping proxy.
+ *
+ * @see WeightedSwappable#getStatistics(Object)
+ * @since 1.1
+ */
+public class DelegateStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int weight;
+    private final long calls;
+    private final long errors;
+    private final long totalNanos;
+    private final int inFlightCalls;
+
+    /**
+     * Construct a DelegateStatistics.
+     *
+     * @param weight        the current weight of the delegate
+     * @param calls         the number of finished calls
+     * @param errors        the number of calls that have thrown
+     * @param totalNanos    the accumulated latency of the finished calls in nanoseconds
+     * @param inFlightCalls the number of calls running currently
+     * @since 1.1
+     */
+    public DelegateStatistics(
+            final int weight, final long calls, final long errors, final long totalNanos, final int inFlightCalls) {
+        this.weight = weight;
+        this.calls = calls;
+        this.errors = errors;
+        this.totalNanos = totalNanos;
+        this.inFlightCalls = inFlightCalls;
+    }
+
+    /**
+     * @return the current weight of the delegate
+     * @since 1.1
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return the number of finished calls
+     * @since 1.1
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * @return the number of calls that have thrown
+     * @since 1.1
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return the accumulated latency of the finished calls in nanoseconds
+     * @since 1.1
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return the mean latency of the finished calls in nanoseconds or 0 without any call
+     * @since 1.1
+     */
+    public long getMeanNanos() {
+        return calls == 0 ? 0 : totalNanos / calls;
+    }
+
+    /**
+     * @return the ratio of failed calls or 0 without any call
+     * @since 1.1
+     */
+    public double getErrorRate() {
+        return calls == 0 ? 0 : (double)errors / calls;
+    }
+
+    /**
+     * @return the number of calls running currently
+     * @since 1.1
+     */
+    public int getInFlightCalls() {
+        return inFlightCalls;
+    }
+
+    @Override
+    public String toString() {
+        return "weight=" + weight + ", calls=" + calls + ", errors=" + errors + ", meanNanos=" + getMeanNanos()
+            + ", inFlight=" + inFlightCalls;
+    }
+}
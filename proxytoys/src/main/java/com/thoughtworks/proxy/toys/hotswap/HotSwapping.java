@@ -38,6 +38,11 @@ public class HotSwapping<T> {
     private Object instance;
     private Class<?>[] types;
     private DelegationMode delegationMode;
+    private Object[] weightedInstances;
+    private int[] weights;
+    private WarmUp warmUp;
+    private int replaySamples;
+    private SwapListener[] listeners;
 
     private HotSwapping(final Class<T> primaryType, Class<?>... types) {
         this.types = ReflectionUtils.makeTypesArray(primaryType, types);
@@ -77,8 +82,36 @@ public class HotSwapping<T> {
      * @since 1.0
      */
     private T build(final ProxyFactory factory) {
+        if (weights != null) {
+            return new WeightedHotSwappingInvoker<T>(
+                types, factory, weightedInstances, weights, delegationMode, warmUp, replaySamples, listeners).proxy();
+        }
         final ObjectReference<Object> delegateReference = new SimpleReference<Object>(instance);
-        return new HotSwappingInvoker<T>(types, factory, delegateReference, delegationMode).proxy();
+        return new HotSwappingInvoker<T>(
+            types, factory, delegateReference, delegationMode, warmUp, replaySamples, listeners).proxy();
+    }
+
+    private void add(final Object instance, final int weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight must be positive: " + weight);
+        }
+        final int length = weights == null ? 0 : weights.length;
+        final Object[] newInstances = new Object[length + 1];
+        final int[] newWeights = new int[length + 1];
+        if (length > 0) {
+            System.arraycopy(weightedInstances, 0, newInstances, 0, length);
+            System.arraycopy(weights, 0, newWeights, 0, length);
+        }
+        newInstances[length] = instance;
+        newWeights[length] = weight;
+        weightedInstances = newInstances;
+        weights = newWeights;
+        for (Class<?> type : types) {
+            if (!type.isInstance(instance)) {
+                delegationMode = SIGNATURE;
+                break;
+            }
+        }
     }
 
     public static class HotSwappingWith<T> {
@@ -114,6 +147,48 @@ public class HotSwapping<T> {
             super(hotswapping);
         }
 
+        /**
+         * Warm up any incoming delegate of a hot swap with this routine before it is installed.
+         *
+         * @param warmUp the routine
+         * @return the factory that will proxy instances of the supplied type.
+         * @since 1.1
+         */
+        public HotSwappingBuildOrMode<T> warmUp(WarmUp warmUp) {
+            hotswapping.warmUp = warmUp;
+            return this;
+        }
+
+        /**
+         * Record a sample of the recent calls and replay them on any incoming delegate of a hot swap without explicit
+         * warm up routine before it is installed. The first calls are recorded until the samples are filled, afterwards
+         * only every 16th call. Note, that the replayed calls must not have any side effects.
+         *
+         * @param samples the number of recorded calls
+         * @return the factory that will proxy instances of the supplied type.
+         * @throws IllegalArgumentException if the number of samples is not positive
+         * @since 1.1
+         */
+        public HotSwappingBuildOrMode<T> replaying(int samples) {
+            if (samples <= 0) {
+                throw new IllegalArgumentException("Number of samples must be positive: " + samples);
+            }
+            hotswapping.replaySamples = samples;
+            return this;
+        }
+
+        /**
+         * Notify these listeners before and after any hot swap.
+         *
+         * @param listeners the listeners
+         * @return the factory that will proxy instances of the supplied type.
+         * @since 1.1
+         */
+        public HotSwappingBuildOrMode<T> notifying(SwapListener... listeners) {
+            hotswapping.listeners = listeners;
+            return this;
+        }
+
         /**
          * Forces a particular delegation mode to be used.
          *
@@ -127,6 +202,56 @@ public class HotSwapping<T> {
             hotswapping.delegationMode = delegationMode;
             return new HotSwappingBuild<T>(hotswapping);
         }
+
+        /**
+         * Routes the calls to several delegates according their relative weights. The object given to
+         * {@link HotSwappingWith#with(Object)} is the first delegate with the given weight, further delegates are added
+         * with {@link HotSwappingWeightedOrMode#and(Object, int)}. The proxy will implement {@link WeightedSwappable}.
+         *
+         * @param weight the relative weight of the first delegate
+         * @return the factory that will proxy instances of the supplied type.
+         * @throws IllegalArgumentException if the weight is not positive
+         * @see WeightedHotSwappingInvoker
+         * @since 1.1
+         */
+        public HotSwappingWeightedOrMode<T> weighted(int weight) {
+            hotswapping.add(hotswapping.instance, weight);
+            return new HotSwappingWeightedOrMode<T>(hotswapping);
+        }
+    }
+
+    public static class HotSwappingWeightedOrMode<T> extends HotSwappingBuild<T> {
+        public HotSwappingWeightedOrMode(HotSwapping<T> hotswapping) {
+            super(hotswapping);
+        }
+
+        /**
+         * Adds a further delegate to the route.
+         *
+         * @param instance the additional delegate
+         * @param weight the relative weight of the delegate
+         * @return the factory that will proxy instances of the supplied type.
+         * @throws IllegalArgumentException if the weight is not positive
+         * @since 1.1
+         */
+        public HotSwappingWeightedOrMode<T> and(Object instance, int weight) {
+            hotswapping.add(instance, weight);
+            return this;
+        }
+
+        /**
+         * Forces a particular delegation mode to be used.
+         *
+         * @param delegationMode refer to {@link DelegationMode#DIRECT} or
+         *                       {@link DelegationMode#SIGNATURE} for allowed
+         *                       values.
+         * @return the factory that will proxy instances of the supplied type.
+         * @since 1.1
+         */
+        public HotSwappingBuild<T> mode(DelegationMode delegationMode) {
+            hotswapping.delegationMode = delegationMode;
+            return new HotSwappingBuild<T>(hotswapping);
+        }
     }
 
     public static class HotSwappingBuild<T> {
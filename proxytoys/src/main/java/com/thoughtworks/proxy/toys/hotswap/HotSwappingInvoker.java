@@ -14,6 +14,8 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.thoughtworks.proxy.ProxyFactory;
 import com.thoughtworks.proxy.kit.ObjectReference;
@@ -23,6 +25,18 @@ import com.thoughtworks.proxy.toys.delegate.DelegationMode;
 
 /**
  * A {@link DelegatingInvoker} implementation that allows the exchange of the delegate.
+ * <p>
+ * Every invocation reads the current delegate once and uses this snapshot for the complete call, a concurrent swap
+ * will therefore never affect a running call. The invoker counts the running calls per delegate, so that a swap can
+ * return a {@link SwapHandle}, that completes as soon as all calls on the old delegate have returned.
+ * </p>
+ * <p>
+ * An incoming delegate can be warmed up before it is installed, either with a {@link WarmUp} routine or by replaying
+ * a sample of the recent calls. The first calls are recorded until the samples are filled, afterwards only every 16th
+ * call replaces a sample. The arguments of a recorded call are kept until the sample is replaced. Any
+ * {@link SwapListener} is notified before and after the swap. The warm up routine and the listeners are callbacks and
+ * not serialized with the invoker.
+ * </p>
  *
  * @author Aslak Helles&oslash;y
  * @author Dan North
@@ -32,12 +46,18 @@ import com.thoughtworks.proxy.toys.delegate.DelegationMode;
  */
 public class HotSwappingInvoker<T> extends DelegatingInvoker<Object> {
     private static final long serialVersionUID = 1L;
+    private static final int SAMPLE_INTERVAL = 16;
     private static final Method hotswap;
+    private static final Method hotswapAndDrain;
+    private static final Method hotswapAndDrainWithWarmUp;
     private static final Method checkForCycle;
 
     static {
         try {
             hotswap = Swappable.class.getMethod("hotswap", new Class[]{Object.class});
+            hotswapAndDrain = Swappable.class.getMethod("hotswapAndDrain", new Class[]{Object.class});
+            hotswapAndDrainWithWarmUp = Swappable.class.getMethod(
+                "hotswapAndDrain", new Class[]{Object.class, WarmUp.class});
             checkForCycle = CycleCheck.class.getMethod("checkForCycle");
         } catch (NoSuchMethodException e) {
             throw new ExceptionInInitializerError(e.toString());
@@ -59,9 +79,32 @@ public class HotSwappingInvoker<T> extends DelegatingInvoker<Object> {
         void checkForCycle();
     }
 
+    private static final class Invocation {
+        private final Method method;
+        private final Object[] args;
+
+        private Invocation(final Method method, final Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+    }
+
+    private static final class Samples {
+        private final AtomicReferenceArray<Invocation> invocations;
+        private final AtomicLong calls = new AtomicLong();
+
+        private Samples(final int size) {
+            invocations = new AtomicReferenceArray<Invocation>(size);
+        }
+    }
+
     private Class<?>[] types;
+    private int replaySamples;
+    private transient WarmUp warmUp;
+    private transient SwapListener[] listeners;
     private transient boolean executed = false;
-    private transient ThreadLocal<Object> delegate;
+    private transient volatile SwapHandle current;
+    private transient volatile Samples samples;
 
     /**
      * Construct a HotSwappingInvoker.
@@ -75,49 +118,102 @@ public class HotSwappingInvoker<T> extends DelegatingInvoker<Object> {
     public HotSwappingInvoker(
             final Class<?>[] types, final ProxyFactory proxyFactory, final ObjectReference<Object> delegateReference,
             final DelegationMode delegationMode) {
+        this(types, proxyFactory, delegateReference, delegationMode, null, 0);
+    }
+
+    /**
+     * Construct a HotSwappingInvoker with a lifecycle for the swap.
+     *
+     * @param types             the types of the proxy
+     * @param proxyFactory      the {@link ProxyFactory} to use
+     * @param delegateReference the {@link ObjectReference} with the delegate
+     * @param delegationMode    {@link DelegationMode#DIRECT} or {@link DelegationMode#SIGNATURE}
+     * @param warmUp            the default routine to warm up an incoming delegate (may be <code>null</code>)
+     * @param replaySamples     the number of recent calls recorded to warm up an incoming delegate without routine
+     * @param listeners         the listeners of the swaps
+     * @throws IllegalArgumentException if the number of samples is negative
+     * @since 1.1
+     */
+    public HotSwappingInvoker(
+            final Class<?>[] types, final ProxyFactory proxyFactory, final ObjectReference<Object> delegateReference,
+            final DelegationMode delegationMode, final WarmUp warmUp, final int replaySamples,
+            final SwapListener... listeners) {
         super(proxyFactory, delegateReference, delegationMode);
+        if (replaySamples < 0) {
+            throw new IllegalArgumentException("Number of samples must not be negative: " + replaySamples);
+        }
         this.types = types;
-        this.delegate = new ThreadLocal<Object>();
+        this.warmUp = warmUp;
+        this.replaySamples = replaySamples;
+        this.listeners = listeners;
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        Object result;
-        try {
-            delegate.set(delegate()); // ensure delegate will not change during invocation
-            if (method.equals(hotswap)) {
-                result = hotswap(args[0]);
-            } else if (method.equals(checkForCycle)) {
-                if (executed) {
-                    throw new IllegalStateException("Cyclic dependency");
-                } else {
-                    if (delegate() instanceof CycleCheck) {
-                        executed = true;
-                        CycleCheck.class.cast(delegate()).checkForCycle();
-                        executed = false;
-                    }
-                }
-                return Void.TYPE;
+        if (method.equals(hotswap)) {
+            return hotswap(args[0]);
+        } else if (method.equals(hotswapAndDrain)) {
+            return swap(args[0]);
+        } else if (method.equals(hotswapAndDrainWithWarmUp)) {
+            return swap(args[0], (WarmUp)args[1]);
+        } else if (method.equals(checkForCycle)) {
+            if (executed) {
+                throw new IllegalStateException("Cyclic dependency");
             } else {
-                result = super.invoke(proxy, method, args);
+                final Object delegate = delegate();
+                if (delegate instanceof CycleCheck) {
+                    executed = true;
+                    CycleCheck.class.cast(delegate).checkForCycle();
+                    executed = false;
+                }
+            }
+            return Void.TYPE;
+        }
+        SwapHandle handle;
+        do {
+            handle = getSwapHandle();
+            handle.enter();
+            if (!handle.isRetired()) {
+                break;
             }
+            // swapped concurrently, the call must not enter the old delegate anymore
+            handle.exit();
+        } while (true);
+        try {
+            return invokeWithDelegate(handle.getDelegate(), proxy, method, args);
         } finally {
-            delegate.set(null);
+            handle.exit();
         }
-        return result;
     }
 
-    @Override
-    protected Object delegate() {
-        final Object currentDelegate;
-        currentDelegate = delegate.get();
-        if (currentDelegate == null) {
-            return super.delegate();
-        } else {
-            return currentDelegate;
+    /**
+     * Retrieve the handle of the current delegate. The delegate reference may have been changed directly.
+     *
+     * @return the handle
+     */
+    private SwapHandle getSwapHandle() {
+        final SwapHandle handle = current;
+        final Object delegate = getDelegateReference().get();
+        if (handle != null && handle.getDelegate() == delegate) {
+            return handle;
+        }
+        synchronized (this) {
+            if (current == null || current.getDelegate() != getDelegateReference().get()) {
+                install(getDelegateReference().get());
+            }
+            return current;
         }
     }
 
+    private synchronized SwapHandle install(final Object newDelegate) {
+        final SwapHandle old = current;
+        current = new SwapHandle(newDelegate);
+        if (old != null) {
+            old.retire();
+        }
+        return old;
+    }
+
     /**
      * Exchange the current delegate.
      *
@@ -127,15 +223,124 @@ public class HotSwappingInvoker<T> extends DelegatingInvoker<Object> {
      * @since 0.1
      */
     protected Object hotswap(final Object newDelegate) {
-        ObjectReference<Object> ref = getDelegateReference();
-        Object result = ref.get();
-        // Note, for the cycle detection the delegate has to be set first
-        delegate.set(newDelegate);
-        ref.set(newDelegate);
+        return swap(newDelegate).getDelegate();
+    }
+
+    /**
+     * Exchange the current delegate and return the handle of the old one. The incoming delegate is warmed up with the
+     * default routine or the recorded calls.
+     *
+     * @param newDelegate the new delegate
+     * @return the handle of the old delegate
+     * @throws IllegalStateException if cyclic swapping action is detected
+     * @since 1.1
+     */
+    protected SwapHandle swap(final Object newDelegate) {
+        return swap(newDelegate, warmUp);
+    }
+
+    /**
+     * Warm up the incoming delegate, exchange the current delegate and return the handle of the old one. Any listener
+     * is notified before the warm up and after the exchange.
+     *
+     * @param newDelegate the new delegate
+     * @param routine     the routine to warm up the new delegate or <code>null</code> to replay the recorded calls
+     * @return the handle of the old delegate
+     * @throws IllegalStateException if cyclic swapping action is detected
+     * @since 1.1
+     */
+    protected SwapHandle swap(final Object newDelegate, final WarmUp routine) {
+        final Object oldDelegate = delegate();
+        final SwapListener[] swapListeners = listeners;
+        if (swapListeners != null) {
+            for (final SwapListener listener : swapListeners) {
+                listener.beforeSwap(oldDelegate, newDelegate);
+            }
+        }
+        final long start = System.nanoTime();
+        if (newDelegate != null) {
+            if (routine != null) {
+                routine.warmUp(newDelegate);
+            } else {
+                replay(newDelegate);
+            }
+        }
+        final long warmUpNanos = System.nanoTime() - start;
+        final SwapHandle handle = exchange(newDelegate);
+        if (swapListeners != null) {
+            final long totalNanos = System.nanoTime() - start;
+            for (final SwapListener listener : swapListeners) {
+                listener.afterSwap(handle.getDelegate(), newDelegate, warmUpNanos, totalNanos);
+            }
+        }
+        return handle;
+    }
+
+    /**
+     * Exchange the current delegate and return the handle of the old one. The delegate is installed immediately.
+     *
+     * @param newDelegate the new delegate
+     * @return the handle of the old delegate
+     * @throws IllegalStateException if cyclic swapping action is detected
+     * @since 1.1
+     */
+    protected SwapHandle exchange(final Object newDelegate) {
+        final SwapHandle old;
+        synchronized (this) {
+            getSwapHandle();
+            // Note, for the cycle detection the delegate has to be set first
+            getDelegateReference().set(newDelegate);
+            old = install(newDelegate);
+        }
         if (newDelegate instanceof CycleCheck) {
             CycleCheck.class.cast(newDelegate).checkForCycle();
         }
-        return result;
+        return old;
+    }
+
+    @Override
+    protected Object invokeWithDelegate(final Object target, final Object proxy, final Method method,
+            final Object[] args) throws Throwable {
+        if (replaySamples > 0 && method.getDeclaringClass() != Object.class) {
+            Samples recorded = samples;
+            if (recorded == null) {
+                synchronized (this) {
+                    if (samples == null) {
+                        samples = new Samples(replaySamples);
+                    }
+                    recorded = samples;
+                }
+            }
+            // record the first calls until the samples are filled, afterwards only every SAMPLE_INTERVAL-th call
+            final long call = recorded.calls.getAndIncrement();
+            if (call < replaySamples) {
+                recorded.invocations.set((int)call, new Invocation(method, args));
+            } else if (call % SAMPLE_INTERVAL == 0) {
+                recorded.invocations.set((int)(call / SAMPLE_INTERVAL % replaySamples), new Invocation(method, args));
+            }
+        }
+        return super.invokeWithDelegate(target, proxy, method, args);
+    }
+
+    /**
+     * Replay the recorded calls on the incoming delegate. Failing calls are ignored.
+     *
+     * @param newDelegate the incoming delegate
+     */
+    private void replay(final Object newDelegate) {
+        final Samples recorded = samples;
+        if (recorded != null) {
+            for (int i = 0; i < recorded.invocations.length(); i++) {
+                final Invocation invocation = recorded.invocations.get(i);
+                if (invocation != null) {
+                    try {
+                        super.invokeWithDelegate(newDelegate, null, invocation.method, invocation.args);
+                    } catch (final Throwable e) {
+                        // ignore, the arguments may not be valid anymore
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -146,11 +351,21 @@ public class HotSwappingInvoker<T> extends DelegatingInvoker<Object> {
      * @since 0.1
      */
     public T proxy() {
+        return getProxyFactory().<T>createProxy(this, getProxyTypes());
+    }
+
+    /**
+     * Retrieve the types implemented by the proxy.
+     *
+     * @return the types given to the constructor, {@link Swappable} and {@link CycleCheck}
+     * @since 1.1
+     */
+    protected Class<?>[] getProxyTypes() {
         Class<?>[] typesWithSwappable = new Class[types.length + 2];
         System.arraycopy(types, 0, typesWithSwappable, 0, types.length);
         typesWithSwappable[types.length] = Swappable.class;
         typesWithSwappable[types.length + 1] = CycleCheck.class;
-        return getProxyFactory().<T>createProxy(this, typesWithSwappable);
+        return typesWithSwappable;
     }
 
     private void writeObject(final ObjectOutputStream out) throws IOException {
@@ -159,6 +374,5 @@ public class HotSwappingInvoker<T> extends DelegatingInvoker<Object> {
 
     private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
-        this.delegate = new ThreadLocal<Object>();
     }
 }
@@ -0,0 +1,123 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.hotswap;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handle of a swapped delegate. The handle completes as soon as all calls, that were running on the old delegate at
+ * the time of the swap, have returned. Its result is the old delegate, that can be closed safely afterwards.
+ * <p>
+ * Note, that a call running on the old delegate must not wait for its own handle.
+ * </p>
+ *
+ * @see Swappable#hotswapAndDrain(Object)
+ * @since 1.1
+ */
+public class SwapHandle implements Future<Object> {
+
+    private final Object delegate;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean retired;
+
+    SwapHandle(final Object delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Retrieve the swapped delegate.
+     *
+     * @return the delegate
+     * @since 1.1
+     */
+    public Object getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Retrieve the number of calls running currently on the delegate.
+     *
+     * @return the number of calls
+     * @since 1.1
+     */
+    public int getInFlightCalls() {
+        return inFlight.get();
+    }
+
+    /**
+     * Enter a call on the delegate.
+     */
+    void enter() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Exit a call on the delegate.
+     */
+    void exit() {
+        if (inFlight.decrementAndGet() == 0 && retired) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Retire the delegate, i.e. no new calls will enter.
+     */
+    void retire() {
+        retired = true;
+    }
+
+    boolean isRetired() {
+        return retired;
+    }
+
+    /**
+     * {@inheritDoc} A swap cannot be cancelled.
+     *
+     * @return <code>false</code>
+     */
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    public boolean isCancelled() {
+        return false;
+    }
+
+    public boolean isDone() {
+        return retired && inFlight.get() == 0;
+    }
+
+    public synchronized Object get() throws InterruptedException {
+        while (!isDone()) {
+            wait();
+        }
+        return delegate;
+    }
+
+    public synchronized Object get(final long timeout, final TimeUnit unit)
+            throws InterruptedException, TimeoutException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!isDone()) {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException(inFlight.get() + " calls still running on " + delegate);
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return delegate;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.hotswap;
+
+/**
+ * Listener for the hot swaps of a proxy.
+ *
+ * @since 1.1
+ */
+public interface SwapListener {
+
+    /**
+     * Notification before a swap, i.e. before the incoming delegate is warmed up.
+     *
+     * @param oldDelegate the current delegate
+     * @param newDelegate the incoming delegate
+     * @since 1.1
+     */
+    void beforeSwap(Object oldDelegate, Object newDelegate);
+
+    /**
+     * Notification after the incoming delegate has been installed.
+     *
+     * @param oldDelegate the swapped delegate
+     * @param newDelegate the installed delegate
+     * @param warmUpNanos the duration of the warm up in nanoseconds
+     * @param totalNanos  the duration of the complete swap including the warm up in nanoseconds
+     * @since 1.1
+     */
+    void afterSwap(Object oldDelegate, Object newDelegate, long warmUpNanos, long totalNanos);
+}
@@ -25,4 +25,25 @@ public interface Swappable {
      * @since 0.1
      */
     Object hotswap(Object newSubject);
+
+    /**
+     * Swaps the subject behind the proxy with a new instance and returns a handle for the old subject. The handle
+     * completes as soon as all calls running on the old subject have returned, so that it can be closed safely.
+     *
+     * @param newSubject the new subject the proxy will delegate to.
+     * @return the handle of the old subject
+     * @since 1.1
+     */
+    SwapHandle hotswapAndDrain(Object newSubject);
+
+    /**
+     * Swaps the subject behind the proxy with a new instance, that is warmed up before it is installed. The handle of
+     * the old subject completes as soon as all calls running on the old subject have returned.
+     *
+     * @param newSubject the new subject the proxy will delegate to.
+     * @param warmUp the routine to warm up the new subject or <code>null</code> to replay the recorded calls
+     * @return the handle of the old subject
+     * @since 1.1
+     */
+    SwapHandle hotswapAndDrain(Object newSubject, WarmUp warmUp);
 }
@@ -0,0 +1,30 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.hotswap;
+
+/**
+ * Routine to warm up an incoming delegate before it is installed by a hot swap, e.g. to fill its caches or to run
+ * its lazy initialization.
+ *
+ * @see Swappable#hotswapAndDrain(Object, WarmUp)
+ * @since 1.1
+ */
+public interface WarmUp {
+
+    /**
+     * Warm up the incoming delegate. The delegate is installed after this method returns, any exception aborts the
+     * swap.
+     *
+     * @param delegate the incoming delegate
+     * @since 1.1
+     */
+    void warmUp(Object delegate);
+}
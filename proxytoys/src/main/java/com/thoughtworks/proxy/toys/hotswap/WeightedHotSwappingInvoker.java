@@ -0,0 +1,313 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.hotswap;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.thoughtworks.proxy.ProxyFactory;
+import com.thoughtworks.proxy.kit.FastRandom;
+import com.thoughtworks.proxy.kit.SimpleReference;
+import com.thoughtworks.proxy.toys.delegate.DelegationMode;
+
+
+/**
+ * A {@link HotSwappingInvoker} that routes the calls to several delegates according their relative weights. It can be
+ * used to ramp up a new delegate gradually, e.g. for a canary release of a new driver or configuration.
+ * <p>
+ * The route is an immutable snapshot that is replaced on every change of the weights, a call reads it once without
+ * any lock. The delegate for a call is chosen with a pseudo random number of {@link FastRandom}, that keeps the state
+ * of the generator in a thread local, concurrent calls do therefore not write any shared state to choose their
+ * delegate. Every delegate has its own counters for the calls, the errors and the latency to decide about the
+ * promotion or roll back of a new delegate. The sum of all weights must not exceed {@link Integer#MAX_VALUE}.
+ * </p>
+ * <p>
+ * The proxy implements additionally {@link WeightedSwappable}. A hot swap replaces all delegates with the new one.
+ * The methods <code>equals</code>, <code>hashCode</code> and <code>toString</code> are always invoked on the first
+ * delegate of the route.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class WeightedHotSwappingInvoker<T> extends HotSwappingInvoker<T> {
+    private static final long serialVersionUID = 1L;
+    private static final Method setWeight;
+    private static final Method getWeight;
+    private static final Method getStatistics;
+
+    static {
+        try {
+            setWeight = WeightedSwappable.class.getMethod("setWeight", new Class[]{Object.class, int.class});
+            getWeight = WeightedSwappable.class.getMethod("getWeight", new Class[]{Object.class});
+            getStatistics = WeightedSwappable.class.getMethod("getStatistics", new Class[]{Object.class});
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e.toString());
+        }
+    }
+
+    private static final class Entry {
+        private final SwapHandle handle;
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+
+        private Entry(final Object delegate) {
+            handle = new SwapHandle(delegate);
+        }
+    }
+
+    private static final class Route {
+        private final Entry[] entries;
+        private final int[] weights;
+        private final int[] limits;
+        private final int total;
+
+        private Route(final Entry[] entries, final int[] weights) {
+            this.entries = entries;
+            this.weights = weights;
+            limits = new int[weights.length];
+            long sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                sum += weights[i];
+                if (sum > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Sum of the weights exceeds " + Integer.MAX_VALUE);
+                }
+                limits[i] = (int)sum;
+            }
+            total = (int)sum;
+        }
+
+        private int indexOf(final Object delegate) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].handle.getDelegate() == delegate) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private Object[] delegates;
+    private int[] weights;
+    private transient volatile Route route;
+
+    /**
+     * Construct a WeightedHotSwappingInvoker.
+     *
+     * @param types          the types of the proxy
+     * @param proxyFactory   the {@link ProxyFactory} to use
+     * @param delegates      the delegates
+     * @param weights        the relative weights of the delegates
+     * @param delegationMode {@link DelegationMode#DIRECT} or {@link DelegationMode#SIGNATURE}
+     * @param warmUp         the default routine to warm up an incoming delegate of a hot swap (may be
+     *                       <code>null</code>)
+     * @param replaySamples  the number of recent calls recorded to warm up an incoming delegate without routine
+     * @param listeners      the listeners of the hot swaps
+     * @throws IllegalArgumentException if the number of delegates and weights differ, no delegate is given, a weight
+     *                                  is not positive or the sum of the weights exceeds {@link Integer#MAX_VALUE}
+     * @since 1.1
+     */
+    public WeightedHotSwappingInvoker(
+            final Class<?>[] types, final ProxyFactory proxyFactory, final Object[] delegates, final int[] weights,
+            final DelegationMode delegationMode, final WarmUp warmUp, final int replaySamples,
+            final SwapListener... listeners) {
+        super(types, proxyFactory, new SimpleReference<Object>(delegates.length > 0 ? delegates[0] : null),
+            delegationMode, warmUp, replaySamples, listeners);
+        if (delegates.length == 0 || delegates.length != weights.length) {
+            throw new IllegalArgumentException("Every delegate requires a weight");
+        }
+        long sum = 0;
+        for (final int weight : weights) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weight must be positive: " + weight);
+            }
+            sum += weight;
+        }
+        if (sum > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Sum of the weights exceeds " + Integer.MAX_VALUE);
+        }
+        this.delegates = delegates.clone();
+        this.weights = weights.clone();
+    }
+
+    @Override
+    protected Class<?>[] getProxyTypes() {
+        final Class<?>[] types = super.getProxyTypes();
+        final Class<?>[] classes = new Class[types.length + 1];
+        System.arraycopy(types, 0, classes, 0, types.length);
+        classes[types.length] = WeightedSwappable.class;
+        return classes;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.equals(setWeight)) {
+            return setWeight(args[0], ((Integer)args[1]).intValue());
+        } else if (method.equals(getWeight)) {
+            final Route current = getRoute();
+            final int i = current.indexOf(args[0]);
+            return i < 0 ? 0 : current.weights[i];
+        } else if (method.equals(getStatistics)) {
+            final Route current = getRoute();
+            final int i = current.indexOf(args[0]);
+            if (i < 0) {
+                return null;
+            }
+            final Entry entry = current.entries[i];
+            return new DelegateStatistics(current.weights[i], entry.calls.get(), entry.errors.get(),
+                entry.nanos.get(), entry.handle.getInFlightCalls());
+        }
+        final Class<?> declaringClass = method.getDeclaringClass();
+        if (declaringClass == Swappable.class || declaringClass == CycleCheck.class
+                || declaringClass == Object.class) {
+            return super.invoke(proxy, method, args);
+        }
+        Entry entry;
+        do {
+            entry = choose(getRoute());
+            if (entry == null) {
+                return invokeWithDelegate(null, proxy, method, args);
+            }
+            entry.handle.enter();
+            if (!entry.handle.isRetired()) {
+                break;
+            }
+            // removed concurrently, the call must not enter the old delegate anymore
+            entry.handle.exit();
+        } while (true);
+        final long start = System.nanoTime();
+        try {
+            return invokeWithDelegate(entry.handle.getDelegate(), proxy, method, args);
+        } catch (final Throwable e) {
+            entry.errors.incrementAndGet();
+            throw e;
+        } finally {
+            entry.nanos.addAndGet(System.nanoTime() - start);
+            entry.calls.incrementAndGet();
+            entry.handle.exit();
+        }
+    }
+
+    private Entry choose(final Route current) {
+        if (current.total == 0) {
+            return null;
+        } else if (current.entries.length == 1) {
+            return current.entries[0];
+        }
+        final int value = FastRandom.nextInt(current.total);
+        final int[] limits = current.limits;
+        for (int i = 0; i < limits.length; i++) {
+            if (value < limits[i]) {
+                return current.entries[i];
+            }
+        }
+        return current.entries[limits.length - 1];
+    }
+
+    private Route getRoute() {
+        Route current = route;
+        if (current == null) {
+            synchronized (this) {
+                if (route == null) {
+                    final Entry[] entries = new Entry[delegates.length];
+                    for (int i = 0; i < entries.length; i++) {
+                        entries[i] = new Entry(delegates[i]);
+                    }
+                    route = new Route(entries, weights);
+                }
+                current = route;
+            }
+        }
+        return current;
+    }
+
+    private synchronized SwapHandle setWeight(final Object delegate, final int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        final Route current = getRoute();
+        final int index = current.indexOf(delegate);
+        final Entry[] entries;
+        final int[] newWeights;
+        final Entry entry;
+        if (index < 0) {
+            if (weight == 0) {
+                return null;
+            }
+            entry = new Entry(delegate);
+            entries = new Entry[current.entries.length + 1];
+            newWeights = new int[entries.length];
+            System.arraycopy(current.entries, 0, entries, 0, current.entries.length);
+            System.arraycopy(current.weights, 0, newWeights, 0, current.weights.length);
+            entries[current.entries.length] = entry;
+            newWeights[current.entries.length] = weight;
+        } else if (weight == 0) {
+            entry = current.entries[index];
+            entries = new Entry[current.entries.length - 1];
+            newWeights = new int[entries.length];
+            for (int i = 0, j = 0; i < current.entries.length; i++) {
+                if (i != index) {
+                    entries[j] = current.entries[i];
+                    newWeights[j++] = current.weights[i];
+                }
+            }
+        } else {
+            entry = current.entries[index];
+            entries = current.entries;
+            newWeights = current.weights.clone();
+            newWeights[index] = weight;
+        }
+        install(new Route(entries, newWeights));
+        if (weight == 0) {
+            entry.handle.retire();
+        }
+        return entry.handle;
+    }
+
+    /**
+     * {@inheritDoc} All delegates of the route are replaced by the new delegate, that inherits the total weight.
+     *
+     * @return the handle of the first delegate of the old route
+     */
+    @Override
+    protected SwapHandle exchange(final Object newDelegate) {
+        final Route old;
+        synchronized (this) {
+            old = getRoute();
+            // Note, for the cycle detection the delegate has to be set first
+            getDelegateReference().set(newDelegate);
+            install(new Route(new Entry[]{new Entry(newDelegate)}, new int[]{old.total > 0 ? old.total : 1}));
+        }
+        for (final Entry entry : old.entries) {
+            entry.handle.retire();
+        }
+        if (newDelegate instanceof CycleCheck) {
+            CycleCheck.class.cast(newDelegate).checkForCycle();
+        }
+        if (old.entries.length > 0) {
+            return old.entries[0].handle;
+        }
+        final SwapHandle handle = new SwapHandle(null);
+        handle.retire();
+        return handle;
+    }
+
+    private void install(final Route newRoute) {
+        final Object[] newDelegates = new Object[newRoute.entries.length];
+        for (int i = 0; i < newDelegates.length; i++) {
+            newDelegates[i] = newRoute.entries[i].handle.getDelegate();
+        }
+        delegates = newDelegates;
+        weights = newRoute.weights;
+        getDelegateReference().set(newDelegates.length > 0 ? newDelegates[0] : null);
+        route = newRoute;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.hotswap;
+
+/**
+ * Interface implemented by all proxy instances created by {@link WeightedHotSwappingInvoker}. The proxy routes every
+ * call to one of several delegates according their relative weights. A hot swap replaces all delegates with the new
+ * one.
+ *
+ * @since 1.1
+ */
+public interface WeightedSwappable extends Swappable {
+
+    /**
+     * Set the weight of a delegate. A delegate with a positive weight is added if it is not already routed, a weight
+     * of zero removes the delegate.
+     *
+     * @param delegate the delegate
+     * @param weight   the relative weight of the delegate
+     * @return the handle of the delegate, it completes after the removal of the delegate as soon as its running calls
+     *         have returned; <code>null</code> if an unknown delegate is removed
+     * @throws IllegalArgumentException if the weight is negative or the sum of all weights would exceed
+     *                                  {@link Integer#MAX_VALUE}
+     * @since 1.1
+     */
+    SwapHandle setWeight(Object delegate, int weight);
+
+    /**
+     * Retrieve the weight of a delegate.
+     *
+     * @param delegate the delegate
+     * @return the weight or 0 if the delegate is not routed
+     * @since 1.1
+     */
+    int getWeight(Object delegate);
+
+    /**
+     * Retrieve the call statistics of a delegate.
+     *
+     * @param delegate the delegate
+     * @return the statistics or <code>null</code> if the delegate is not routed
+     * @since 1.1
+     */
+    DelegateStatistics getStatistics(Object delegate);
+}
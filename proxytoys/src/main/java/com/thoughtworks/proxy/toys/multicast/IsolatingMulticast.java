@@ -0,0 +1,38 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.multicast;
+
+/**
+ * Interface that is implemented additionally by all isolating multicasting proxies. Cast the proxy to access the
+ * failure statistics of the targets.
+ *
+ * @see IsolatingMulticastingInvoker
+ * @since 1.1
+ */
+public interface IsolatingMulticast {
+
+    /**
+     * Retrieve the number of failed invocations of a single target.
+     *
+     * @param target the target
+     * @return the number of failures of this target
+     * @since 1.1
+     */
+    long getFailures(Object target);
+
+    /**
+     * Retrieve the total number of failed invocations of all targets.
+     *
+     * @return the number of failures
+     * @since 1.1
+     */
+    long getFailures();
+}
@@ -0,0 +1,148 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.multicast;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.thoughtworks.proxy.ProxyFactory;
+import com.thoughtworks.proxy.toys.nullobject.Null;
+
+/**
+ * A {@link MulticastingInvoker} that isolates the targets from each other's failures. If a target throws, the
+ * invocation continues with the remaining targets and the result is combined from the successful invocations only. If
+ * no invocation succeeds for a method with a primitive return type, the result is the type's default value.
+ * <p>
+ * Every failure is counted per target and reported to an optional {@link MulticastFailureHandler}. An exception of
+ * the handler itself is ignored, the multicast continues with the remaining targets. The handler is a callback and
+ * not serialized with the invoker. The proxy implements additionally {@link IsolatingMulticast} to access the failure
+ * counters.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class IsolatingMulticastingInvoker<T> extends MulticastingInvoker<T> {
+    private static final long serialVersionUID = 1L;
+    private static final Method getFailures;
+    private static final Method getTargetFailures;
+
+    static {
+        try {
+            getFailures = IsolatingMulticast.class.getMethod("getFailures");
+            getTargetFailures = IsolatingMulticast.class.getMethod("getFailures", Object.class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e.toString());
+        }
+    }
+
+    private transient MulticastFailureHandler failureHandler;
+    private transient Map<Object, AtomicLong> failures;
+    private transient AtomicLong totalFailures;
+
+    /**
+     * Construct an IsolatingMulticastingInvoker.
+     *
+     * @param types          the implemented types
+     * @param proxyFactory   the {@link ProxyFactory} to use
+     * @param targets        the target instances where the proxy delegates a call
+     * @param failureHandler the handler for failed invocations (may be <code>null</code>)
+     * @since 1.1
+     */
+    public IsolatingMulticastingInvoker(
+            final Class<?>[] types, final ProxyFactory proxyFactory, final List<?> targets,
+            final MulticastFailureHandler failureHandler) {
+        super(types, proxyFactory, targets);
+        this.failureHandler = failureHandler;
+        this.failures = new IdentityHashMap<Object, AtomicLong>();
+        this.totalFailures = new AtomicLong();
+    }
+
+    @Override
+    protected Class<?>[] getProxyTypes() {
+        final Class<?>[] types = super.getProxyTypes();
+        final Class<?>[] classes = new Class[types.length + 1];
+        System.arraycopy(types, 0, classes, 0, types.length);
+        classes[types.length] = IsolatingMulticast.class;
+        return classes;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.equals(getFailures)) {
+            return totalFailures.get();
+        } else if (method.equals(getTargetFailures)) {
+            final AtomicLong counter;
+            synchronized (failures) {
+                counter = failures.get(args[0]);
+            }
+            return counter == null ? 0L : counter.get();
+        }
+        return super.invoke(proxy, method, args);
+    }
+
+    @Override
+    protected Object multicast(final Method method, final Object[] args) {
+        final List<Object> invocationResults = new ArrayList<Object>();
+        for (final Object target : getTargets()) {
+            if (method.getDeclaringClass().isInstance(target)) {
+                try {
+                    final Object result = method.invoke(target, args);
+                    if (result != null) {
+                        invocationResults.add(result);
+                    }
+                } catch (final InvocationTargetException e) {
+                    fail(target, method, args, e.getTargetException());
+                } catch (final IllegalAccessException e) {
+                    fail(target, method, args, e);
+                } catch (final IllegalArgumentException e) {
+                    fail(target, method, args, e);
+                }
+            }
+        }
+        if (invocationResults.size() == 0 && method.getReturnType().isPrimitive()) {
+            return Null.proxy(method.getReturnType()).build(getProxyFactory());
+        }
+        return combine(method, invocationResults);
+    }
+
+    private void fail(final Object target, final Method method, final Object[] args, final Throwable cause) {
+        AtomicLong counter;
+        synchronized (failures) {
+            counter = failures.get(target);
+            if (counter == null) {
+                counter = new AtomicLong();
+                failures.put(target, counter);
+            }
+        }
+        counter.incrementAndGet();
+        totalFailures.incrementAndGet();
+        if (failureHandler != null) {
+            try {
+                failureHandler.handleFailure(target, method, args, cause);
+            } catch (final RuntimeException e) {
+                // a failing handler must not break the isolation of the remaining targets
+            }
+        }
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        failures = new IdentityHashMap<Object, AtomicLong>();
+        totalFailures = new AtomicLong();
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.multicast;
+
+import java.lang.reflect.Method;
+
+/**
+ * Callback for the failed invocations of an isolating multicast.
+ *
+ * @see IsolatingMulticastingInvoker
+ * @since 1.1
+ */
+public interface MulticastFailureHandler {
+
+    /**
+     * Handle the failed invocation of a single target. The multicast continues with the remaining targets after this
+     * method returns, even if it throws a {@link RuntimeException}.
+     *
+     * @param target the failing target
+     * @param method the invoked method
+     * @param args   the arguments of the invocation
+     * @param cause  the exception thrown by the target or the reflection error
+     * @since 1.1
+     */
+    void handleFailure(Object target, Method method, Object[] args, Throwable cause);
+}
@@ -13,6 +13,8 @@ package com.thoughtworks.proxy.toys.multicast;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import com.thoughtworks.proxy.ProxyFactory;
 import com.thoughtworks.proxy.factory.StandardProxyFactory;
@@ -32,6 +34,14 @@ import com.thoughtworks.proxy.kit.ReflectionUtils;
 public class Multicasting<T> {
     private Class<?>[] types;
     private List<?> delegates;
+    private int writeBehindCapacity;
+    private OverflowPolicy overflowPolicy;
+    private int quorum;
+    private long timeout;
+    private TimeUnit timeoutUnit;
+    private ExecutorService executor;
+    private boolean isolating;
+    private MulticastFailureHandler failureHandler;
 
     private Multicasting(List<Object> delegates) {
         this.delegates = delegates;
@@ -61,7 +71,7 @@ public class Multicasting<T> {
      * @since 1.0
      * @see {@link #proxyList(java.util.List)}
      */
-    public static MulticastingBuild<Multicast> proxy(Object... targets) {
+    public static MulticastingModeOrBuild<Multicast> proxy(Object... targets) {
         return proxyList(Arrays.asList(targets));
     }
 
@@ -76,8 +86,8 @@ public class Multicasting<T> {
      * @since 1.1
      * @see {@link #proxy(Object...)}
      */
-    public static MulticastingBuild<Multicast> proxyList(List<Object> targets) {
-        return new MulticastingBuild<Multicast>(targets);
+    public static MulticastingModeOrBuild<Multicast> proxyList(List<Object> targets) {
+        return new MulticastingModeOrBuild<Multicast>(new Multicasting<Multicast>(targets));
     }
 
 
@@ -94,23 +104,132 @@ public class Multicasting<T> {
          * @return the factory
          * @since 1.0
          */
-        public MulticastingBuild<T> with(Object... targets) {
+        public MulticastingModeOrBuild<T> with(Object... targets) {
             return withList(Arrays.asList(targets));
         }
 
-        public MulticastingBuild<T> withList(List<?> targets) {
+        public MulticastingModeOrBuild<T> withList(List<?> targets) {
             multicasting.delegates = targets;
+            return new MulticastingModeOrBuild<T>(multicasting);
+        }
+    }
+
+    public static class MulticastingModeOrBuild<T> extends MulticastingBuild<T> {
+
+        private MulticastingModeOrBuild(Multicasting<T> multicasting) {
+            super(multicasting);
+        }
+
+        /**
+         * Deliver the invocations of void methods asynchronously. The invocations are buffered and delivered in
+         * batches by a background thread, while the calling thread returns immediately. The proxy will implement
+         * {@link WriteBehind} additionally, even if there is only one target.
+         *
+         * @param capacity       the minimal capacity of the buffer for the void invocations
+         * @param overflowPolicy the policy for a void invocation if the buffer is full
+         * @return the factory that will proxy instances of the supplied type.
+         * @see WriteBehindMulticastingInvoker
+         * @since 1.1
+         */
+        public MulticastingBuild<T> writeBehind(int capacity, OverflowPolicy overflowPolicy) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+            }
+            multicasting.writeBehindCapacity = capacity;
+            multicasting.overflowPolicy = overflowPolicy;
+            return new MulticastingBuild<T>(multicasting);
+        }
+
+        /**
+         * Invoke the targets concurrently and return as soon as a quorum of them has answered. The remaining
+         * invocations are abandoned. The proxy will implement {@link QuorumMulticast} additionally, even if there is
+         * only one target.
+         *
+         * @param quorum  the number of required answers
+         * @param timeout the deadline of every call
+         * @param unit    the time unit of the deadline
+         * @return the factory that will proxy instances of the supplied type.
+         * @see QuorumMulticastingInvoker
+         * @since 1.1
+         */
+        public MulticastingExecutedByOrBuild<T> quorum(int quorum, long timeout, TimeUnit unit) {
+            if (quorum <= 0) {
+                throw new IllegalArgumentException("Quorum must be positive: " + quorum);
+            }
+            multicasting.quorum = quorum;
+            multicasting.timeout = timeout;
+            multicasting.timeoutUnit = unit;
+            return new MulticastingExecutedByOrBuild<T>(multicasting);
+        }
+
+        /**
+         * Invoke the targets concurrently and return the first successful answer. The remaining invocations are
+         * abandoned. The proxy will implement {@link QuorumMulticast} additionally, even if there is only one target.
+         *
+         * @param timeout the deadline of every call
+         * @param unit    the time unit of the deadline
+         * @return the factory that will proxy instances of the supplied type.
+         * @see QuorumMulticastingInvoker
+         * @since 1.1
+         */
+        public MulticastingExecutedByOrBuild<T> firstResponse(long timeout, TimeUnit unit) {
+            return quorum(1, timeout, unit);
+        }
+
+        /**
+         * Isolate the targets from each other's failures. A failing target does not prevent the invocation of the
+         * remaining targets, the result is combined from the successful invocations only. The proxy will implement
+         * {@link IsolatingMulticast} additionally, even if there is only one target.
+         *
+         * @return the factory that will proxy instances of the supplied type.
+         * @see IsolatingMulticastingInvoker
+         * @since 1.1
+         */
+        public MulticastingBuild<T> isolating() {
+            return isolating(null);
+        }
+
+        /**
+         * Isolate the targets from each other's failures and report any failure to the given handler. A failing
+         * target does not prevent the invocation of the remaining targets, the result is combined from the successful
+         * invocations only. The proxy will implement {@link IsolatingMulticast} additionally, even if there is only one
+         * target. The handler is not serialized with the proxy.
+         *
+         * @param failureHandler the handler for the failed invocations
+         * @return the factory that will proxy instances of the supplied type.
+         * @see IsolatingMulticastingInvoker
+         * @since 1.1
+         */
+        public MulticastingBuild<T> isolating(MulticastFailureHandler failureHandler) {
+            multicasting.isolating = true;
+            multicasting.failureHandler = failureHandler;
             return new MulticastingBuild<T>(multicasting);
         }
     }
 
-    public static class MulticastingBuild<T> {
-        private final Multicasting<T> multicasting;
+    public static class MulticastingExecutedByOrBuild<T> extends MulticastingBuild<T> {
 
-        private MulticastingBuild(List<Object> targets) {
-            multicasting = new Multicasting<T>(targets);
+        private MulticastingExecutedByOrBuild(Multicasting<T> multicasting) {
+            super(multicasting);
         }
 
+        /**
+         * Executed by this executor. Without an explicit executor a shared default executor with a bounded number of
+         * daemon threads is used. The executor is not serialized, a deserialized proxy uses the default executor.
+         *
+         * @param executor the executor running the invocations of the targets
+         * @return the factory that will proxy instances of the supplied type.
+         * @since 1.1
+         */
+        public MulticastingBuild<T> executedBy(ExecutorService executor) {
+            multicasting.executor = executor;
+            return new MulticastingBuild<T>(multicasting);
+        }
+    }
+
+    public static class MulticastingBuild<T> {
+        protected final Multicasting<T> multicasting;
+
         private MulticastingBuild(Multicasting<T> multicasting) {
             this.multicasting = multicasting;
         }
@@ -147,20 +266,33 @@ public class Multicasting<T> {
         if (types == null) {
             return buildWithNoTypesInput(factory);
         }
-        return new MulticastingInvoker<T>(types, factory, delegates).proxy();
+        return createInvoker(factory).proxy();
     }
 
     private T buildWithNoTypesInput(ProxyFactory factory) {
-        if (delegates.size() > 1) {
+        if (delegates.size() > 1 || writeBehindCapacity > 0 || quorum > 0 || isolating) {
             Object[] delegateArray = delegates.toArray();
             final Class<?> superclass = ReflectionUtils.getMostCommonSuperclass(delegateArray);
             final Set<Class<?>> interfaces = ReflectionUtils.getAllInterfaces(delegateArray);
             ReflectionUtils.addIfClassProxyingSupportedAndNotObject(superclass, interfaces, factory);
             this.types = interfaces.toArray(new Class<?>[interfaces.size()]);
-            return new MulticastingInvoker<T>(types, factory, delegates).proxy();
+            return createInvoker(factory).proxy();
         }
         @SuppressWarnings("unchecked")
         final T instance = (T) delegates.get(0);
         return instance;
     }
+
+    private MulticastingInvoker<T> createInvoker(ProxyFactory factory) {
+        if (writeBehindCapacity > 0) {
+            return new WriteBehindMulticastingInvoker<T>(
+                types, factory, delegates, writeBehindCapacity, overflowPolicy);
+        } else if (quorum > 0) {
+            return new QuorumMulticastingInvoker<T>(
+                types, factory, delegates, quorum, timeout, timeoutUnit, executor);
+        } else if (isolating) {
+            return new IsolatingMulticastingInvoker<T>(types, factory, delegates, failureHandler);
+        }
+        return new MulticastingInvoker<T>(types, factory, delegates);
+    }
 }
@@ -11,6 +11,7 @@
 package com.thoughtworks.proxy.toys.multicast;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
@@ -72,6 +73,16 @@ public class MulticastingInvoker<T> implements Invoker {
      * @since 0.1
      */
     public T proxy() {
+        return proxyFactory.<T>createProxy(this, getProxyTypes());
+    }
+
+    /**
+     * Retrieve the types implemented by the proxy. These are the types given to the constructor and {@link Multicast}.
+     *
+     * @return the types of the proxy
+     * @since 1.1
+     */
+    protected Class<?>[] getProxyTypes() {
         final Class<?>[] classes;
         int i;
         i = types.length;
@@ -86,7 +97,7 @@ public class MulticastingInvoker<T> implements Invoker {
         } else {
             classes = types;
         }
-        return proxyFactory.<T>createProxy(this, classes);
+        return classes;
     }
 
     public Object invoke(final Object proxy, Method method, Object[] args) throws Throwable {
@@ -104,6 +115,22 @@ public class MulticastingInvoker<T> implements Invoker {
             method = ReflectionUtils.getMatchingMethod(Class.class.cast(args[0]), String.class.cast(args[1]), newArgs);
             args = newArgs;
         }
+        return multicast(method, args);
+    }
+
+    /**
+     * Multicast an invocation to all the targets, that are an instance of the method's declaring class, and combine
+     * the individual results.
+     *
+     * @param method the method to invoke
+     * @param args   the arguments of the invocation
+     * @return the combined result
+     * @throws IllegalAccessException    if the method cannot be accessed
+     * @throws InvocationTargetException if the invoked method of a target throws
+     * @since 1.1
+     */
+    protected Object multicast(final Method method, final Object[] args)
+            throws IllegalAccessException, InvocationTargetException {
         final List<Object> invocationResults = new ArrayList<Object>();
         for (Object target : targets) {
             if (method.getDeclaringClass().isInstance(target)) {
@@ -113,6 +140,19 @@ public class MulticastingInvoker<T> implements Invoker {
                 }
             }
         }
+        return combine(method, invocationResults);
+    }
+
+    /**
+     * Combine the individual results of a multicast. Primitive values are summed up, boolean values are and-combined
+     * and any other objects are multicast again by a new proxy.
+     *
+     * @param method            the invoked method
+     * @param invocationResults the non-null results of the individual invocations
+     * @return the combined result
+     * @since 1.1
+     */
+    protected Object combine(final Method method, final List<Object> invocationResults) {
         if (invocationResults.size() == 0) {
             return null;
         } else if (invocationResults.size() == 1) {
@@ -138,6 +178,26 @@ public class MulticastingInvoker<T> implements Invoker {
         }
     }
 
+    /**
+     * Retrieve the targets of the invocations.
+     *
+     * @return the targets
+     * @since 1.1
+     */
+    protected List<?> getTargets() {
+        return targets;
+    }
+
+    /**
+     * Retrieve the {@link ProxyFactory} to use.
+     *
+     * @return the ProxyFactory
+     * @since 1.1
+     */
+    protected ProxyFactory getProxyFactory() {
+        return proxyFactory;
+    }
+
     private static Byte addBytes(final Object[] args) {
         byte result = 0;
         for (Object arg : args) {
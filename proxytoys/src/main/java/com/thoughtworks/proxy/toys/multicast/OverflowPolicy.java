@@ -0,0 +1,40 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.multicast;
+
+/**
+ * Indicates how a write-behind multicast handles a void invocation, if its buffer is full.
+ *
+ * @see Multicasting.MulticastingModeOrBuild#writeBehind(int, OverflowPolicy)
+ * @since 1.1
+ */
+public enum OverflowPolicy {
+    /**
+     * The calling thread waits until the buffer has room for the invocation.
+     *
+     * @since 1.1
+     */
+    BLOCK,
+
+    /**
+     * The invocation is dropped and counted.
+     *
+     * @since 1.1
+     */
+    DROP,
+
+    /**
+     * The invocation is multicast directly in the calling thread.
+     *
+     * @since 1.1
+     */
+    CALLER_RUNS
+}
@@ -0,0 +1,57 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.multicast;
+
+/**
+ * An exception if a quorum multicast did not receive enough answers in time.
+ *
+ * @see QuorumMulticastingInvoker
+ * @since 1.1
+ */
+public class QuorumException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private final int answers;
+    private final int quorum;
+
+    /**
+     * Construct a QuorumException.
+     *
+     * @param message the meaningful message
+     * @param answers the number of received answers
+     * @param quorum  the number of required answers
+     * @since 1.1
+     */
+    public QuorumException(final String message, final int answers, final int quorum) {
+        super(message);
+        this.answers = answers;
+        this.quorum = quorum;
+    }
+
+    /**
+     * Returns the number of answers received until the deadline.
+     *
+     * @return the number of answers
+     * @since 1.1
+     */
+    public int getAnswers() {
+        return answers;
+    }
+
+    /**
+     * Returns the number of required answers.
+     *
+     * @return the quorum
+     * @since 1.1
+     */
+    public int getQuorum() {
+        return quorum;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.multicast;
+
+/**
+ * Interface that is implemented additionally by all quorum multicasting proxies. Cast the proxy to access the
+ * statistics of the calls.
+ *
+ * @see QuorumMulticastingInvoker
+ * @since 1.1
+ */
+public interface QuorumMulticast {
+
+    /**
+     * Retrieve the number of target invocations, that were cancelled or ignored, because the call was already
+     * answered or has failed.
+     *
+     * @return the number of abandoned invocations
+     * @since 1.1
+     */
+    long getAbandonedInvocations();
+
+    /**
+     * Retrieve the number of calls, that did not reach the quorum before the deadline.
+     *
+     * @return the number of missed deadlines
+     * @since 1.1
+     */
+    long getMissedDeadlines();
+}
@@ -0,0 +1,223 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.multicast;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.thoughtworks.proxy.ProxyFactory;
+
+/**
+ * A {@link MulticastingInvoker} that invokes the targets concurrently and returns as soon as a quorum of them has
+ * answered. The results of the answering targets are combined with the usual rules, the remaining invocations are
+ * abandoned, i.e. they are cancelled if they have not started yet and their results are ignored otherwise. With a
+ * quorum of one the first successful answer is returned.
+ * <p>
+ * Every call has a deadline. If the quorum is not reached in time, the call fails with a {@link QuorumException}. If
+ * too many targets have thrown to reach the quorum at all, the call fails with the exception of the first failing
+ * target. The proxy implements additionally {@link QuorumMulticast} to access the number of abandoned invocations and
+ * missed deadlines.
+ * </p>
+ * <p>
+ * Without an explicit executor the invocations run on a shared default executor with a bounded number of daemon
+ * threads. An explicit executor is not serialized, a deserialized invoker uses therefore the shared default executor.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class QuorumMulticastingInvoker<T> extends MulticastingInvoker<T> {
+    private static final long serialVersionUID = 1L;
+    private static final Method getAbandonedInvocations;
+    private static final Method getMissedDeadlines;
+    private static ExecutorService defaultExecutor;
+
+    static {
+        try {
+            getAbandonedInvocations = QuorumMulticast.class.getMethod("getAbandonedInvocations");
+            getMissedDeadlines = QuorumMulticast.class.getMethod("getMissedDeadlines");
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e.toString());
+        }
+    }
+
+    private final int quorum;
+    private final long timeoutNanos;
+    private transient ExecutorService executor;
+    private transient AtomicLong abandoned;
+    private transient AtomicLong missedDeadlines;
+
+    /**
+     * Construct a QuorumMulticastingInvoker.
+     *
+     * @param types        the implemented types
+     * @param proxyFactory the {@link ProxyFactory} to use
+     * @param targets      the target instances where the proxy delegates a call
+     * @param quorum       the number of required answers
+     * @param timeout      the deadline of a call
+     * @param unit         the time unit of the deadline
+     * @param executor     the executor running the invocations of the targets or <code>null</code> for a shared
+     *                     default executor with a bounded number of daemon threads
+     * @throws IllegalArgumentException if the quorum is not positive
+     * @since 1.1
+     */
+    public QuorumMulticastingInvoker(
+            final Class<?>[] types, final ProxyFactory proxyFactory, final List<?> targets, final int quorum,
+            final long timeout, final TimeUnit unit, final ExecutorService executor) {
+        super(types, proxyFactory, targets);
+        if (quorum <= 0) {
+            throw new IllegalArgumentException("Quorum must be positive: " + quorum);
+        }
+        this.quorum = quorum;
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.executor = executor;
+        this.abandoned = new AtomicLong();
+        this.missedDeadlines = new AtomicLong();
+    }
+
+    @Override
+    protected Class<?>[] getProxyTypes() {
+        final Class<?>[] types = super.getProxyTypes();
+        final Class<?>[] classes = new Class[types.length + 1];
+        System.arraycopy(types, 0, classes, 0, types.length);
+        classes[types.length] = QuorumMulticast.class;
+        return classes;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.equals(getAbandonedInvocations)) {
+            return abandoned.get();
+        } else if (method.equals(getMissedDeadlines)) {
+            return missedDeadlines.get();
+        }
+        return super.invoke(proxy, method, args);
+    }
+
+    @Override
+    protected Object multicast(final Method method, final Object[] args)
+            throws IllegalAccessException, InvocationTargetException {
+        final long deadline = System.nanoTime() + timeoutNanos;
+        final CompletionService<Object> completionService = new ExecutorCompletionService<Object>(getExecutor());
+        final List<Object> targets = new ArrayList<Object>();
+        for (final Object target : getTargets()) {
+            if (method.getDeclaringClass().isInstance(target)) {
+                targets.add(target);
+            }
+        }
+        if (targets.size() < quorum) {
+            throw new QuorumException("Quorum of " + quorum + " cannot be reached by " + targets.size()
+                + " targets", 0, quorum);
+        }
+        final List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        for (final Object target : targets) {
+            futures.add(completionService.submit(new Callable<Object>() {
+                public Object call() throws IllegalAccessException, InvocationTargetException {
+                    return method.invoke(target, args);
+                }
+            }));
+        }
+        final List<Object> invocationResults = new ArrayList<Object>();
+        int answers = 0;
+        int failures = 0;
+        try {
+            while (answers < quorum) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    missedDeadlines.incrementAndGet();
+                    throw new QuorumException("Quorum of " + quorum + " not reached in time", answers, quorum);
+                }
+                final Future<Object> future = completionService.poll(remaining, TimeUnit.NANOSECONDS);
+                if (future != null) {
+                    try {
+                        final Object result = future.get();
+                        ++answers;
+                        if (result != null) {
+                            invocationResults.add(result);
+                        }
+                    } catch (final ExecutionException e) {
+                        if (++failures > futures.size() - quorum) {
+                            rethrow(e.getCause());
+                        }
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QuorumException("Interrupted while waiting for quorum of " + quorum, answers, quorum);
+        } finally {
+            cancel(futures);
+        }
+        return combine(method, invocationResults);
+    }
+
+    private static void rethrow(final Throwable cause) throws IllegalAccessException, InvocationTargetException {
+        if (cause instanceof InvocationTargetException) {
+            throw (InvocationTargetException)cause;
+        } else if (cause instanceof IllegalAccessException) {
+            throw (IllegalAccessException)cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException)cause;
+        } else if (cause instanceof Error) {
+            throw (Error)cause;
+        }
+        throw new InvocationTargetException(cause);
+    }
+
+    private void cancel(final List<Future<Object>> futures) {
+        for (final Future<Object> future : futures) {
+            if (!future.isDone()) {
+                future.cancel(false);
+                abandoned.incrementAndGet();
+            }
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = getDefaultExecutor();
+        }
+        return executor;
+    }
+
+    private static synchronized ExecutorService getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            final int threads = 4 * Runtime.getRuntime().availableProcessors();
+            defaultExecutor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "Quorum Multicast");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return defaultExecutor;
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        abandoned = new AtomicLong();
+        missedDeadlines = new AtomicLong();
+    }
+}
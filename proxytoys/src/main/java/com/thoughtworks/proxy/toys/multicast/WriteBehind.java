@@ -0,0 +1,60 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.multicast;
+
+/**
+ * Interface that is implemented additionally by all write-behind multicasting proxies. Cast the proxy to control the
+ * background delivery of the buffered void invocations.
+ *
+ * @see WriteBehindMulticastingInvoker
+ * @since 1.1
+ */
+public interface WriteBehind {
+
+    /**
+     * Wait until all void invocations buffered so far have been delivered to the targets.
+     *
+     * @since 1.1
+     */
+    void flushInvocations();
+
+    /**
+     * Deliver the buffered void invocations and stop the background delivery. Any further void invocation is
+     * multicast directly in the calling thread.
+     *
+     * @since 1.1
+     */
+    void closeInvocations();
+
+    /**
+     * Retrieve the number of buffered invocations, that have not been delivered yet.
+     *
+     * @return the number of pending invocations
+     * @since 1.1
+     */
+    int getPendingInvocations();
+
+    /**
+     * Retrieve the number of invocations dropped because of a full buffer.
+     *
+     * @return the number of dropped invocations
+     * @since 1.1
+     */
+    long getDroppedInvocations();
+
+    /**
+     * Retrieve the number of invocations of a target, that have thrown during background delivery.
+     *
+     * @return the number of failed invocations
+     * @since 1.1
+     */
+    long getFailedInvocations();
+}
@@ -0,0 +1,185 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.multicast;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.thoughtworks.proxy.ProxyFactory;
+import com.thoughtworks.proxy.kit.BatchingConsumer;
+import com.thoughtworks.proxy.kit.RingBuffer;
+
+/**
+ * A {@link MulticastingInvoker} that delivers void invocations asynchronously. Any invocation of a method returning
+ * <code>void</code> is appended to a bounded {@link RingBuffer} and returns immediately. The background thread of a
+ * {@link BatchingConsumer} drains the buffer in batches and delivers each batch target by target, i.e. the order of the invocations is kept for every
+ * single target. Invocations of methods with a result are multicast synchronously as usual.
+ * <p>
+ * The proxy implements additionally {@link WriteBehind} to flush the buffer or to close the background delivery.
+ * The background thread is a daemon thread, it is started with the first buffered invocation and ends after a second
+ * without any. A proxy, that is no longer used, can therefore be collected even if it has never been closed. Every
+ * batch is delivered to a snapshot of the targets taken at the start of the batch.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class WriteBehindMulticastingInvoker<T> extends MulticastingInvoker<T> {
+    private static final long serialVersionUID = 1L;
+    private static final long BLOCK_NANOS = 50 * 1000;
+    private static final Method flushInvocations;
+    private static final Method closeInvocations;
+    private static final Method getPendingInvocations;
+    private static final Method getDroppedInvocations;
+    private static final Method getFailedInvocations;
+
+    static {
+        try {
+            flushInvocations = WriteBehind.class.getMethod("flushInvocations");
+            closeInvocations = WriteBehind.class.getMethod("closeInvocations");
+            getPendingInvocations = WriteBehind.class.getMethod("getPendingInvocations");
+            getDroppedInvocations = WriteBehind.class.getMethod("getDroppedInvocations");
+            getFailedInvocations = WriteBehind.class.getMethod("getFailedInvocations");
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e.toString());
+        }
+    }
+
+    private static final class Invocation {
+        private final Method method;
+        private final Object[] args;
+
+        private Invocation(final Method method, final Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+    }
+
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private transient volatile BatchingConsumer<Invocation> consumer;
+    private transient volatile long failed;
+    private transient AtomicLong dropped;
+
+    /**
+     * Construct a WriteBehindMulticastingInvoker.
+     *
+     * @param types          the implemented types
+     * @param proxyFactory   the {@link ProxyFactory} to use
+     * @param targets        the target instances where the proxy delegates a call
+     * @param capacity       the minimal capacity of the buffer for the void invocations
+     * @param overflowPolicy the policy for a void invocation if the buffer is full
+     * @throws IllegalArgumentException if the capacity is not positive
+     * @since 1.1
+     */
+    public WriteBehindMulticastingInvoker(
+            final Class<?>[] types, final ProxyFactory proxyFactory, final List<?> targets, final int capacity,
+            final OverflowPolicy overflowPolicy) {
+        super(types, proxyFactory, targets);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @Override
+    protected Class<?>[] getProxyTypes() {
+        final Class<?>[] types = super.getProxyTypes();
+        final Class<?>[] classes = new Class[types.length + 1];
+        System.arraycopy(types, 0, classes, 0, types.length);
+        classes[types.length] = WriteBehind.class;
+        return classes;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.equals(flushInvocations)) {
+            final BatchingConsumer<Invocation> delivery = consumer;
+            if (delivery != null) {
+                delivery.flush();
+            }
+            return null;
+        } else if (method.equals(closeInvocations)) {
+            getConsumer().close();
+            return null;
+        } else if (method.equals(getPendingInvocations)) {
+            final BatchingConsumer<Invocation> delivery = consumer;
+            return delivery == null ? 0 : delivery.size();
+        } else if (method.equals(getDroppedInvocations)) {
+            final AtomicLong counter = dropped;
+            return counter == null ? 0L : counter.get();
+        } else if (method.equals(getFailedInvocations)) {
+            return failed;
+        }
+        return super.invoke(proxy, method, args);
+    }
+
+    @Override
+    protected Object multicast(final Method method, final Object[] args)
+            throws IllegalAccessException, InvocationTargetException {
+        if (method.getReturnType() != void.class) {
+            return super.multicast(method, args);
+        }
+        final BatchingConsumer<Invocation> delivery = getConsumer();
+        if (delivery.isClosed()) {
+            return super.multicast(method, args);
+        }
+        final Invocation invocation = new Invocation(method, args);
+        while (!delivery.offer(invocation)) {
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                dropped.incrementAndGet();
+                return null;
+            } else if (overflowPolicy == OverflowPolicy.CALLER_RUNS || delivery.isClosed()) {
+                return super.multicast(method, args);
+            }
+            delivery.wakeUp();
+            LockSupport.parkNanos(BLOCK_NANOS);
+        }
+        return null;
+    }
+
+    private BatchingConsumer<Invocation> getConsumer() {
+        BatchingConsumer<Invocation> current = consumer;
+        if (current == null) {
+            synchronized (this) {
+                if (consumer == null) {
+                    dropped = new AtomicLong();
+                    consumer = new BatchingConsumer<Invocation>("WriteBehind Multicast", capacity) {
+                        @Override
+                        protected void consume(final List<Invocation> batch) {
+                            deliver(batch);
+                        }
+                    };
+                }
+                current = consumer;
+            }
+        }
+        return current;
+    }
+
+    private void deliver(final List<Invocation> batch) {
+        // the targets may be modified concurrently by the user
+        for (final Object target : getTargets().toArray()) {
+            for (final Invocation invocation : batch) {
+                if (invocation.method.getDeclaringClass().isInstance(target)) {
+                    try {
+                        invocation.method.invoke(target, invocation.args);
+                    } catch (final Throwable e) {
+                        failed++;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -71,12 +71,12 @@ public class PrivilegingInvoker<T> extends DelegatingInvoker<T> {
     }
 
     @Override
-    protected Object invokeOnDelegate(final Method method, final Object[] args)
+    protected Object invokeOnDelegate(final T delegate, final Method method, final Object[] args)
         throws InvocationTargetException {
         try {
             return executor.execute(new PrivilegedExceptionAction<Object>() {
                 public Object run() throws Exception {
-                    return PrivilegingInvoker.super.invokeOnDelegate(method, args);
+                    return PrivilegingInvoker.super.invokeOnDelegate(delegate, method, args);
                 }
             });
         } catch (PrivilegedActionException e) {
@@ -0,0 +1,68 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.throttle;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * A lock-free limit for the rate of calls. The limit keeps the theoretical arrival time of the next call and
+ * advances it with a compare-and-set by the interval of a call. A call arriving too early reserves the next free slot
+ * and waits for it. Up to the calls of one second may be made in a burst.
+ *
+ * @since 1.1
+ */
+final class RateLimit {
+    private static final long SECOND = 1000000000L;
+
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong arrival;
+
+    /**
+     * Construct a RateLimit.
+     *
+     * @param callsPerSecond the number of calls per second
+     */
+    RateLimit(final int callsPerSecond) {
+        interval = SECOND / callsPerSecond;
+        tolerance = SECOND - interval;
+        arrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Reserve a slot for a call.
+     *
+     * @param now     the current time in nanoseconds
+     * @param maxWait the maximum time in nanoseconds to wait for the slot, negative to wait without limit
+     * @return the time in nanoseconds to wait for the reserved slot or -1 if no slot is available in time
+     */
+    long reserve(final long now, final long maxWait) {
+        for (;;) {
+            final long current = arrival.get();
+            final long start = current - now > 0 ? current : now;
+            final long wait = Math.max(0, start - now - tolerance);
+            if (maxWait >= 0 && wait > maxWait) {
+                return -1;
+            }
+            if (arrival.compareAndSet(current, start + interval)) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * Give back a reserved slot, because the call has not been made.
+     */
+    void cancel() {
+        arrival.addAndGet(-interval);
+    }
+}
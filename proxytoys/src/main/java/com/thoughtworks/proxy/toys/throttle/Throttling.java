@@ -0,0 +1,183 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.throttle;
+
+import java.util.concurrent.TimeUnit;
+
+import com.thoughtworks.proxy.ProxyFactory;
+import com.thoughtworks.proxy.factory.StandardProxyFactory;
+import com.thoughtworks.proxy.kit.ReflectionUtils;
+import com.thoughtworks.proxy.kit.RejectionPolicy;
+
+
+/**
+ * Factory for proxies limiting the calls of a delegate. The proxy bounds the number of concurrent calls and the number
+ * of calls per second. It implements additionally {@link ThrottlingMonitor} to query the accepted and rejected calls
+ * and the time spent waiting for the limits.
+ *
+ * @see com.thoughtworks.proxy.toys.throttle
+ * @since 1.1
+ */
+public class Throttling<T> {
+    private Class<?>[] types;
+    private Object delegate;
+    private int maxConcurrentCalls;
+    private int callsPerSecond;
+    private boolean perMethod;
+    private long timeout;
+    private TimeUnit unit;
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.FAIL_FAST;
+
+    private Throttling(Class<?>[] types) {
+        this.types = types;
+    }
+
+    /**
+     * Creates a factory for proxies limiting the calls of a type.
+     *
+     * @param primaryType the type of the proxy
+     * @return a factory that will proxy instances of the supplied type
+     * @since 1.1
+     */
+    public static <T> ThrottlingWith<T> proxy(Class<T> primaryType) {
+        return new ThrottlingWith<T>(new Throttling<T>(new Class<?>[]{primaryType}));
+    }
+
+    /**
+     * Creates a factory for proxies limiting the calls of several types.
+     *
+     * @param primaryType the main type of the proxy
+     * @param types       the other types of the proxy
+     * @return a factory that will proxy instances of the supplied types
+     * @since 1.1
+     */
+    public static <T> ThrottlingWith<T> proxy(Class<T> primaryType, Class<?>... types) {
+        return new ThrottlingWith<T>(new Throttling<T>(ReflectionUtils.makeTypesArray(primaryType, types)));
+    }
+
+    public static class ThrottlingWith<T> {
+        private Throttling<T> throttling;
+
+        private ThrottlingWith(Throttling<T> throttling) {
+            this.throttling = throttling;
+        }
+
+        /**
+         * With this delegate.
+         *
+         * @param delegate the delegate implementing the types of the proxy
+         * @return the factory that will limit the calls of the supplied delegate
+         * @since 1.1
+         */
+        public ThrottlingBuild<T> with(Object delegate) {
+            throttling.delegate = delegate;
+            return new ThrottlingBuild<T>(throttling);
+        }
+    }
+
+    public static class ThrottlingBuild<T> {
+        private Throttling<T> throttling;
+
+        private ThrottlingBuild(Throttling<T> throttling) {
+            this.throttling = throttling;
+        }
+
+        /**
+         * Bound the number of concurrent calls.
+         *
+         * @param maxConcurrentCalls the maximum number of calls running concurrently in the delegate
+         * @return the factory that will bound the concurrent calls
+         * @since 1.1
+         */
+        public ThrottlingBuild<T> concurrent(int maxConcurrentCalls) {
+            throttling.maxConcurrentCalls = maxConcurrentCalls;
+            return this;
+        }
+
+        /**
+         * Bound the rate of the calls. Up to the calls of one second may be made in a burst.
+         *
+         * @param callsPerSecond the maximum number of calls per second
+         * @return the factory that will bound the rate of the calls
+         * @since 1.1
+         */
+        public ThrottlingBuild<T> rate(int callsPerSecond) {
+            throttling.callsPerSecond = callsPerSecond;
+            return this;
+        }
+
+        /**
+         * Apply the limits to each method separately. By default the limits apply to all methods of the proxy
+         * together.
+         *
+         * @return the factory that will limit the calls of each method separately
+         * @since 1.1
+         */
+        public ThrottlingBuild<T> perMethod() {
+            throttling.perMethod = true;
+            return this;
+        }
+
+        /**
+         * Wait for the limits. By default a call exceeding the limits is rejected immediately.
+         *
+         * @param timeout the time a call waits for the limits
+         * @param unit    the time unit of the timeout
+         * @return the factory that will let the calls wait for the limits
+         * @since 1.1
+         */
+        public ThrottlingBuild<T> waiting(long timeout, TimeUnit unit) {
+            throttling.timeout = timeout;
+            throttling.unit = unit;
+            return this;
+        }
+
+        /**
+         * Handle calls exceeding the limits with a special policy. By default such a call fails with a
+         * {@link java.util.concurrent.RejectedExecutionException}.
+         *
+         * @param rejectionPolicy the policy for calls exceeding the limits
+         * @return the factory that will handle calls exceeding the limits with the supplied policy
+         * @since 1.1
+         */
+        public ThrottlingBuild<T> rejecting(RejectionPolicy rejectionPolicy) {
+            throttling.rejectionPolicy = rejectionPolicy;
+            return this;
+        }
+
+        /**
+         * Create a limiting proxy using the {@link StandardProxyFactory}.
+         *
+         * @return the created proxy implementing the types and {@link ThrottlingMonitor}
+         * @since 1.1
+         */
+        public T build() {
+            return build(new StandardProxyFactory());
+        }
+
+        /**
+         * Create a limiting proxy using a special {@link ProxyFactory}.
+         *
+         * @param factory the {@link ProxyFactory} to use
+         * @return the created proxy implementing the types and {@link ThrottlingMonitor}
+         * @since 1.1
+         */
+        public T build(ProxyFactory factory) {
+            Class<?>[] types = new Class[throttling.types.length + 1];
+            System.arraycopy(throttling.types, 0, types, 0, throttling.types.length);
+            types[throttling.types.length] = ThrottlingMonitor.class;
+            ThrottlingInvoker invoker = new ThrottlingInvoker(
+                throttling.delegate, factory, throttling.maxConcurrentCalls, throttling.callsPerSecond,
+                throttling.perMethod, throttling.timeout, throttling.unit, throttling.rejectionPolicy);
+            return factory.<T>createProxy(invoker, types);
+        }
+    }
+}
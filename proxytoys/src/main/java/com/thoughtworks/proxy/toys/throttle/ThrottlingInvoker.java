@@ -0,0 +1,278 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.throttle;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.thoughtworks.proxy.Invoker;
+import com.thoughtworks.proxy.ProxyFactory;
+import com.thoughtworks.proxy.kit.RejectionPolicy;
+import com.thoughtworks.proxy.toys.nullobject.Null;
+
+
+/**
+ * {@link Invoker} limiting the calls of a delegate. The invoker bounds the number of concurrent calls (a bulkhead)
+ * and the number of calls per second. The limits apply either to all methods of the proxy together or to each method
+ * separately. Calls of methods declared by {@link Object} are not limited.
+ * <p>
+ * A call exceeding a limit waits up to a timeout for a free slot, before it is handled by the {@link RejectionPolicy}:
+ * </p>
+ * <ul>
+ * <li>{@link RejectionPolicy#BLOCK} waits without timeout</li>
+ * <li>{@link RejectionPolicy#FAIL_FAST} throws a {@link RejectedExecutionException}</li>
+ * <li>{@link RejectionPolicy#NULL_RESULT} returns a {@linkplain Null null object}</li>
+ * <li>{@link RejectionPolicy#CALLER_RUNS} passes the call to the delegate anyway, the limits are only monitored</li>
+ * </ul>
+ * <p>
+ * The concurrent calls are bounded by a non-fair {@link Semaphore}, the rate limit is lock-free. Waiting callers are
+ * parked without holding a monitor and can therefore be virtual threads. A call rejected after its rate slot has been
+ * reserved gives the slot back. An interrupted caller stops waiting and is rejected, with {@link RejectionPolicy#BLOCK}
+ * it receives an {@link InterruptedException} if the method declares it, otherwise a
+ * {@link RejectedExecutionException} and the interrupt status is kept. The proxy implements additionally
+ * {@link ThrottlingMonitor}. The limits and the statistics are not serialized.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class ThrottlingInvoker implements Invoker {
+    private static final long serialVersionUID = 1L;
+
+    private final Object delegate;
+    private final ProxyFactory proxyFactory;
+    private final int maxConcurrentCalls;
+    private final int callsPerSecond;
+    private final boolean perMethod;
+    private final long timeout;
+    private final RejectionPolicy rejectionPolicy;
+    private transient volatile State state;
+
+    private static final class State {
+        private final ConcurrentMap<Method, Limit> limits = new ConcurrentHashMap<Method, Limit>();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicLong accepted = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong totalWait = new AtomicLong();
+        private final AtomicLong maxWait = new AtomicLong();
+        private volatile Limit limit;
+    }
+
+    private static final class Limit {
+        private final Semaphore permits;
+        private final RateLimit rate;
+
+        private Limit(final int maxConcurrentCalls, final int callsPerSecond) {
+            permits = maxConcurrentCalls == 0 ? null : new Semaphore(maxConcurrentCalls);
+            rate = callsPerSecond == 0 ? null : new RateLimit(callsPerSecond);
+        }
+
+        private boolean acquire(final long start, final long timeout, final boolean timed) {
+            if (rate != null) {
+                final long wait = rate.reserve(start, timed ? timeout : -1);
+                if (wait < 0) {
+                    return false;
+                }
+                final long slot = start + wait;
+                for (long remaining = wait; remaining > 0; remaining = slot - System.nanoTime()) {
+                    LockSupport.parkNanos(remaining);
+                    if (Thread.currentThread().isInterrupted()) {
+                        rate.cancel();
+                        return false;
+                    }
+                }
+            }
+            if (permits == null || permits.tryAcquire()) {
+                return true;
+            }
+            boolean acquired;
+            try {
+                if (timed) {
+                    final long remaining = start + timeout - System.nanoTime();
+                    acquired = remaining > 0 && permits.tryAcquire(remaining, TimeUnit.NANOSECONDS);
+                } else {
+                    permits.acquire();
+                    acquired = true;
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired && rate != null) {
+                // a rejected call must not use up the rate
+                rate.cancel();
+            }
+            return acquired;
+        }
+
+        private void release() {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Construct a ThrottlingInvoker.
+     *
+     * @param delegate           the delegate
+     * @param proxyFactory       the {@link ProxyFactory} for the null objects of rejected calls
+     * @param maxConcurrentCalls the maximum number of concurrent calls, 0 for no limit
+     * @param callsPerSecond     the maximum number of calls per second, 0 for no limit
+     * @param perMethod          <code>true</code> to limit the calls of each method separately
+     * @param timeout            the time a call waits for the limits
+     * @param unit               the time unit of the timeout
+     * @param rejectionPolicy    the policy for calls exceeding the limits
+     * @throws IllegalArgumentException if a limit or the timeout is negative
+     * @since 1.1
+     */
+    public ThrottlingInvoker(
+        final Object delegate, final ProxyFactory proxyFactory, final int maxConcurrentCalls,
+        final int callsPerSecond, final boolean perMethod, final long timeout, final TimeUnit unit,
+        final RejectionPolicy rejectionPolicy) {
+        if (maxConcurrentCalls < 0) {
+            throw new IllegalArgumentException("Maximum of concurrent calls must not be negative: " + maxConcurrentCalls);
+        }
+        if (callsPerSecond < 0 || callsPerSecond > 1000000000) {
+            throw new IllegalArgumentException("Calls per second out of range: " + callsPerSecond);
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Timeout must not be negative: " + timeout);
+        }
+        this.delegate = delegate;
+        this.proxyFactory = proxyFactory;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.callsPerSecond = callsPerSecond;
+        this.perMethod = perMethod;
+        this.timeout = timeout == 0 ? 0 : unit.toNanos(timeout);
+        this.rejectionPolicy = rejectionPolicy == null ? RejectionPolicy.FAIL_FAST : rejectionPolicy;
+    }
+
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == ThrottlingMonitor.class) {
+            return monitor(method);
+        }
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeDelegate(method, args);
+        }
+        final State state = getState();
+        final Limit limit = getLimit(state, method);
+        final long start = System.nanoTime();
+        final boolean acquired = limit.acquire(start, timeout, rejectionPolicy != RejectionPolicy.BLOCK);
+        recordWait(state, System.nanoTime() - start);
+        if (!acquired) {
+            state.rejected.incrementAndGet();
+            switch (rejectionPolicy) {
+            case BLOCK:
+                // a call waiting without timeout is rejected only if interrupted
+                throw interrupted(method);
+            case CALLER_RUNS:
+                return invokeDelegate(method, args);
+            case NULL_RESULT:
+                final Class<?> returnType = method.getReturnType();
+                return returnType == void.class ? null : Null.proxy(returnType).build(proxyFactory);
+            default:
+                throw new RejectedExecutionException("Limit exceeded for call of " + method.getName());
+            }
+        }
+        state.accepted.incrementAndGet();
+        state.active.incrementAndGet();
+        try {
+            return invokeDelegate(method, args);
+        } finally {
+            state.active.decrementAndGet();
+            limit.release();
+        }
+    }
+
+    private static Exception interrupted(final Method method) {
+        final String message = "Interrupted while waiting for call of " + method.getName();
+        for (final Class<?> type : method.getExceptionTypes()) {
+            if (type.isAssignableFrom(InterruptedException.class)) {
+                // the exception replaces the interrupt status
+                Thread.interrupted();
+                return new InterruptedException(message);
+            }
+        }
+        return new RejectedExecutionException(message);
+    }
+
+    private Object invokeDelegate(final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static void recordWait(final State state, final long nanos) {
+        state.totalWait.addAndGet(nanos);
+        long max;
+        while ((max = state.maxWait.get()) < nanos && !state.maxWait.compareAndSet(max, nanos)) {
+            // retry
+        }
+    }
+
+    private Limit getLimit(final State state, final Method method) {
+        if (!perMethod) {
+            return state.limit;
+        }
+        Limit limit = state.limits.get(method);
+        if (limit == null) {
+            final Limit newLimit = new Limit(maxConcurrentCalls, callsPerSecond);
+            limit = state.limits.putIfAbsent(method, newLimit);
+            if (limit == null) {
+                limit = newLimit;
+            }
+        }
+        return limit;
+    }
+
+    private Object monitor(final Method method) {
+        final State state = getState();
+        final String name = method.getName();
+        if (name.equals("getActiveCalls")) {
+            return state.active.get();
+        } else if (name.equals("getAcceptedCalls")) {
+            return state.accepted.get();
+        } else if (name.equals("getRejectedCalls")) {
+            return state.rejected.get();
+        } else if (name.equals("getTotalWaitNanos")) {
+            return state.totalWait.get();
+        } else {
+            return state.maxWait.get();
+        }
+    }
+
+    private State getState() {
+        State current = state;
+        if (current == null) {
+            synchronized (this) {
+                if (state == null) {
+                    final State newState = new State();
+                    if (!perMethod) {
+                        newState.limit = new Limit(maxConcurrentCalls, callsPerSecond);
+                    }
+                    state = newState;
+                }
+                current = state;
+            }
+        }
+        return current;
+    }
+}
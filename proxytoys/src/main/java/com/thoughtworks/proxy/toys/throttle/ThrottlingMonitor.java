@@ -0,0 +1,60 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.throttle;
+
+/**
+ * Monitor for the calls of a proxy created by the {@link Throttling} toy. Any such proxy implements this interface
+ * additionally. The numbers cover all methods of the proxy.
+ *
+ * @since 1.1
+ */
+public interface ThrottlingMonitor {
+
+    /**
+     * Retrieve the number of calls currently running in the delegate.
+     *
+     * @return the number of active calls
+     * @since 1.1
+     */
+    int getActiveCalls();
+
+    /**
+     * Retrieve the number of calls passed to the delegate within the limits.
+     *
+     * @return the number of accepted calls
+     * @since 1.1
+     */
+    long getAcceptedCalls();
+
+    /**
+     * Retrieve the number of calls exceeding the limits, that have been handled by the rejection policy.
+     *
+     * @return the number of rejected calls
+     * @since 1.1
+     */
+    long getRejectedCalls();
+
+    /**
+     * Retrieve the total time the calls have waited for the limits.
+     *
+     * @return the time in nanoseconds
+     * @since 1.1
+     */
+    long getTotalWaitNanos();
+
+    /**
+     * Retrieve the longest time a call has waited for the limits.
+     *
+     * @return the time in nanoseconds
+     * @since 1.1
+     */
+    long getMaxWaitNanos();
+}
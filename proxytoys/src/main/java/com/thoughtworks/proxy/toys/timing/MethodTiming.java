@@ -0,0 +1,91 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.timing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.thoughtworks.proxy.kit.LatencyHistogram;
+
+
+/**
+ * The lock-free timing of a single method. The counters are striped by thread to reduce the contention of concurrent
+ * callers, recording a call does not allocate any memory.
+ *
+ * @since 1.1
+ */
+final class MethodTiming {
+    private static final int STRIPES = 4;
+    // the counters of a stripe fill a cache line of 64 bytes
+    private static final int STRIDE = 8;
+    private static final int ERRORS = 0;
+    private static final int TOTAL = 1;
+    private static final int MAX = 2;
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[STRIPES];
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES * STRIDE);
+
+    MethodTiming() {
+        for (int i = 0; i < STRIPES; i++) {
+            histograms[i] = new LatencyHistogram(TimingSnapshot.SUB_BUCKET_BITS);
+        }
+    }
+
+    /**
+     * Record a call.
+     *
+     * @param nanos  the latency of the call
+     * @param failed <code>true</code> if the call has thrown an exception
+     */
+    void record(final long nanos, final boolean failed) {
+        final long latency = nanos < 0 ? 0 : nanos;
+        final int stripe = (int)Thread.currentThread().getId() & (STRIPES - 1);
+        // the histogram counts the calls
+        histograms[stripe].record(latency);
+        final int base = stripe * STRIDE;
+        if (failed) {
+            counters.incrementAndGet(base + ERRORS);
+        }
+        counters.addAndGet(base + TOTAL, latency);
+        long max;
+        while ((max = counters.get(base + MAX)) < latency && !counters.compareAndSet(base + MAX, max, latency)) {
+            // retry
+        }
+    }
+
+    /**
+     * Take a snapshot of the timing.
+     *
+     * @param reset <code>true</code> to reset the timing
+     * @return the snapshot
+     */
+    TimingSnapshot snapshot(final boolean reset) {
+        final long[] counts = histograms[0].getCounts(reset);
+        for (int stripe = 1; stripe < STRIPES; stripe++) {
+            final long[] stripeCounts = histograms[stripe].getCounts(reset);
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += stripeCounts[i];
+            }
+        }
+        long calls = 0;
+        for (final long count : counts) {
+            calls += count;
+        }
+        long errors = 0;
+        long total = 0;
+        long max = 0;
+        for (int base = 0; base < counters.length(); base += STRIDE) {
+            errors += reset ? counters.getAndSet(base + ERRORS, 0) : counters.get(base + ERRORS);
+            total += reset ? counters.getAndSet(base + TOTAL, 0) : counters.get(base + TOTAL);
+            max = Math.max(max, reset ? counters.getAndSet(base + MAX, 0) : counters.get(base + MAX));
+        }
+        return new TimingSnapshot(calls, errors, total, max, counts);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.timing;
+
+import java.util.concurrent.TimeUnit;
+
+import com.thoughtworks.proxy.ProxyFactory;
+import com.thoughtworks.proxy.factory.StandardProxyFactory;
+import com.thoughtworks.proxy.kit.ReflectionUtils;
+
+
+/**
+ * Factory for proxies measuring the latency of the calls of a delegate. The proxy records for every method the number
+ * of calls, the number of failed calls and a latency histogram. It implements additionally {@link TimingMonitor} to
+ * query and reset the timings.
+ *
+ * @see com.thoughtworks.proxy.toys.timing
+ * @since 1.1
+ */
+public class Timing<T> {
+    private Class<?>[] types;
+    private Object delegate;
+    private TimingReporter reporter;
+    private long period;
+    private TimeUnit unit;
+
+    private Timing(Class<?>[] types) {
+        this.types = types;
+    }
+
+    /**
+     * Creates a factory for proxies measuring the calls of a type.
+     *
+     * @param primaryType the type of the proxy
+     * @return a factory that will proxy instances of the supplied type
+     * @since 1.1
+     */
+    public static <T> TimingWith<T> proxy(Class<T> primaryType) {
+        return new TimingWith<T>(new Timing<T>(new Class<?>[]{primaryType}));
+    }
+
+    /**
+     * Creates a factory for proxies measuring the calls of several types.
+     *
+     * @param primaryType the main type of the proxy
+     * @param types       the other types of the proxy
+     * @return a factory that will proxy instances of the supplied types
+     * @since 1.1
+     */
+    public static <T> TimingWith<T> proxy(Class<T> primaryType, Class<?>... types) {
+        return new TimingWith<T>(new Timing<T>(ReflectionUtils.makeTypesArray(primaryType, types)));
+    }
+
+    public static class TimingWith<T> {
+        private Timing<T> timing;
+
+        private TimingWith(Timing<T> timing) {
+            this.timing = timing;
+        }
+
+        /**
+         * With this delegate.
+         *
+         * @param delegate the delegate implementing the types of the proxy
+         * @return the factory that will measure the calls of the supplied delegate
+         * @since 1.1
+         */
+        public TimingBuild<T> with(Object delegate) {
+            timing.delegate = delegate;
+            return new TimingBuild<T>(timing);
+        }
+    }
+
+    public static class TimingBuild<T> {
+        private Timing<T> timing;
+
+        private TimingBuild(Timing<T> timing) {
+            this.timing = timing;
+        }
+
+        /**
+         * Report the timings periodically. The reporter receives the timings of the last period, i.e. the timings are
+         * reset with every report.
+         *
+         * @param reporter the reporter
+         * @param period   the period of the reports
+         * @param unit     the time unit of the period
+         * @return the factory that will report the timings periodically
+         * @since 1.1
+         */
+        public TimingBuild<T> reporting(TimingReporter reporter, long period, TimeUnit unit) {
+            timing.reporter = reporter;
+            timing.period = period;
+            timing.unit = unit;
+            return this;
+        }
+
+        /**
+         * Create a measuring proxy using the {@link StandardProxyFactory}.
+         *
+         * @return the created proxy implementing the types and {@link TimingMonitor}
+         * @since 1.1
+         */
+        public T build() {
+            return build(new StandardProxyFactory());
+        }
+
+        /**
+         * Create a measuring proxy using a special {@link ProxyFactory}.
+         *
+         * @param factory the {@link ProxyFactory} to use
+         * @return the created proxy implementing the types and {@link TimingMonitor}
+         * @since 1.1
+         */
+        public T build(ProxyFactory factory) {
+            Class<?>[] types = new Class[timing.types.length + 1];
+            System.arraycopy(timing.types, 0, types, 0, timing.types.length);
+            types[timing.types.length] = TimingMonitor.class;
+            TimingInvoker invoker = new TimingInvoker(timing.delegate, timing.reporter, timing.period, timing.unit);
+            return factory.<T>createProxy(invoker, types);
+        }
+    }
+}
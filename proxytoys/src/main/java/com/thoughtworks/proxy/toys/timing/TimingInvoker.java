@@ -0,0 +1,157 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.timing;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.thoughtworks.proxy.Invoker;
+import com.thoughtworks.proxy.kit.SharedTimer;
+
+
+/**
+ * {@link Invoker} measuring the calls of a delegate. For every called method the invoker records the number of calls,
+ * the number of failed calls and a histogram of the latencies. The proxy implements additionally {@link TimingMonitor}
+ * to query and reset the timings.
+ * <p>
+ * An optional {@link TimingReporter} is called periodically by a shared daemon thread with the timings of the last
+ * period. The reporting ends, when the proxy is no longer referenced. The timings and the reporting are not
+ * serialized.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class TimingInvoker implements Invoker {
+    private static final long serialVersionUID = 1L;
+
+    private final Object delegate;
+    private transient volatile ConcurrentMap<Method, MethodTiming> timings;
+
+    /**
+     * Construct a TimingInvoker.
+     *
+     * @param delegate the delegate
+     * @since 1.1
+     */
+    public TimingInvoker(final Object delegate) {
+        this(delegate, null, 0, null);
+    }
+
+    /**
+     * Construct a TimingInvoker reporting periodically.
+     *
+     * @param delegate the delegate
+     * @param reporter the reporter for the timings, may be <code>null</code> for no reporting
+     * @param period   the period of the reports
+     * @param unit     the time unit of the period
+     * @throws IllegalArgumentException if a reporter is given with a period that is not positive
+     * @since 1.1
+     */
+    public TimingInvoker(final Object delegate, final TimingReporter reporter, final long period, final TimeUnit unit) {
+        this.delegate = delegate;
+        if (reporter != null) {
+            if (period <= 0) {
+                throw new IllegalArgumentException("Period must be positive: " + period);
+            }
+            final Report report = new Report(this, reporter);
+            report.future = SharedTimer.getTimer().scheduleAtFixedRate(report, period, period, unit);
+        }
+    }
+
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == TimingMonitor.class) {
+            return snapshot(method.getName().equals("resetTimings"));
+        }
+        final MethodTiming timing = getTiming(method);
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final Object result = method.invoke(delegate, args);
+            failed = false;
+            return result;
+        } catch (final InvocationTargetException e) {
+            throw e.getTargetException();
+        } finally {
+            timing.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private MethodTiming getTiming(final Method method) {
+        final ConcurrentMap<Method, MethodTiming> map = getTimings();
+        MethodTiming timing = map.get(method);
+        if (timing == null) {
+            final MethodTiming newTiming = new MethodTiming();
+            timing = map.putIfAbsent(method, newTiming);
+            if (timing == null) {
+                timing = newTiming;
+            }
+        }
+        return timing;
+    }
+
+    private ConcurrentMap<Method, MethodTiming> getTimings() {
+        ConcurrentMap<Method, MethodTiming> map = timings;
+        if (map == null) {
+            synchronized (this) {
+                if (timings == null) {
+                    timings = new ConcurrentHashMap<Method, MethodTiming>();
+                }
+                map = timings;
+            }
+        }
+        return map;
+    }
+
+    private Map<Method, TimingSnapshot> snapshot(final boolean reset) {
+        final Map<Method, TimingSnapshot> snapshots = new HashMap<Method, TimingSnapshot>();
+        for (final Map.Entry<Method, MethodTiming> entry : getTimings().entrySet()) {
+            snapshots.put(entry.getKey(), entry.getValue().snapshot(reset));
+        }
+        return snapshots;
+    }
+
+    /**
+     * The periodic report. The report does not keep the invoker alive and cancels itself, when the invoker has been
+     * collected.
+     */
+    private static final class Report implements Runnable {
+        private final WeakReference<TimingInvoker> invoker;
+        private final TimingReporter reporter;
+        private volatile ScheduledFuture<?> future;
+
+        private Report(final TimingInvoker invoker, final TimingReporter reporter) {
+            this.invoker = new WeakReference<TimingInvoker>(invoker);
+            this.reporter = reporter;
+        }
+
+        public void run() {
+            final TimingInvoker timingInvoker = invoker.get();
+            if (timingInvoker == null) {
+                if (future != null) {
+                    future.cancel(false);
+                }
+                return;
+            }
+            try {
+                reporter.report(timingInvoker.snapshot(true));
+            } catch (final RuntimeException e) {
+                // a failing reporter must not end the periodic reports
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.timing;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+
+/**
+ * Monitor for the timings of a proxy created by the {@link Timing} toy. Any such proxy implements this interface
+ * additionally.
+ *
+ * @since 1.1
+ */
+public interface TimingMonitor {
+
+    /**
+     * Retrieve the timings of all called methods since the proxy was created or the timings were reset.
+     *
+     * @return a snapshot for each called method
+     * @since 1.1
+     */
+    Map<Method, TimingSnapshot> getTimings();
+
+    /**
+     * Reset the timings of all methods. A call running concurrently may be accounted for either interval.
+     *
+     * @return a snapshot for each called method taken at the time of the reset
+     * @since 1.1
+     */
+    Map<Method, TimingSnapshot> resetTimings();
+}
@@ -0,0 +1,33 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.timing;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+
+/**
+ * Reporter for the timings of a proxy created by the {@link Timing} toy. The reporter is called periodically with the
+ * timings of the last period. It runs on the {@linkplain com.thoughtworks.proxy.kit.SharedTimer shared timer} of the
+ * toys and should therefore return quickly.
+ *
+ * @since 1.1
+ */
+public interface TimingReporter {
+
+    /**
+     * Report the timings of a period.
+     *
+     * @param timings a snapshot for each method called so far
+     * @since 1.1
+     */
+    void report(Map<Method, TimingSnapshot> timings);
+}
@@ -0,0 +1,131 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.timing;
+
+import java.io.Serializable;
+
+import com.thoughtworks.proxy.kit.LatencyHistogram;
+
+
+/**
+ * An immutable snapshot of the timing of a method.
+ * <p>
+ * The latencies are kept in logarithmic buckets, every power of two is divided into eight linear sub-buckets. A
+ * percentile is reported as upper bound of its bucket and has therefore a relative error of at most 12.5 percent.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class TimingSnapshot implements Serializable {
+    private static final long serialVersionUID = 1L;
+    static final int SUB_BUCKET_BITS = 3;
+
+    private final long calls;
+    private final long errors;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] buckets;
+
+    TimingSnapshot(final long calls, final long errors, final long totalNanos, final long maxNanos, final long[] buckets) {
+        this.calls = calls;
+        this.errors = errors;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.buckets = buckets;
+    }
+
+    /**
+     * Retrieve the number of calls.
+     *
+     * @return the number of calls
+     * @since 1.1
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Retrieve the number of calls that have thrown an exception.
+     *
+     * @return the number of failed calls
+     * @since 1.1
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Retrieve the total time spent in the calls.
+     *
+     * @return the time in nanoseconds
+     * @since 1.1
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Retrieve the mean latency of the calls.
+     *
+     * @return the latency in nanoseconds or 0 if no call has been made
+     * @since 1.1
+     */
+    public long getMeanNanos() {
+        return calls == 0 ? 0 : totalNanos / calls;
+    }
+
+    /**
+     * Retrieve the maximum latency of the calls.
+     *
+     * @return the latency in nanoseconds or 0 if no call has been made
+     * @since 1.1
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Estimate a percentile of the latencies.
+     *
+     * @param percentile the percentile as fraction between 0 and 1
+     * @return the latency in nanoseconds or 0 if no call has been made
+     * @since 1.1
+     */
+    public long getPercentile(final double percentile) {
+        long total = 0;
+        for (final long count : buckets) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long)Math.ceil(percentile * total));
+        long sum = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            sum += buckets[i];
+            if (sum >= rank) {
+                return Math.min(LatencyHistogram.upperBoundOf(SUB_BUCKET_BITS, i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "calls=" + calls
+            + ", errors=" + errors
+            + ", mean=" + getMeanNanos()
+            + "ns, p50=" + getPercentile(0.5)
+            + "ns, p99=" + getPercentile(0.99)
+            + "ns, max=" + maxNanos
+            + "ns";
+    }
+}
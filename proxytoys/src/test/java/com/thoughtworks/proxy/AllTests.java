@@ -17,6 +17,8 @@ import com.thoughtworks.proxy.factory.CglibProxyFactory;
 import com.thoughtworks.proxy.factory.CglibProxyFactoryTest;
 import com.thoughtworks.proxy.factory.StandardProxyFactory;
 import com.thoughtworks.proxy.kit.ReflectionUtilsTest;
+import com.thoughtworks.proxy.toys.async.AsyncTest;
+import com.thoughtworks.proxy.toys.caching.CachingTest;
 import com.thoughtworks.proxy.toys.decorate.DecoratingTest;
 import com.thoughtworks.proxy.toys.delegate.DelegatingTest;
 import com.thoughtworks.proxy.toys.dispatch.DispatchingTest;
@@ -32,6 +34,8 @@ import com.thoughtworks.proxy.toys.nullobject.CglibNullTest;
 import com.thoughtworks.proxy.toys.nullobject.NullTest;
 import com.thoughtworks.proxy.toys.pool.PoolTest;
 import com.thoughtworks.proxy.toys.privilege.PrivilegingTest;
+import com.thoughtworks.proxy.toys.throttle.ThrottlingTest;
+import com.thoughtworks.proxy.toys.timing.TimingTest;
 
 
 /**
@@ -56,6 +60,8 @@ public class AllTests {
     @RunWith(Suite.class)
     @Suite.SuiteClasses({
             ProxyFactoryTest.class,
+            AsyncTest.class,
+            CachingTest.class,
             DecoratingTest.class,
             DelegatingTest.class,
             DispatchingTest.class,
@@ -66,7 +72,9 @@ public class AllTests {
             MulticastTest.class,
             NullTest.class,
             PoolTest.class,
-            PrivilegingTest.class
+            PrivilegingTest.class,
+            ThrottlingTest.class,
+            TimingTest.class
     })
     static class CglibSuite {
         public CglibSuite() {
@@ -77,6 +85,8 @@ public class AllTests {
     @RunWith(Suite.class)
     @Suite.SuiteClasses({
             ProxyFactoryTest.class,
+            AsyncTest.class,
+            CachingTest.class,
             DecoratingTest.class,
             DelegatingTest.class,
             DispatchingTest.class,
@@ -87,7 +97,9 @@ public class AllTests {
             MulticastTest.class,
             NullTest.class,
             PoolTest.class,
-            PrivilegingTest.class
+            PrivilegingTest.class,
+            ThrottlingTest.class,
+            TimingTest.class
     })
     static class StandardSuite {
         public StandardSuite() {
@@ -0,0 +1,173 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.thoughtworks.proxy.AbstractProxyTest;
+
+
+public class AsyncTest extends AbstractProxyTest {
+
+    public static interface Service {
+        String echo(String text) throws IOException;
+        int sleep(long millis) throws InterruptedException;
+    }
+
+    public static interface AsyncService {
+        Future<String> echo(String text);
+        AsyncResult<Integer> sleep(long millis);
+    }
+
+    public static interface IncompatibleService {
+        String echo(String text);
+    }
+
+    public static class ServiceImpl implements Service, Serializable {
+        public String echo(String text) throws IOException {
+            if (text == null) {
+                throw new IOException("no text");
+            }
+            return text;
+        }
+
+        public int sleep(long millis) throws InterruptedException {
+            Thread.sleep(millis);
+            return 1;
+        }
+    }
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldRunSynchronousMethodAsynchronously() throws Exception {
+        AsyncService service = Async.proxy(AsyncService.class).with(Service.class, new ServiceImpl())
+            .executing(executor).build(getFactory());
+        assertEquals("Hello", service.echo("Hello").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldProvideExceptionOfSynchronousMethod() throws Exception {
+        AsyncService service = Async.proxy(AsyncService.class).with(Service.class, new ServiceImpl())
+            .executing(executor).build(getFactory());
+        try {
+            service.echo(null).get(5, TimeUnit.SECONDS);
+            fail("Thrown " + ExecutionException.class.getName() + " expected");
+        } catch (ExecutionException e) {
+            assertEquals(IOException.class, e.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void shouldNotifyListenersWhenDone() throws Exception {
+        AsyncService service = Async.proxy(AsyncService.class).with(Service.class, new ServiceImpl())
+            .executing(executor).build(getFactory());
+        final CountDownLatch latch = new CountDownLatch(2);
+        Runnable listener = new Runnable() {
+            public void run() {
+                latch.countDown();
+            }
+        };
+        Executor direct = new Executor() {
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        AsyncResult<Integer> result = service.sleep(10);
+        result.addListener(listener, direct);
+        result.get(5, TimeUnit.SECONDS);
+        // a listener added to a completed call runs immediately
+        result.addListener(listener, direct);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldExpireCallsAfterTimeout() throws Exception {
+        AsyncService service = Async.proxy(AsyncService.class).with(Service.class, new ServiceImpl())
+            .executing(executor).timeout(50, TimeUnit.MILLISECONDS).build(getFactory());
+        try {
+            service.sleep(10000).get(5, TimeUnit.SECONDS);
+            fail("Thrown " + ExecutionException.class.getName() + " expected");
+        } catch (ExecutionException e) {
+            assertEquals(TimeoutException.class, e.getCause().getClass());
+        }
+        assertEquals(Integer.valueOf(1), service.sleep(0).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldCancelCalls() {
+        AsyncService service = Async.proxy(AsyncService.class).with(Service.class, new ServiceImpl())
+            .executing(executor).build(getFactory());
+        AsyncResult<Integer> result = service.sleep(10000);
+        assertTrue(result.cancel(true));
+        assertTrue(result.isCancelled());
+    }
+
+    @Test
+    public void shouldRejectIncompatibleTypes() {
+        try {
+            Async.proxy(IncompatibleService.class).with(Service.class, new ServiceImpl()).build(getFactory());
+            fail("Thrown " + IllegalArgumentException.class.getName() + " expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private AsyncService createSerializableService() {
+        return Async.proxy(AsyncService.class).with(Service.class, new ServiceImpl())
+            .executing(executor).timeout(5, TimeUnit.SECONDS).build(getFactory());
+    }
+
+    @Test
+    public void serializeWithJDK() throws Exception {
+        AsyncService service = serializeWithJDK(createSerializableService());
+        assertEquals("Hello", service.echo("Hello").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void serializeWithXStream() throws Exception {
+        AsyncService service = serializeWithXStream(createSerializableService());
+        assertEquals("Hello", service.echo("Hello").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void serializeWithXStreamInPureReflectionMode() throws Exception {
+        AsyncService service = serializeWithXStreamAndPureReflection(createSerializableService());
+        assertEquals("Hello", service.echo("Hello").get(5, TimeUnit.SECONDS));
+    }
+}
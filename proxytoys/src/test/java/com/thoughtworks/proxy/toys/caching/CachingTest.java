@@ -0,0 +1,227 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.caching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.thoughtworks.proxy.AbstractProxyTest;
+
+
+public class CachingTest extends AbstractProxyTest {
+
+    public static interface Service {
+        String compute(String text) throws IOException;
+        String current();
+        void reset();
+    }
+
+    public static class ServiceImpl implements Service {
+        final AtomicInteger calls = new AtomicInteger();
+        volatile CountDownLatch latch;
+
+        public String compute(String text) throws IOException {
+            calls.incrementAndGet();
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    throw new IOException("interrupted");
+                }
+            }
+            if (text == null) {
+                throw new IOException("no text");
+            }
+            return new String(text);
+        }
+
+        public String current() {
+            return "call " + calls.incrementAndGet();
+        }
+
+        public void reset() {
+            calls.set(0);
+        }
+    }
+
+    @Test
+    public void shouldReturnCachedResultOfEqualCall() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        Service service = Caching.proxy(Service.class).with(impl).build(getFactory());
+        String first = service.compute("a");
+        assertSame(first, service.compute("a"));
+        assertSame(first, service.compute(new String("a")));
+        service.compute("b");
+        assertEquals(2, impl.calls.get());
+        Cached cached = Cached.class.cast(service);
+        assertEquals(2, cached.getHits());
+        assertEquals(2, cached.getMisses());
+        assertEquals(0.5, cached.getHitRatio(), 0.0);
+        assertEquals(2, cached.getSize());
+    }
+
+    @Test
+    public void shouldNotCacheExceptions() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        Service service = Caching.proxy(Service.class).with(impl).build(getFactory());
+        for (int i = 0; i < 2; i++) {
+            try {
+                service.compute(null);
+                fail("Thrown " + IOException.class.getName() + " expected");
+            } catch (IOException e) {
+                assertEquals("no text", e.getMessage());
+            }
+        }
+        assertEquals(2, impl.calls.get());
+        assertEquals(0, Cached.class.cast(service).getSize());
+    }
+
+    @Test
+    public void shouldCacheOnlySelectedMethods() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        Service service = Caching.proxy(Service.class).with(impl).caching("compute").build(getFactory());
+        assertEquals("call 1", service.current());
+        assertEquals("call 2", service.current());
+        service.compute("a");
+        service.compute("a");
+        assertEquals(3, impl.calls.get());
+        service.reset();
+        assertEquals(0, impl.calls.get());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResult() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        Service service = Caching.proxy(Service.class).with(impl)
+            .evicting(EvictionPolicy.LRU, 2).build(getFactory());
+        service.compute("a");
+        service.compute("b");
+        service.compute("a");
+        service.compute("c");
+        assertEquals(3, impl.calls.get());
+        service.compute("a");
+        assertEquals(3, impl.calls.get());
+        service.compute("b");
+        assertEquals(4, impl.calls.get());
+        Cached cached = Cached.class.cast(service);
+        assertEquals(2, cached.getEvictions());
+        assertEquals(2, cached.getSize());
+    }
+
+    @Test
+    public void shouldEvictByWeight() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        Service service = Caching.proxy(Service.class).with(impl)
+            .evicting(EvictionPolicy.LRU, 4, new Weigher() {
+                public long weigh(Object key, Object result) {
+                    return ((String)result).length();
+                }
+            }).build(getFactory());
+        service.compute("aa");
+        service.compute("bb");
+        service.compute("ccccc");
+        service.compute("ccccc");
+        assertEquals(4, impl.calls.get());
+        service.compute("c");
+        assertEquals(2, Cached.class.cast(service).getSize());
+        assertEquals(1, Cached.class.cast(service).getEvictions());
+    }
+
+    @Test
+    public void shouldKeepFrequentlyUsedResultsDuringScan() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        Service service = Caching.proxy(Service.class).with(impl)
+            .evicting(EvictionPolicy.TINY_LFU, 100).build(getFactory());
+        for (int i = 0; i < 15; i++) {
+            service.compute("hot");
+        }
+        for (int i = 0; i < 500; i++) {
+            service.compute("cold " + i);
+        }
+        impl.calls.set(0);
+        service.compute("hot");
+        assertEquals(0, impl.calls.get());
+    }
+
+    @Test
+    public void shouldExpireResults() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        Service service = Caching.proxy(Service.class).with(impl)
+            .expiring(10, TimeUnit.MILLISECONDS).build(getFactory());
+        service.compute("a");
+        Thread.sleep(50);
+        service.compute("a");
+        assertEquals(2, impl.calls.get());
+    }
+
+    @Test
+    public void shouldInvalidateResults() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        Service service = Caching.proxy(Service.class).with(impl).build(getFactory());
+        service.compute("a");
+        service.compute("b");
+        Cached cached = Cached.class.cast(service);
+        cached.invalidate(Service.class.getMethod("compute", String.class), "a");
+        assertEquals(1, cached.getSize());
+        service.compute("a");
+        service.compute("b");
+        assertEquals(3, impl.calls.get());
+        cached.invalidateAll();
+        assertEquals(0, cached.getSize());
+        service.compute("b");
+        assertEquals(4, impl.calls.get());
+    }
+
+    @Test
+    public void shouldCoalesceConcurrentMisses() throws Exception {
+        final ServiceImpl impl = new ServiceImpl();
+        impl.latch = new CountDownLatch(1);
+        final Service service = Caching.proxy(Service.class).with(impl).build(getFactory());
+        final String[] results = new String[4];
+        Thread[] threads = new Thread[results.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        results[index] = service.compute("a");
+                    } catch (IOException e) {
+                        // results in null
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        while (impl.calls.get() == 0) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);
+        impl.latch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, impl.calls.get());
+        for (String result : results) {
+            assertSame(results[0], result);
+        }
+        Cached cached = Cached.class.cast(service);
+        assertEquals(4, cached.getHits() + cached.getMisses());
+    }
+}
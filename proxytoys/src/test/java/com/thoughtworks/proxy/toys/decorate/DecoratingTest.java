@@ -31,7 +31,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.thoughtworks.proxy.AbstractProxyTest;
+import com.thoughtworks.proxy.Invoker;
 import com.thoughtworks.proxy.mockito.SameArrayMatcher;
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.xml.XppDriver;
 
 /**
  * @author Dan North
@@ -193,4 +196,80 @@ public class DecoratingTest extends AbstractProxyTest {
         useSerializedProxy(serializeWithXStreamAndPureReflection(
         	Decorating.proxy(CharSequence.class).with("Test").visiting(new AssertingDecorator()).build(getFactory())));
     }
+
+    @Test
+    public void deserializeInvokerWithSingleDecoratorOfVersion10WithXStream() throws Throwable {
+        String xml = ""
+            + "<com.thoughtworks.proxy.toys.decorate.DecoratingInvoker>\n"
+            + "  <decorated class=\"com.thoughtworks.proxy.kit.SimpleInvoker\">\n"
+            + "    <target class=\"string\">Test</target>\n"
+            + "  </decorated>\n"
+            + "  <decorator class=\"com.thoughtworks.proxy.toys.decorate.DecoratingTest$AssertingDecorator\"/>\n"
+            + "</com.thoughtworks.proxy.toys.decorate.DecoratingInvoker>";
+        Invoker invoker = (Invoker)new XStream(new XppDriver()).fromXML(xml);
+        assertEquals("Test", invoker.invoke(null, CharSequence.class.getMethod("toString"), null));
+    }
+
+    static class TaggingDecorator extends Decorator<Foo> {
+        private static final long serialVersionUID = 1L;
+        private final String tag;
+
+        TaggingDecorator(String tag) {
+            this.tag = tag;
+        }
+
+        @Override
+        public Object[] beforeMethodStarts(Foo proxy, Method method, Object[] args) {
+            return new Object[]{args[0] + tag};
+        }
+
+        @Override
+        public Object decorateResult(Foo proxy, Method method, Object[] args, Object result) {
+            return result + tag;
+        }
+
+        @Override
+        public Throwable decorateTargetException(Foo proxy, Method method, Object[] args, Throwable cause) {
+            return new IllegalStateException(cause.getMessage() + tag);
+        }
+    }
+
+    public static class EchoFoo implements Foo {
+        public String getSomething(String arg) {
+            if (arg.startsWith("fail")) {
+                throw new IllegalArgumentException(arg);
+            }
+            return arg + "!";
+        }
+    }
+
+    @Test
+    public void shouldRunChainedDecoratorsLikeNestedProxies() {
+        Foo nested = Decorating.proxy(Foo.class)
+            .with(Decorating.proxy(Foo.class).with(new EchoFoo()).visiting(new TaggingDecorator("2")).build(getFactory()))
+            .visiting(new TaggingDecorator("1")).build(getFactory());
+        Foo fused = Decorating.proxy(Foo.class).with(new EchoFoo())
+            .visiting(new TaggingDecorator("1")).visiting(new TaggingDecorator("2")).build(getFactory());
+        assertEquals("x12!21", nested.getSomething("x"));
+        assertEquals(nested.getSomething("x"), fused.getSomething("x"));
+    }
+
+    @Test
+    public void shouldPassExceptionOfInnerDecoratorAsTargetExceptionToOuterDecorator() {
+        Foo fused = Decorating.proxy(Foo.class).with(new EchoFoo())
+            .visiting(new TaggingDecorator("1")).visiting(new TaggingDecorator("2")).build(getFactory());
+        try {
+            fused.getSomething("fail");
+            fail("Thrown " + IllegalStateException.class.getName() + " expected");
+        } catch (IllegalStateException e) {
+            assertEquals("fail1221", e.getMessage());
+        }
+    }
+
+    @Test
+    public void serializeChainWithXStream() {
+        Foo fused = Decorating.proxy(Foo.class).with(new EchoFoo())
+            .visiting(new TaggingDecorator("1")).visiting(new TaggingDecorator("2")).build(getFactory());
+        assertEquals("x12!21", serializeWithXStream(fused).getSomething("x"));
+    }
 }
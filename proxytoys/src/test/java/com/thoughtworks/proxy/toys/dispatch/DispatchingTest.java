@@ -26,6 +26,9 @@ import java.util.List;
 import org.junit.Test;
 
 import com.thoughtworks.proxy.AbstractProxyTest;
+import com.thoughtworks.proxy.Invoker;
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.xml.XppDriver;
 
 
 /**
@@ -180,6 +183,28 @@ public class DispatchingTest extends AbstractProxyTest {
     }
 
 
+    @Test
+    public void sameMethodIsDispatchedToFirstType() throws Exception {
+        Foo fooMock = mock(Foo.class);
+        FooMimic fooMimicMock = mock(FooMimic.class);
+
+        when(fooMock.getSomething()).thenReturn("foo");
+        when(fooMimicMock.getSomething()).thenReturn("mimic");
+
+        Object proxy = Dispatching.proxy(Foo.class, FooMimic.class).with(fooMock, fooMimicMock).build(getFactory());
+
+        assertEquals("foo", ((Foo) proxy).getSomething());
+        assertEquals("foo", ((FooMimic) proxy).getSomething());
+    }
+
+    @Test
+    public void toStringIsDispatchedToFirstTypeDeclaringIt() throws Exception {
+        Object proxy = Dispatching.proxy(Runnable.class, CharSequence.class).with(
+            Thread.currentThread(), "Hello").build(getFactory());
+
+        assertEquals("Hello", proxy.toString());
+    }
+
     private void useSerializedProxy(CharSequence sequence) {
         assertEquals("Test", sequence.toString());
     }
@@ -199,4 +224,66 @@ public class DispatchingTest extends AbstractProxyTest {
         useSerializedProxy(serializeWithXStreamAndPureReflection(
                 Dispatching.proxy(CharSequence.class).with("Test").build(getFactory())));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void serializeWithJDKResolvesMethodsOfAllTypes() throws IOException, ClassNotFoundException {
+        Object proxy = Dispatching.proxy(CharSequence.class, Comparable.class, List.class).with(
+            "Test", new ArrayList<String>()).build(getFactory());
+        Object serialized = serializeWithJDK(proxy);
+
+        useSerializedProxy((CharSequence)serialized);
+        assertEquals(0, ((Comparable<String>)serialized).compareTo("Test"));
+        assertTrue(((List<String>)serialized).isEmpty());
+    }
+
+    @Test
+    public void deserializeInvokerOfVersion10WithXStream() throws Throwable {
+        String xml = ""
+            + "<com.thoughtworks.proxy.toys.dispatch.DispatchingInvoker serialization=\"custom\">\n"
+            + "  <com.thoughtworks.proxy.toys.dispatch.DispatchingInvoker>\n"
+            + "    <default>\n"
+            + "      <invokers>\n"
+            + "        <com.thoughtworks.proxy.toys.delegate.DelegatingInvoker serialization=\"custom\">\n"
+            + "          <com.thoughtworks.proxy.toys.delegate.DelegatingInvoker>\n"
+            + "            <default>\n"
+            + "              <delegateReference class=\"com.thoughtworks.proxy.kit.SimpleReference\">\n"
+            + "                <instance class=\"string\">Test</instance>\n"
+            + "              </delegateReference>\n"
+            + "              <delegationMode>DIRECT</delegationMode>\n"
+            + "              <proxyFactory class=\"com.thoughtworks.proxy.factory.StandardProxyFactory\"/>\n"
+            + "            </default>\n"
+            + "          </com.thoughtworks.proxy.toys.delegate.DelegatingInvoker>\n"
+            + "        </com.thoughtworks.proxy.toys.delegate.DelegatingInvoker>\n"
+            + "      </invokers>\n"
+            + "      <types class=\"java.util.Arrays$ArrayList\">\n"
+            + "        <a class=\"java-class-array\">\n"
+            + "          <java-class>java.lang.CharSequence</java-class>\n"
+            + "        </a>\n"
+            + "      </types>\n"
+            + "    </default>\n"
+            + "    <list-array>\n"
+            + "      <list>\n"
+            + "        <java-class>java.lang.CharSequence</java-class>\n"
+            + "        <java-class>java.lang.CharSequence</java-class>\n"
+            + "      </list>\n"
+            + "    </list-array>\n"
+            + "    <list-array>\n"
+            + "      <list>\n"
+            + "        <string>length</string>\n"
+            + "        <string>toString</string>\n"
+            + "      </list>\n"
+            + "    </list-array>\n"
+            + "    <list-array>\n"
+            + "      <list>\n"
+            + "        <java-class-array/>\n"
+            + "        <java-class-array/>\n"
+            + "      </list>\n"
+            + "    </list-array>\n"
+            + "  </com.thoughtworks.proxy.toys.dispatch.DispatchingInvoker>\n"
+            + "</com.thoughtworks.proxy.toys.dispatch.DispatchingInvoker>";
+        Invoker invoker = (Invoker)new XStream(new XppDriver()).fromXML(xml);
+        assertEquals(4, invoker.invoke(null, CharSequence.class.getMethod("length"), null));
+        assertEquals("Test", invoker.invoke(null, CharSequence.class.getMethod("toString"), null));
+    }
 }
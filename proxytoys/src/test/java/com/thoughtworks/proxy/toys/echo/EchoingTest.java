@@ -12,16 +12,23 @@ package com.thoughtworks.proxy.toys.echo;
 
 import static junit.framework.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.concurrent.CountDownLatch;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import com.thoughtworks.proxy.AbstractProxyTest;
 
@@ -115,6 +122,303 @@ public class EchoingTest extends AbstractProxyTest {
         assertContains("Inner.getName()", out);
     }
 
+    @Test
+    public void shouldEchoAsynchronouslyIntoBuffer() throws Exception {
+        // setup
+        StringWriter out = new StringWriter();
+        EchoBuffer buffer = new EchoBuffer(new PrintWriter(out), 16);
+        Outer outer = Echoing.proxy(Outer.class).to(buffer).build(getFactory());
+
+        // execute
+        outer.getInner().getName();
+        buffer.flush();
+
+        // verify
+        assertContains("Outer.getInner()", out);
+        assertContains("Inner.getName() --> <NULL>", out);
+        assertEquals(0, buffer.getPendingRecords());
+        assertEquals(0, buffer.getDroppedRecords());
+        buffer.close();
+    }
+
+    @Test
+    public void shouldDropRecordsIfBufferIsFull() throws Exception {
+        // setup
+        final CountDownLatch latch = new CountDownLatch(1);
+        StringWriter out = new StringWriter() {
+            @Override
+            public void flush() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        EchoBuffer buffer = new EchoBuffer(new PrintWriter(out), 2);
+        Simple foo = Echoing.proxy(Simple.class).with(simpleMock).to(buffer).build(getFactory());
+
+        // execute
+        for (int i = 0; i < 10; i++) {
+            foo.doSomething();
+        }
+        latch.countDown();
+        buffer.close();
+
+        // verify
+        verify(simpleMock, times(10)).doSomething();
+        assertTrue(buffer.getDroppedRecords() > 0);
+        assertContains("Simple.doSomething()", out);
+    }
+
+    @Test
+    public void shouldReuseDecoratedResultForSameObject() throws Exception {
+        // setup
+        Inner innerMock = mock(Inner.class);
+        Inner otherMock = mock(Inner.class);
+        Outer outerMock = mock(Outer.class);
+        Outer outer = Echoing.proxy(Outer.class).with(outerMock).to(new PrintWriter(new StringWriter()))
+            .build(getFactory());
+
+        // expect
+        when(outerMock.getInner()).thenReturn(innerMock, innerMock, otherMock);
+
+        // execute
+        Inner first = outer.getInner();
+        Inner second = outer.getInner();
+        Inner other = outer.getInner();
+
+        // verify
+        assertSame(first, second);
+        assertTrue(first != other);
+    }
+
+    @Test
+    public void shouldEchoOnlyFilteredCalls() throws Exception {
+        // setup
+        Inner innerMock = mock(Inner.class);
+        Outer outerMock = mock(Outer.class);
+        StringWriter out = new StringWriter();
+        Outer outer = Echoing.proxy(Outer.class).with(outerMock).to(new PrintWriter(out))
+            .excluding("getName").build(getFactory());
+
+        // expect
+        when(outerMock.getInner()).thenReturn(innerMock);
+        when(innerMock.getName()).thenReturn("inner");
+
+        // execute
+        assertEquals("inner", outer.getInner().getName());
+
+        // verify
+        assertContains("Outer.getInner()", out);
+        assertFalse(out.toString().contains("Inner.getName()"));
+    }
+
+    public interface Source {
+        Object get();
+    }
+
+    private Outer createOuterCallingSource(
+            final Inner innerMock, final Throwable failure, StringWriter out, String... excluded) {
+        final Source source = Echoing.proxy(Source.class).with(new Source() {
+            public Object get() {
+                return new Object() {
+                    @Override
+                    public String toString() {
+                        if (failure instanceof Error) {
+                            throw (Error)failure;
+                        }
+                        throw (RuntimeException)failure;
+                    }
+                };
+            }
+        }).to(new PrintWriter(out)).excluding(excluded).build(getFactory());
+        Outer outerMock = mock(Outer.class);
+        when(outerMock.getInner()).thenAnswer(new Answer<Inner>() {
+            public Inner answer(InvocationOnMock invocation) {
+                try {
+                    source.get();
+                } catch (Throwable e) {
+                    // expected
+                }
+                return innerMock;
+            }
+        });
+        return Echoing.proxy(Outer.class).with(outerMock).to(new PrintWriter(out))
+            .excluding(excluded).build(getFactory());
+    }
+
+    @Test
+    public void shouldKeepFilterDecisionIfEchoingResultFails() throws Exception {
+        // setup
+        Inner innerMock = mock(Inner.class);
+        StringWriter out = new StringWriter();
+        Outer outer = createOuterCallingSource(innerMock, new IllegalStateException("broken"), out, "getName");
+
+        // execute
+        Inner inner = outer.getInner();
+
+        // verify
+        assertTrue(inner != innerMock);
+        assertEquals(1, out.toString().split("-->", -1).length - 1);
+    }
+
+    @Test
+    public void shouldKeepFilterDecisionIfEchoingResultFailsWithError() throws Exception {
+        // setup
+        Inner innerMock = mock(Inner.class);
+        StringWriter out = new StringWriter();
+        Outer outer = createOuterCallingSource(innerMock, new AssertionError("broken"), out, "getInner");
+
+        // execute & verify
+        assertSame(innerMock, outer.getInner());
+        assertFalse(out.toString().contains("-->"));
+    }
+
+    @Test
+    public void shouldNotDecorateResultsBeyondMaximumDepth() throws Exception {
+        // setup
+        Inner innerMock = mock(Inner.class);
+        Outer outerMock = mock(Outer.class);
+        StringWriter out = new StringWriter();
+        Outer outer = Echoing.proxy(Outer.class).with(outerMock).to(new PrintWriter(out)).depth(0).build(getFactory());
+
+        // expect
+        when(outerMock.getInner()).thenReturn(innerMock);
+
+        // execute & verify
+        assertSame(innerMock, outer.getInner());
+        assertContains("Outer.getInner()", out);
+    }
+
+    @Test
+    public void shouldLimitEchoedCalls() throws Exception {
+        // setup
+        StringWriter out = new StringWriter();
+        Simple foo = Echoing.proxy(Simple.class).with(simpleMock).to(new PrintWriter(out))
+            .limiting(1).build(getFactory());
+
+        // execute
+        foo.doSomething();
+        foo.doSomething();
+        foo.doSomething();
+
+        // verify
+        verify(simpleMock, times(3)).doSomething();
+        int echoed = out.toString().split("Simple.doSomething\\(\\)", -1).length - 1;
+        // the calls may cross the end of an interval of the rate limit
+        assertTrue("Echoed calls: " + echoed, echoed == 1 || echoed == 2);
+    }
+
+    @Test
+    public void shouldSampleEchoedCalls() throws Exception {
+        // setup
+        StringWriter out = new StringWriter();
+        Simple never = Echoing.proxy(Simple.class).with(simpleMock).to(new PrintWriter(out))
+            .sampling(0).build(getFactory());
+        Simple always = Echoing.proxy(Simple.class).with(simpleMock).to(new PrintWriter(out))
+            .sampling(1).build(getFactory());
+
+        // execute
+        never.doSomething();
+        assertEquals("", out.toString());
+        always.doSomething();
+
+        // verify
+        assertContains("Simple.doSomething()", out);
+    }
+
+    public interface Named {
+        String getName(String prefix);
+    }
+
+    @Test
+    public void shouldDecodeBinaryTrace() throws Exception {
+        // setup
+        File file = File.createTempFile("echo", ".trace");
+        EchoTrace trace = new EchoTrace(file, 4096, 2, true);
+        Named named = Echoing.proxy(Named.class).with(new Named() {
+            public String getName(String prefix) {
+                if (prefix == null) {
+                    throw new IllegalArgumentException("No prefix");
+                }
+                return prefix + "Name";
+            }
+        }).to(trace).build(getFactory());
+
+        try {
+            // execute
+            named.getName("my");
+            try {
+                named.getName(null);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            trace.close();
+            StringWriter out = new StringWriter();
+            new EchoTraceDecoder(new PrintWriter(out), false).decode(trace.getFile(0));
+
+            // verify
+            String thread = Thread.currentThread().getName();
+            assertContains("[" + thread + "] " + Named.class.getName() + ".getName(<#"
+                + Integer.toHexString("my".hashCode()) + ">) --> <#" + Integer.toHexString("myName".hashCode()) + ">", out);
+            assertContains(".getName(<#0>) throws java.lang.IllegalArgumentException: No prefix", out);
+            assertEquals(0, trace.getDroppedRecords());
+        } finally {
+            trace.close();
+            trace.getFile(0).delete();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void shouldRollBinaryTrace() throws Exception {
+        // setup
+        File file = File.createTempFile("echo", ".trace");
+        EchoTrace trace = new EchoTrace(file, 4096, 1, false);
+        Named named = Echoing.proxy(Named.class).with(mock(Named.class)).to(trace).build(getFactory());
+
+        try {
+            // execute
+            // a call with its result takes 45 bytes
+            for (int i = 0; i < 100; i++) {
+                named.getName("my");
+            }
+            trace.close();
+            StringWriter out = new StringWriter();
+            new EchoTraceDecoder(new PrintWriter(out), false).decode(trace.getFile(1));
+
+            // verify
+            assertFalse(trace.getFile(0).exists());
+            assertContains(Named.class.getName() + ".getName(<?>) --> <NULL>", out);
+        } finally {
+            trace.close();
+            trace.getFile(1).delete();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void shouldDropRecordsIfTraceFileCannotBeOpened() throws Exception {
+        // setup
+        File directory = File.createTempFile("echo", ".trace");
+        EchoTrace trace = new EchoTrace(new File(directory, "echo.trace"), 4096, 1, false);
+        Named named = Echoing.proxy(Named.class).with(mock(Named.class)).to(trace).build(getFactory());
+
+        try {
+            // execute
+            named.getName("my");
+            named.getName("my");
+
+            // verify
+            assertTrue(trace.isFailed());
+            assertEquals(4, trace.getDroppedRecords());
+        } finally {
+            trace.close();
+            directory.delete();
+        }
+    }
+
     private static void assertContains(String expected, Object textObject) {
         String text = textObject.toString();
         assertTrue("Expected [" + expected + "] in text:\n[" + text + "]", text.indexOf(expected) != -1);
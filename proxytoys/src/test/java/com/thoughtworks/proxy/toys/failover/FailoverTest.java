@@ -11,14 +11,27 @@
 package com.thoughtworks.proxy.toys.failover;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
 import com.thoughtworks.proxy.AbstractProxyTest;
+import com.thoughtworks.proxy.toys.delegate.DelegationException;
 
 
 /**
@@ -55,6 +68,103 @@ public class FailoverTest extends AbstractProxyTest {
 
     }
 
+    public static class SwitchableImpl implements FailsOnNthCall {
+        private boolean failing;
+        private int dunItCount = 0;
+
+        public void doIt() {
+            if (failing) {
+                throw new IllegalStateException();
+            }
+            dunItCount++;
+        }
+
+        public int dunIt() {
+            return dunItCount;
+        }
+    }
+
+    public static interface AsyncService {
+        Future<String> fetch();
+    }
+
+    public static class FailingAsyncService implements AsyncService {
+        private int failures;
+
+        public FailingAsyncService(int failures) {
+            this.failures = failures;
+        }
+
+        public Future<String> fetch() {
+            if (failures-- > 0) {
+                throw new IllegalStateException();
+            }
+            FutureTask<String> task = new FutureTask<String>(new Runnable() {
+                public void run() {
+                }
+            }, "done");
+            task.run();
+            return task;
+        }
+    }
+
+    public static interface TaskService {
+        FutureTask<String> fetch();
+    }
+
+    public static class FailingTaskService implements TaskService {
+        private int failures;
+
+        public FailingTaskService(int failures) {
+            this.failures = failures;
+        }
+
+        public FutureTask<String> fetch() {
+            if (failures-- > 0) {
+                throw new IllegalStateException();
+            }
+            FutureTask<String> task = new FutureTask<String>(new Runnable() {
+                public void run() {
+                }
+            }, "done");
+            task.run();
+            return task;
+        }
+    }
+
+    public static interface Named {
+        String name();
+    }
+
+    public static class SleepyNamed implements Named {
+        private final String name;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile long sleepMillis;
+
+        public SleepyNamed(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                return "interrupted";
+            }
+            return name;
+        }
+    }
+
+    public static class ThreadNamed implements Named {
+        private volatile Thread thread;
+
+        public String name() {
+            thread = Thread.currentThread();
+            return "thread";
+        }
+    }
+
     @Test
     public void shouldFailoverToNextOnSpecialException() {
         FailsOnNthCall first = new FailsOnNthCallImpl(1);
@@ -114,4 +224,329 @@ public class FailoverTest extends AbstractProxyTest {
         useSerializedProxy(serializeWithXStreamAndPureReflection(failover));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldSkipDelegatesWithOpenCircuit() {
+        SwitchableImpl first = new SwitchableImpl();
+        SwitchableImpl second = new SwitchableImpl();
+        FailsOnNthCall failover = Failover.proxy(FailsOnNthCall.class)
+                                     .with(first, second)
+                                     .excepting(IllegalStateException.class)
+                                     .circuitBreaker(1.0, 1, 1, TimeUnit.HOURS)
+                                     .build(getFactory());
+        FailoverMonitor monitor = FailoverMonitor.class.cast(failover);
+        assertEquals(CircuitState.CLOSED, monitor.getCircuitState(first));
+        first.failing = true;
+        failover.doIt();
+        assertEquals(CircuitState.OPEN, monitor.getCircuitState(first));
+        assertEquals(CircuitState.CLOSED, monitor.getCircuitState(second));
+        assertEquals(1, second.dunIt());
+        first.failing = false;
+        second.failing = true;
+        try {
+            failover.doIt();
+            fail("Thrown " + IllegalStateException.class.getName() + " expected");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+        assertEquals(0, first.dunIt());
+        assertEquals(CircuitState.OPEN, monitor.getCircuitState(second));
+        try {
+            failover.doIt();
+            fail("Thrown " + FailoverException.class.getName() + " expected");
+        } catch (final FailoverException e) {
+            // expected
+        }
+        assertNull(monitor.getCircuitState(new SwitchableImpl()));
+    }
+
+    @Test
+    public void shouldCloseCircuitAfterSuccessfulProbe() {
+        SwitchableImpl first = new SwitchableImpl();
+        SwitchableImpl second = new SwitchableImpl();
+        FailsOnNthCall failover = Failover.proxy(FailsOnNthCall.class)
+                                     .with(first, second)
+                                     .excepting(IllegalStateException.class)
+                                     .circuitBreaker(0.5, 2, 0, TimeUnit.MILLISECONDS)
+                                     .build(getFactory());
+        FailoverMonitor monitor = FailoverMonitor.class.cast(failover);
+        first.failing = true;
+        second.failing = true;
+        for (int i = 0; i < 2; i++) {
+            try {
+                failover.doIt();
+                fail("Thrown " + IllegalStateException.class.getName() + " expected");
+            } catch (final IllegalStateException e) {
+                // expected
+            }
+        }
+        assertEquals(CircuitState.OPEN, monitor.getCircuitState(first));
+        assertEquals(CircuitState.OPEN, monitor.getCircuitState(second));
+        first.failing = false;
+        failover.doIt();
+        assertEquals(1, first.dunIt());
+        assertEquals(CircuitState.CLOSED, monitor.getCircuitState(first));
+    }
+
+    @Test
+    public void shouldReopenCircuitIfProbeEndsUnexpectedly() {
+        Object broken = new Object();
+        FailoverInvoker<Object> invoker = new FailoverInvoker<Object>(
+            new Class<?>[]{FailsOnNthCall.class}, getFactory(), new Object[]{broken, new SwitchableImpl()},
+            IllegalStateException.class, new CircuitBreaker(1.0, 1, 0, TimeUnit.MILLISECONDS));
+        FailsOnNthCall failover = FailsOnNthCall.class.cast(invoker.proxy());
+        FailoverMonitor monitor = FailoverMonitor.class.cast(failover);
+        for (int i = 0; i < 2; i++) {
+            try {
+                failover.doIt();
+                fail("Thrown " + DelegationException.class.getName() + " expected");
+            } catch (final DelegationException e) {
+                // expected, the delegate has the wrong type
+            }
+            assertEquals(CircuitState.OPEN, monitor.getCircuitState(broken));
+        }
+    }
+
+    @Test
+    public void shouldNotMonitorCircuitsWithoutBreakers() {
+        FailsOnNthCall first = new FailsOnNthCallImpl(1);
+        FailsOnNthCall failover = Failover.proxy(FailsOnNthCall.class)
+                                     .with(first)
+                                     .excepting(RuntimeException.class)
+                                     .build(getFactory());
+        assertNull(FailoverMonitor.class.cast(failover).getCircuitState(first));
+    }
+
+    @Test
+    public void shouldSpreadCallsRoundRobin() {
+        SwitchableImpl first = new SwitchableImpl();
+        SwitchableImpl second = new SwitchableImpl();
+        SwitchableImpl third = new SwitchableImpl();
+        FailsOnNthCall failover = Failover.proxy(FailsOnNthCall.class)
+                                     .with(first, second, third)
+                                     .excepting(IllegalStateException.class)
+                                     .balancing(BalancingMode.ROUND_ROBIN)
+                                     .build(getFactory());
+        for (int i = 0; i < 6; i++) {
+            failover.doIt();
+        }
+        assertEquals(2, first.dunIt());
+        assertEquals(2, second.dunIt());
+        assertEquals(2, third.dunIt());
+        second.failing = true;
+        for (int i = 0; i < 3; i++) {
+            failover.doIt();
+        }
+        assertEquals(2, second.dunIt());
+        assertEquals(7, first.dunIt() + third.dunIt());
+    }
+
+    @Test
+    public void shouldSpreadCallsToLeastInFlight() {
+        SwitchableImpl first = new SwitchableImpl();
+        SwitchableImpl second = new SwitchableImpl();
+        FailsOnNthCall failover = Failover.proxy(FailsOnNthCall.class)
+                                     .with(first, second)
+                                     .excepting(IllegalStateException.class)
+                                     .balancing(BalancingMode.LEAST_IN_FLIGHT)
+                                     .build(getFactory());
+        for (int i = 0; i < 4; i++) {
+            failover.doIt();
+        }
+        assertEquals(2, first.dunIt());
+        assertEquals(2, second.dunIt());
+        FailoverMonitor monitor = FailoverMonitor.class.cast(failover);
+        assertEquals(0, monitor.getInFlightCalls(first));
+        assertEquals(0, monitor.getInFlightCalls(second));
+    }
+
+    @Test
+    public void shouldSpreadCallsToTwoRandomChoices() {
+        SwitchableImpl first = new SwitchableImpl();
+        SwitchableImpl second = new SwitchableImpl();
+        SwitchableImpl third = new SwitchableImpl();
+        FailsOnNthCall failover = Failover.proxy(FailsOnNthCall.class)
+                                     .with(first, second, third)
+                                     .excepting(IllegalStateException.class)
+                                     .balancing(BalancingMode.POWER_OF_TWO_CHOICES)
+                                     .build(getFactory());
+        for (int i = 0; i < 30; i++) {
+            failover.doIt();
+        }
+        assertEquals(30, first.dunIt() + second.dunIt() + third.dunIt());
+        FailoverMonitor monitor = FailoverMonitor.class.cast(failover);
+        assertEquals(0, monitor.getInFlightCalls(first));
+        assertEquals(0L, monitor.getMeanLatencyNanos(new SwitchableImpl()));
+    }
+
+    @Test
+    public void shouldRetryWithBackoff() {
+        SwitchableImpl first = new SwitchableImpl();
+        SwitchableImpl second = new SwitchableImpl();
+        FailsOnNthCall failover = Failover.proxy(FailsOnNthCall.class)
+                                     .with(first, second)
+                                     .excepting(IllegalStateException.class)
+                                     .retrying(new RetryPolicy(5, 1, 4, TimeUnit.MILLISECONDS, null, null))
+                                     .build(getFactory());
+        first.failing = true;
+        second.failing = true;
+        try {
+            failover.doIt();
+            fail("Thrown " + IllegalStateException.class.getName() + " expected");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+        FailoverMonitor monitor = FailoverMonitor.class.cast(failover);
+        assertEquals(4, monitor.getRetries());
+        assertEquals(0, monitor.getExhaustedRetryBudgets());
+    }
+
+    @Test
+    public void shouldStopRetriesWithExhaustedBudget() {
+        SwitchableImpl first = new SwitchableImpl();
+        SwitchableImpl second = new SwitchableImpl();
+        RetryBudget budget = new RetryBudget(1, 0);
+        FailsOnNthCall failover = Failover.proxy(FailsOnNthCall.class)
+                                     .with(first, second)
+                                     .excepting(IllegalStateException.class)
+                                     .retrying(new RetryPolicy(3, 0, 0, TimeUnit.MILLISECONDS, budget, null))
+                                     .build(getFactory());
+        first.failing = true;
+        failover.doIt();
+        assertEquals(1, second.dunIt());
+        assertEquals(0, budget.getAvailableTokens());
+        second.failing = true;
+        try {
+            failover.doIt();
+            fail("Thrown " + IllegalStateException.class.getName() + " expected");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+        FailoverMonitor monitor = FailoverMonitor.class.cast(failover);
+        assertEquals(1, monitor.getRetries());
+        assertEquals(1, monitor.getExhaustedRetryBudgets());
+    }
+
+    @Test
+    public void shouldRetryAsynchronouslyOnScheduler() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            AsyncService failover = Failover.proxy(AsyncService.class)
+                                       .with(new FailingAsyncService(3))
+                                       .excepting(IllegalStateException.class)
+                                       .retrying(new RetryPolicy(4, 1, 2, TimeUnit.MILLISECONDS, null, scheduler))
+                                       .build(getFactory());
+            assertEquals("done", failover.fetch().get(5, TimeUnit.SECONDS));
+            assertEquals(3, FailoverMonitor.class.cast(failover).getRetries());
+            Future<String> future = Failover.proxy(AsyncService.class)
+                                       .with(new FailingAsyncService(3))
+                                       .excepting(IllegalStateException.class)
+                                       .retrying(new RetryPolicy(2, 1, 2, TimeUnit.MILLISECONDS, null, scheduler))
+                                       .build(getFactory()).fetch();
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("Thrown " + ExecutionException.class.getName() + " expected");
+            } catch (final ExecutionException e) {
+                assertEquals(IllegalStateException.class, e.getCause().getClass());
+            }
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldRetrySynchronouslyMethodsReturningSubtypeOfFuture() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            TaskService failover = Failover.proxy(TaskService.class)
+                                       .with(new FailingTaskService(2))
+                                       .excepting(IllegalStateException.class)
+                                       .retrying(new RetryPolicy(3, 1, 2, TimeUnit.MILLISECONDS, null, scheduler))
+                                       .build(getFactory());
+            FutureTask<String> task = failover.fetch();
+            assertTrue(task.isDone());
+            assertEquals("done", task.get());
+            assertEquals(2, FailoverMonitor.class.cast(failover).getRetries());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldHedgeSlowCalls() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            SleepyNamed first = new SleepyNamed("first");
+            SleepyNamed second = new SleepyNamed("second");
+            Named failover = Failover.proxy(Named.class)
+                                .with(first, second)
+                                .excepting(RuntimeException.class)
+                                .hedging(new HedgingPolicy(0.5, 1.0, 5, executor))
+                                .build(getFactory());
+            for (int i = 0; i < 5; i++) {
+                assertEquals("first", failover.name());
+            }
+            first.sleepMillis = 500;
+            assertEquals("second", failover.name());
+            assertFalse(Thread.currentThread().isInterrupted());
+            assertEquals(1, FailoverMonitor.class.cast(failover).getHedgedCalls());
+            assertEquals(6, first.calls.get());
+            assertEquals(1, second.calls.get());
+            // the primary call stays on the first delegate
+            first.sleepMillis = 0;
+            second.sleepMillis = 10000;
+            long start = System.currentTimeMillis();
+            assertEquals("first", failover.name());
+            assertTrue(System.currentTimeMillis() - start < 5000);
+            assertEquals(7, first.calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldCapHedgeRate() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            SleepyNamed first = new SleepyNamed("first");
+            SleepyNamed second = new SleepyNamed("second");
+            Named failover = Failover.proxy(Named.class)
+                                .with(first, second)
+                                .excepting(RuntimeException.class)
+                                .hedging(new HedgingPolicy(0.5, 0.0, 5, executor))
+                                .build(getFactory());
+            for (int i = 0; i < 5; i++) {
+                assertEquals("first", failover.name());
+            }
+            first.sleepMillis = 20;
+            assertEquals("first", failover.name());
+            assertEquals(0, FailoverMonitor.class.cast(failover).getHedgedCalls());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldRunPrimaryHedgedCallOnCallersThread() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            ThreadNamed first = new ThreadNamed();
+            Named failover = Failover.proxy(Named.class)
+                                .with(first, new ThreadNamed())
+                                .excepting(RuntimeException.class)
+                                .hedging(new HedgingPolicy(0.99, 0.0, 5, executor))
+                                .build(getFactory());
+            for (int i = 0; i < 10; i++) {
+                assertEquals("thread", failover.name());
+                assertSame(Thread.currentThread(), first.thread);
+            }
+            assertFalse(Thread.currentThread().isInterrupted());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeNumberOfSamples() {
+        new HedgingPolicy(0.5, 1.0, -1, null);
+    }
+}
@@ -11,15 +11,22 @@
 package com.thoughtworks.proxy.toys.future;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertSame;
 import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
 import com.thoughtworks.proxy.AbstractProxyTest;
+import com.thoughtworks.proxy.kit.KeyExtractor;
+import com.thoughtworks.proxy.kit.RejectionPolicy;
 
 /**
  * @author Aslak Helles&oslash;y
@@ -27,6 +34,7 @@ import com.thoughtworks.proxy.AbstractProxyTest;
 public class FutureTest extends AbstractProxyTest {
     public static interface Service {
         List<String> getList();
+        String getName();
         void methodReturnsVoid();
     }
 
@@ -46,10 +54,48 @@ public class FutureTest extends AbstractProxyTest {
             return Collections.singletonList("yo");
         }
 
+        public String getName() {
+            getList();
+            return "slow";
+        }
+
         public void methodReturnsVoid() {
         }
     }
 
+    public static interface Calculator {
+        List<String> compute(String input);
+    }
+
+    public static class SlowCalculator implements Calculator {
+        private final CountDownLatch latch;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        public SlowCalculator(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        public List<String> compute(String input) {
+            calls.incrementAndGet();
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e.getMessage());
+            }
+            return Collections.singletonList(input);
+        }
+    }
+
+    public static class FailingService extends SlowService {
+        public FailingService() {
+            super(new CountDownLatch(0));
+        }
+
+        public List<String> getList() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
     @Test
     public void shouldReturnNullObjectAsIntermediateResultAndSwapWhenMethodCompletesWithCast() throws InterruptedException {
         CountDownLatch latch = new CountDownLatch(1);
@@ -95,4 +141,165 @@ public class FutureTest extends AbstractProxyTest {
         Service fastService =  Future.proxy(Service.class).with(slowService).build(getFactory());
         fastService.methodReturnsVoid();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldRunCallsWithGivenExecutor() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        FutureExecutor executor = new FutureExecutor(1);
+        try {
+            Service fastService = Future.proxy(Service.class).with(new SlowService(latch))
+                .executing(executor).build(getFactory());
+            List<String> first = fastService.getList();
+            List<String> second = fastService.getList();
+            Thread.sleep(50);
+            assertEquals(1, executor.getActiveCount());
+            assertEquals(1, executor.getQueueDepth());
+            latch.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(1, first.size());
+            assertEquals(1, second.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldRecreateSharedExecutorAfterShutdown() {
+        FutureExecutor shared = FutureExecutor.getShared();
+        assertSame(shared, FutureExecutor.getShared());
+        shared.shutdown();
+        assertTrue(shared != FutureExecutor.getShared());
+    }
+
+    @Test
+    public void shouldBlockOnFirstCallOfLightweightResult() {
+        final CountDownLatch latch = new CountDownLatch(1);
+        Service fastService = Future.proxy(Service.class).with(new SlowService(latch)).blocking().build(getFactory());
+        List<String> stuff = fastService.getList();
+        new Thread() {
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+                latch.countDown();
+            }
+        }.start();
+        assertEquals(1, stuff.size());
+        assertEquals("yo", stuff.get(0));
+    }
+
+    @Test
+    public void shouldReturnUnproxyableResultOfLightweightCallDirectly() {
+        Service fastService = Future.proxy(Service.class).with(new SlowService(new CountDownLatch(0)))
+            .blocking().build(getFactory());
+        assertEquals("slow", fastService.getName());
+    }
+
+    @Test
+    public void shouldThrowExceptionOfAsynchronousCallOnLightweightResult() {
+        Service fastService = Future.proxy(Service.class).with(new FailingService()).blocking().build(getFactory());
+        try {
+            // the exception is thrown at the latest on the first call of the result
+            fastService.getList().size();
+            fail("Thrown " + IllegalStateException.class.getName() + " expected");
+        } catch (IllegalStateException e) {
+            assertEquals("failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldCoalesceConcurrentCallsWithEqualArguments() {
+        CountDownLatch latch = new CountDownLatch(1);
+        SlowCalculator calculator = new SlowCalculator(latch);
+        Calculator fastCalculator = Future.proxy(Calculator.class).with(calculator)
+            .blocking().coalescing().build(getFactory());
+        List<String> first = fastCalculator.compute("a");
+        List<String> second = fastCalculator.compute("a");
+        List<String> other = fastCalculator.compute("b");
+        assertSame(first, second);
+        assertTrue(first != other);
+        latch.countDown();
+        assertEquals("a", second.get(0));
+        assertEquals("b", other.get(0));
+        assertEquals(2, calculator.calls.get());
+        assertEquals("a", fastCalculator.compute("a").get(0));
+    }
+
+    @Test
+    public void shouldCoalesceCallsWithKeyExtractor() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        SlowCalculator calculator = new SlowCalculator(latch);
+        Calculator fastCalculator = Future.proxy(Calculator.class).with(calculator)
+            .coalescing(new KeyExtractor() {
+                public Object getKey(java.lang.reflect.Method method, Object[] args) {
+                    return method.getName();
+                }
+            }).build(getFactory());
+        List<String> first = fastCalculator.compute("a");
+        List<String> second = fastCalculator.compute("b");
+        assertSame(first, second);
+        latch.countDown();
+        Thread.sleep(100);
+        assertEquals("a", second.get(0));
+        assertEquals(1, calculator.calls.get());
+    }
+
+    @Test
+    public void shouldFailFastIfTooManyCallsArePending() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        Calculator fastCalculator = Future.proxy(Calculator.class).with(new SlowCalculator(latch))
+            .bounded(2, RejectionPolicy.FAIL_FAST).build(getFactory());
+        FutureMonitor monitor = FutureMonitor.class.cast(fastCalculator);
+        List<String> first = fastCalculator.compute("a");
+        fastCalculator.compute("b");
+        assertEquals(2, monitor.getPendingCalls());
+        try {
+            fastCalculator.compute("c");
+            fail("Thrown " + RejectedExecutionException.class.getName() + " expected");
+        } catch (RejectedExecutionException e) {
+            assertEquals(1, monitor.getRejectedCalls());
+        }
+        latch.countDown();
+        Thread.sleep(100);
+        assertEquals(0, monitor.getPendingCalls());
+        assertEquals("a", first.get(0));
+    }
+
+    @Test
+    public void shouldReturnNullObjectIfTooManyCallsArePending() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        Calculator fastCalculator = Future.proxy(Calculator.class).with(new SlowCalculator(latch))
+            .bounded(1, RejectionPolicy.NULL_RESULT).build(getFactory());
+        List<String> first = fastCalculator.compute("a");
+        List<String> rejected = fastCalculator.compute("b");
+        latch.countDown();
+        Thread.sleep(100);
+        assertEquals("a", first.get(0));
+        assertTrue(rejected.isEmpty());
+        assertEquals(1, FutureMonitor.class.cast(fastCalculator).getRejectedCalls());
+    }
+
+    @Test
+    public void shouldRunCallInCallerIfTooManyCallsArePending() {
+        final CountDownLatch latch = new CountDownLatch(1);
+        Calculator fastCalculator = Future.proxy(Calculator.class).with(new SlowCalculator(latch))
+            .bounded(1, RejectionPolicy.CALLER_RUNS).build(getFactory());
+        fastCalculator.compute("a");
+        new Thread() {
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+                latch.countDown();
+            }
+        }.start();
+        // the caller runs the call itself and returns with the result
+        assertEquals("b", fastCalculator.compute("b").get(0));
+        assertEquals(1, FutureMonitor.class.cast(fastCalculator).getRejectedCalls());
+    }
+}
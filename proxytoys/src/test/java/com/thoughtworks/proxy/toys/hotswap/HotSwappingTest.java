@@ -12,6 +12,7 @@ package com.thoughtworks.proxy.toys.hotswap;
 
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -22,6 +23,9 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.junit.Test;
 
@@ -117,6 +121,226 @@ public class HotSwappingTest extends AbstractProxyTest {
         assertTrue(person.wasScrewed);
     }
 
+    public static class SlowScrewdriver implements Screwdriver {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        public void screw() {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void shouldCompleteSwapHandleWhenCallsOnOldDelegateHaveDrained() throws Exception {
+        final SlowScrewdriver slow = new SlowScrewdriver();
+        final Screwdriver sd = HotSwapping.proxy(Screwdriver.class).with(slow).build(getFactory());
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                sd.screw();
+            }
+        });
+        thread.start();
+        slow.entered.await();
+
+        SlowScrewdriver fast = new SlowScrewdriver();
+        fast.release.countDown();
+        SwapHandle handle = Swappable.class.cast(sd).hotswapAndDrain(fast);
+        assertSame(slow, handle.getDelegate());
+        assertEquals(1, handle.getInFlightCalls());
+        assertFalse(handle.isDone());
+        sd.screw();
+        assertEquals(0, fast.entered.getCount());
+        try {
+            handle.get(10, TimeUnit.MILLISECONDS);
+            fail(TimeoutException.class.getName() + " expected");
+        } catch (TimeoutException e) {
+            // expected
+        }
+
+        slow.release.countDown();
+        assertSame(slow, handle.get(10, TimeUnit.SECONDS));
+        assertTrue(handle.isDone());
+        thread.join();
+    }
+
+    @Test
+    public void shouldCompleteSwapHandleImmediatelyWithoutRunningCalls() throws Exception {
+        Person first = new Person();
+        Screwdriver sd = HotSwapping.proxy(Screwdriver.class).with(first).build(getFactory());
+        sd.screw();
+        SwapHandle handle = Swappable.class.cast(sd).hotswapAndDrain(new Person());
+        assertTrue(handle.isDone());
+        assertSame(first, handle.get());
+    }
+
+    public static class CountingScrewdriver implements Screwdriver {
+        int count;
+        final boolean failing;
+
+        public CountingScrewdriver(boolean failing) {
+            this.failing = failing;
+        }
+
+        public void screw() {
+            ++count;
+            if (failing) {
+                throw new IllegalStateException("broken");
+            }
+        }
+    }
+
+    @Test
+    public void shouldRouteCallsAccordingWeights() {
+        CountingScrewdriver stable = new CountingScrewdriver(false);
+        CountingScrewdriver canary = new CountingScrewdriver(false);
+        Screwdriver sd = HotSwapping.proxy(Screwdriver.class)
+            .with(stable).weighted(3).and(canary, 1)
+            .build(getFactory());
+        for (int i = 0; i < 4000; i++) {
+            sd.screw();
+        }
+        assertEquals(4000, stable.count + canary.count);
+        assertTrue("Canary calls: " + canary.count, canary.count > 800 && canary.count < 1200);
+        WeightedSwappable swappable = WeightedSwappable.class.cast(sd);
+        assertEquals(3, swappable.getWeight(stable));
+        assertEquals(canary.count, swappable.getStatistics(canary).getCalls());
+        assertEquals(0, swappable.getStatistics(canary).getErrors());
+    }
+
+    @Test
+    public void shouldAdjustWeightsAtRuntime() {
+        CountingScrewdriver stable = new CountingScrewdriver(false);
+        CountingScrewdriver canary = new CountingScrewdriver(true);
+        Screwdriver sd = HotSwapping.proxy(Screwdriver.class).with(stable).weighted(1).build(getFactory());
+        WeightedSwappable swappable = WeightedSwappable.class.cast(sd);
+        swappable.setWeight(canary, 1);
+        for (int i = 0; i < 100; i++) {
+            try {
+                sd.screw();
+            } catch (IllegalStateException e) {
+                // canary
+            }
+        }
+        DelegateStatistics statistics = swappable.getStatistics(canary);
+        assertEquals(canary.count, statistics.getCalls());
+        assertEquals(canary.count, statistics.getErrors());
+        assertTrue(statistics.getErrorRate() == 1.0);
+
+        SwapHandle handle = swappable.setWeight(canary, 0);
+        assertTrue(handle.isDone());
+        assertSame(canary, handle.getDelegate());
+        assertEquals(0, swappable.getWeight(canary));
+        assertEquals(null, swappable.getStatistics(canary));
+        int count = stable.count;
+        sd.screw();
+        assertEquals(count + 1, stable.count);
+    }
+
+    @Test
+    public void shouldRejectWeightsExceedingMaximumSum() {
+        CountingScrewdriver stable = new CountingScrewdriver(false);
+        CountingScrewdriver canary = new CountingScrewdriver(false);
+        Screwdriver sd = HotSwapping.proxy(Screwdriver.class)
+            .with(stable).weighted(Integer.MAX_VALUE).build(getFactory());
+        WeightedSwappable swappable = WeightedSwappable.class.cast(sd);
+        try {
+            swappable.setWeight(canary, 1);
+            fail("Thrown " + IllegalArgumentException.class.getName() + " expected");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(0, swappable.getWeight(canary));
+        sd.screw();
+        assertEquals(1, stable.count);
+    }
+
+    @Test
+    public void shouldReplaceAllWeightedDelegatesWithHotswap() {
+        CountingScrewdriver first = new CountingScrewdriver(false);
+        CountingScrewdriver second = new CountingScrewdriver(false);
+        CountingScrewdriver third = new CountingScrewdriver(false);
+        Screwdriver sd = HotSwapping.proxy(Screwdriver.class)
+            .with(first).weighted(1).and(second, 1)
+            .build(getFactory());
+        WeightedSwappable swappable = WeightedSwappable.class.cast(sd);
+        assertSame(first, swappable.hotswap(third));
+        assertEquals(2, swappable.getWeight(third));
+        assertEquals(0, swappable.getWeight(second));
+        sd.screw();
+        assertEquals(1, third.count);
+    }
+
+    @Test
+    public void shouldWarmUpIncomingDelegateBeforeInstallation() {
+        final CountingScrewdriver first = new CountingScrewdriver(false);
+        final CountingScrewdriver second = new CountingScrewdriver(false);
+        final List<String> events = new ArrayList<String>();
+        Screwdriver sd = HotSwapping.proxy(Screwdriver.class).with(first)
+            .warmUp(new WarmUp() {
+                public void warmUp(Object delegate) {
+                    events.add("warmUp");
+                    ((Screwdriver)delegate).screw();
+                }
+            })
+            .notifying(new SwapListener() {
+                public void beforeSwap(Object oldDelegate, Object newDelegate) {
+                    assertSame(first, oldDelegate);
+                    assertSame(second, newDelegate);
+                    events.add("before");
+                }
+
+                public void afterSwap(Object oldDelegate, Object newDelegate, long warmUpNanos, long totalNanos) {
+                    assertSame(first, oldDelegate);
+                    assertSame(second, newDelegate);
+                    assertTrue(warmUpNanos <= totalNanos);
+                    events.add("after");
+                }
+            })
+            .build(getFactory());
+        assertSame(first, Swappable.class.cast(sd).hotswap(second));
+        assertEquals("[before, warmUp, after]", events.toString());
+        assertEquals(0, first.count);
+        assertEquals(1, second.count);
+        sd.screw();
+        assertEquals(2, second.count);
+    }
+
+    @Test
+    public void shouldReplayRecordedCallsOnIncomingDelegate() {
+        CountingScrewdriver first = new CountingScrewdriver(false);
+        CountingScrewdriver second = new CountingScrewdriver(false);
+        Screwdriver sd = HotSwapping.proxy(Screwdriver.class).with(first).replaying(2).build(getFactory());
+        sd.screw();
+        sd.screw();
+        sd.screw();
+        Swappable.class.cast(sd).hotswapAndDrain(second, null);
+        assertEquals(3, first.count);
+        assertEquals(2, second.count);
+    }
+
+    @Test
+    public void shouldNotSwapIfWarmUpFails() {
+        CountingScrewdriver first = new CountingScrewdriver(false);
+        Screwdriver sd = HotSwapping.proxy(Screwdriver.class).with(first).build(getFactory());
+        try {
+            Swappable.class.cast(sd).hotswapAndDrain(new CountingScrewdriver(true), new WarmUp() {
+                public void warmUp(Object delegate) {
+                    ((Screwdriver)delegate).screw();
+                }
+            });
+            fail(IllegalStateException.class.getName() + " expected");
+        } catch (IllegalStateException e) {
+            assertEquals("broken", e.getMessage());
+        }
+        sd.screw();
+        assertEquals(1, first.count);
+    }
+
     private void useSerializedProxy(Screwdriver sd) {
         sd.screw();
         Person person = new Person();
@@ -131,6 +355,23 @@ public class HotSwappingTest extends AbstractProxyTest {
         useSerializedProxy(Screwdriver.class.cast(serializeWithJDK(sd)));
     }
 
+    @Test
+    public void serializeWithJDKWithoutCallbacks() throws IOException, ClassNotFoundException {
+        Screwdriver sd = HotSwapping.proxy(Screwdriver.class).with(new Person())
+            .replaying(2)
+            .notifying(new SwapListener() {
+                public void beforeSwap(Object oldDelegate, Object newDelegate) {
+                    fail("should not be called");
+                }
+
+                public void afterSwap(Object oldDelegate, Object newDelegate, long warmUpNanos, long totalNanos) {
+                    fail("should not be called");
+                }
+            })
+            .build(getFactory());
+        useSerializedProxy(Screwdriver.class.cast(serializeWithJDK(sd)));
+    }
+
     @Test
     public void serializeWithXStream() {
         Object sd = HotSwapping.proxy(Screwdriver.class).with(new Person()).build(getFactory());
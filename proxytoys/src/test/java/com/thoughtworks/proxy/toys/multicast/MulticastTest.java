@@ -20,9 +20,14 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -274,6 +279,321 @@ public class MulticastTest extends AbstractProxyTest {
         assertFalse(t3.wasWagged());
     }
 
+    public static interface Listener {
+        void notify(String event);
+
+        int count();
+    }
+
+    public static class RecordingListener implements Listener {
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+
+        public void notify(String event) {
+            events.add(event);
+            threads.add(Thread.currentThread());
+        }
+
+        public int count() {
+            return events.size();
+        }
+    }
+
+    public static class BlockingListener extends RecordingListener {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void notify(String event) {
+            if (entered.getCount() > 0) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e.getMessage());
+                }
+            }
+            super.notify(event);
+        }
+    }
+
+    @Test
+    public void shouldDeliverVoidInvocationsInBackgroundInOrder() {
+        RecordingListener first = new RecordingListener();
+        RecordingListener second = new RecordingListener();
+        Listener listener = Multicasting.proxy(Listener.class)
+            .with(first, second)
+            .writeBehind(4, OverflowPolicy.BLOCK)
+            .build(getFactory());
+        for (int i = 0; i < 10; i++) {
+            listener.notify("event " + i);
+        }
+        WriteBehind.class.cast(listener).flushInvocations();
+        assertEquals(20, listener.count());
+        assertEquals(0, WriteBehind.class.cast(listener).getPendingInvocations());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("event " + i, first.events.get(i));
+            assertEquals("event " + i, second.events.get(i));
+        }
+        assertFalse(first.threads.contains(Thread.currentThread()));
+        WriteBehind.class.cast(listener).closeInvocations();
+    }
+
+    @Test
+    public void shouldEndIdleDeliveryThread() throws InterruptedException {
+        RecordingListener target = new RecordingListener();
+        Listener listener = Multicasting.proxy(Listener.class)
+            .with(target)
+            .writeBehind(4, OverflowPolicy.BLOCK)
+            .build(getFactory());
+        listener.notify("first");
+        WriteBehind.class.cast(listener).flushInvocations();
+        Thread thread = target.threads.get(0);
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+        listener.notify("second");
+        WriteBehind.class.cast(listener).flushInvocations();
+        assertEquals(2, target.events.size());
+        assertFalse(target.threads.get(1) == thread);
+        WriteBehind.class.cast(listener).closeInvocations();
+    }
+
+    @Test
+    public void shouldDropVoidInvocationsIfBufferIsFull() throws InterruptedException {
+        BlockingListener target = new BlockingListener();
+        Listener listener = Multicasting.proxy(Listener.class)
+            .with(target)
+            .writeBehind(1, OverflowPolicy.DROP)
+            .build(getFactory());
+        listener.notify("delivered");
+        target.entered.await();
+        listener.notify("buffered");
+        listener.notify("dropped");
+        WriteBehind writeBehind = WriteBehind.class.cast(listener);
+        assertEquals(1, writeBehind.getDroppedInvocations());
+        assertEquals(1, writeBehind.getPendingInvocations());
+        target.release.countDown();
+        writeBehind.closeInvocations();
+        assertEquals(2, target.events.size());
+        assertEquals("buffered", target.events.get(1));
+    }
+
+    @Test
+    public void shouldRunVoidInvocationsInCallingThreadIfBufferIsFull() throws InterruptedException {
+        BlockingListener target = new BlockingListener();
+        Listener listener = Multicasting.proxy(Listener.class)
+            .with(target)
+            .writeBehind(1, OverflowPolicy.CALLER_RUNS)
+            .build(getFactory());
+        listener.notify("delivered");
+        target.entered.await();
+        listener.notify("buffered");
+        listener.notify("called");
+        assertEquals("called", target.events.get(0));
+        assertSame(Thread.currentThread(), target.threads.get(0));
+        target.release.countDown();
+        WriteBehind.class.cast(listener).closeInvocations();
+        assertEquals(3, target.events.size());
+        assertEquals(0, WriteBehind.class.cast(listener).getDroppedInvocations());
+    }
+
+    @Test
+    public void shouldDeliverVoidInvocationsDirectlyAfterClose() {
+        RecordingListener target = new RecordingListener();
+        Listener listener = Multicasting.proxy(Listener.class)
+            .with(target)
+            .writeBehind(16, OverflowPolicy.DROP)
+            .build(getFactory());
+        listener.notify("buffered");
+        WriteBehind.class.cast(listener).closeInvocations();
+        assertEquals(1, target.events.size());
+        listener.notify("direct");
+        assertEquals(2, target.events.size());
+        assertSame(Thread.currentThread(), target.threads.get(1));
+    }
+
+    @Test
+    public void shouldCountFailedVoidInvocationsInBackground() {
+        Listener failing = new RecordingListener() {
+            @Override
+            public void notify(String event) {
+                throw new IllegalStateException(event);
+            }
+        };
+        RecordingListener target = new RecordingListener();
+        Listener listener = Multicasting.proxy(Listener.class)
+            .with(failing, target)
+            .writeBehind(16, OverflowPolicy.BLOCK)
+            .build(getFactory());
+        listener.notify("event");
+        WriteBehind.class.cast(listener).closeInvocations();
+        assertEquals(1, WriteBehind.class.cast(listener).getFailedInvocations());
+        assertEquals(1, target.events.size());
+    }
+
+    public static interface Replica {
+        int read();
+    }
+
+    public static class ReplicaImpl implements Replica, Serializable {
+        private final int value;
+        private final transient CountDownLatch latch;
+
+        public ReplicaImpl(int value, CountDownLatch latch) {
+            this.value = value;
+            this.latch = latch;
+        }
+
+        public int read() {
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e.getMessage());
+                }
+            }
+            if (value < 0) {
+                throw new IllegalStateException("Replica " + value + " failed");
+            }
+            return value;
+        }
+    }
+
+    @Test
+    public void shouldReturnOnceQuorumHasAnswered() {
+        CountDownLatch latch = new CountDownLatch(1);
+        Replica replica = Multicasting.proxy(Replica.class)
+            .with(new ReplicaImpl(1, null), new ReplicaImpl(2, latch), new ReplicaImpl(4, null))
+            .quorum(2, 10, TimeUnit.SECONDS)
+            .build(getFactory());
+        assertEquals(5, replica.read());
+        assertEquals(1, QuorumMulticast.class.cast(replica).getAbandonedInvocations());
+        latch.countDown();
+    }
+
+    @Test
+    public void shouldReturnFirstSuccessfulResponse() {
+        CountDownLatch latch = new CountDownLatch(1);
+        Replica replica = Multicasting.proxy(Replica.class)
+            .with(new ReplicaImpl(-1, null), new ReplicaImpl(2, latch), new ReplicaImpl(4, null))
+            .firstResponse(10, TimeUnit.SECONDS)
+            .build(getFactory());
+        assertEquals(4, replica.read());
+        latch.countDown();
+    }
+
+    @Test
+    public void shouldFailWithQuorumExceptionAfterDeadline() {
+        CountDownLatch latch = new CountDownLatch(1);
+        Replica replica = Multicasting.proxy(Replica.class)
+            .with(new ReplicaImpl(1, null), new ReplicaImpl(2, latch))
+            .quorum(2, 50, TimeUnit.MILLISECONDS)
+            .build(getFactory());
+        try {
+            replica.read();
+            fail(QuorumException.class.getName() + " expected");
+        } catch (QuorumException e) {
+            assertEquals(1, e.getAnswers());
+            assertEquals(2, e.getQuorum());
+        }
+        assertEquals(1, QuorumMulticast.class.cast(replica).getMissedDeadlines());
+        assertEquals(1, QuorumMulticast.class.cast(replica).getAbandonedInvocations());
+        latch.countDown();
+    }
+
+    @Test
+    public void shouldUseDefaultExecutorAfterDeserialization() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Replica replica = Multicasting.proxy(Replica.class, Serializable.class)
+            .with(new ReplicaImpl(1, null), new ReplicaImpl(2, null))
+            .quorum(2, 10, TimeUnit.SECONDS)
+            .executedBy(executor)
+            .build(getFactory());
+        executor.shutdown();
+        replica = serializeWithJDK(replica);
+        assertEquals(3, replica.read());
+        assertEquals(0, QuorumMulticast.class.cast(replica).getAbandonedInvocations());
+    }
+
+    @Test
+    public void shouldThrowFirstFailureIfQuorumCannotBeReached() {
+        Replica replica = Multicasting.proxy(Replica.class)
+            .with(new ReplicaImpl(-1, null), new ReplicaImpl(-2, null), new ReplicaImpl(4, null))
+            .quorum(2, 10, TimeUnit.SECONDS)
+            .build(getFactory());
+        try {
+            replica.read();
+            fail(IllegalStateException.class.getName() + " expected");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().endsWith(" failed"));
+        }
+    }
+
+    @Test
+    public void shouldCombinePartialResultsOfIsolatedTargets() {
+        ReplicaImpl failing = new ReplicaImpl(-1, null);
+        Replica replica = Multicasting.proxy(Replica.class)
+            .with(new ReplicaImpl(1, null), failing, new ReplicaImpl(4, null))
+            .isolating()
+            .build(getFactory());
+        assertEquals(5, replica.read());
+        assertEquals(5, replica.read());
+        IsolatingMulticast isolatingMulticast = IsolatingMulticast.class.cast(replica);
+        assertEquals(2, isolatingMulticast.getFailures(failing));
+        assertEquals(2, isolatingMulticast.getFailures());
+    }
+
+    @Test
+    public void shouldReportFailuresOfIsolatedTargets() {
+        final List<Object> failures = new ArrayList<Object>();
+        ReplicaImpl failing = new ReplicaImpl(-2, null);
+        Replica replica = Multicasting.proxy(Replica.class)
+            .with(failing)
+            .isolating(new MulticastFailureHandler() {
+                public void handleFailure(Object target, Method method, Object[] args, Throwable cause) {
+                    failures.add(target);
+                    failures.add(method.getName());
+                    failures.add(cause.getMessage());
+                }
+            })
+            .build(getFactory());
+        assertEquals(0, replica.read());
+        assertEquals(3, failures.size());
+        assertSame(failing, failures.get(0));
+        assertEquals("read", failures.get(1));
+        assertEquals("Replica -2 failed", failures.get(2));
+    }
+
+    @Test
+    public void shouldContinueMulticastIfFailureHandlerThrows() {
+        ReplicaImpl failing = new ReplicaImpl(-1, null);
+        Replica replica = Multicasting.proxy(Replica.class)
+            .with(failing, new ReplicaImpl(2, null))
+            .isolating(new MulticastFailureHandler() {
+                public void handleFailure(Object target, Method method, Object[] args, Throwable cause) {
+                    throw new IllegalArgumentException("handler failed");
+                }
+            })
+            .build(getFactory());
+        assertEquals(2, replica.read());
+        assertEquals(1, IsolatingMulticast.class.cast(replica).getFailures(failing));
+    }
+
+    @Test
+    public void shouldSerializeIsolatingProxyWithoutFailureHandler() throws IOException, ClassNotFoundException {
+        Replica replica = Multicasting.proxy(Replica.class)
+            .with(new ReplicaImpl(-1, null), new ReplicaImpl(2, null))
+            .isolating(new MulticastFailureHandler() {
+                public void handleFailure(Object target, Method method, Object[] args, Throwable cause) {
+                    fail("should not be called");
+                }
+            })
+            .build(getFactory());
+        replica = serializeWithJDK(replica);
+        assertEquals(2, replica.read());
+        assertEquals(1, IsolatingMulticast.class.cast(replica).getFailures());
+    }
+
     private void useSerializedProxy(Tail tail) {
         assertFalse(tail.wasWagged());
         tail.wag();
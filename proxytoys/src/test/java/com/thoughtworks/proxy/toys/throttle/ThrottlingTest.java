@@ -0,0 +1,252 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.throttle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.thoughtworks.proxy.AbstractProxyTest;
+import com.thoughtworks.proxy.kit.RejectionPolicy;
+
+
+public class ThrottlingTest extends AbstractProxyTest {
+
+    public static interface Service {
+        String work(String text) throws InterruptedException;
+        List<String> list();
+    }
+
+    public static class ServiceImpl implements Service {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        volatile CountDownLatch latch;
+
+        public String work(String text) throws InterruptedException {
+            calls.incrementAndGet();
+            entered.countDown();
+            if (latch != null) {
+                latch.await();
+            }
+            return text;
+        }
+
+        public List<String> list() {
+            calls.incrementAndGet();
+            List<String> list = new ArrayList<String>();
+            list.add("a");
+            return list;
+        }
+    }
+
+    private static Thread work(final Service service, final String text) {
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    service.work(text);
+                } catch (InterruptedException e) {
+                    // ends the thread
+                }
+            }
+        };
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    public void shouldRejectCallsBeyondConcurrencyLimit() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        impl.latch = new CountDownLatch(1);
+        Service service = Throttling.proxy(Service.class).with(impl).concurrent(1).build(getFactory());
+        Thread thread = work(service, "a");
+        impl.entered.await();
+        ThrottlingMonitor monitor = ThrottlingMonitor.class.cast(service);
+        assertEquals(1, monitor.getActiveCalls());
+        try {
+            service.work("b");
+            fail("Thrown " + RejectedExecutionException.class.getName() + " expected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        impl.latch.countDown();
+        thread.join();
+        assertEquals("c", service.work("c"));
+        assertEquals(0, monitor.getActiveCalls());
+        assertEquals(2, monitor.getAcceptedCalls());
+        assertEquals(1, monitor.getRejectedCalls());
+    }
+
+    @Test
+    public void shouldWaitForFreePermit() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        impl.latch = new CountDownLatch(1);
+        final Service service = Throttling.proxy(Service.class).with(impl)
+            .concurrent(1).waiting(5, TimeUnit.SECONDS).build(getFactory());
+        Thread first = work(service, "a");
+        impl.entered.await();
+        Thread second = work(service, "b");
+        Thread.sleep(50);
+        assertEquals(1, impl.calls.get());
+        impl.latch.countDown();
+        first.join();
+        second.join();
+        ThrottlingMonitor monitor = ThrottlingMonitor.class.cast(service);
+        assertEquals(2, monitor.getAcceptedCalls());
+        assertEquals(0, monitor.getRejectedCalls());
+        assertTrue(monitor.getMaxWaitNanos() >= TimeUnit.MILLISECONDS.toNanos(40));
+    }
+
+    @Test
+    public void shouldWakeUpEveryBlockedCaller() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        impl.latch = new CountDownLatch(1);
+        final Service service = Throttling.proxy(Service.class).with(impl)
+            .concurrent(2).rejecting(RejectionPolicy.BLOCK).build(getFactory());
+        Thread first = work(service, "a");
+        Thread second = work(service, "b");
+        while (impl.calls.get() < 2) {
+            Thread.sleep(1);
+        }
+        Thread third = work(service, "c");
+        Thread fourth = work(service, "d");
+        Thread.sleep(50);
+        assertEquals(2, impl.calls.get());
+        impl.latch.countDown();
+        for (Thread thread : new Thread[]{first, second, third, fourth}) {
+            thread.join(5000);
+            assertFalse(thread.isAlive());
+        }
+        ThrottlingMonitor monitor = ThrottlingMonitor.class.cast(service);
+        assertEquals(4, monitor.getAcceptedCalls());
+        assertEquals(0, monitor.getActiveCalls());
+    }
+
+    @Test
+    public void shouldThrowInterruptedExceptionIfBlockedCallerIsInterrupted() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        impl.latch = new CountDownLatch(1);
+        final Service service = Throttling.proxy(Service.class).with(impl)
+            .concurrent(1).rejecting(RejectionPolicy.BLOCK).build(getFactory());
+        Thread first = work(service, "a");
+        impl.entered.await();
+        final List<Object> outcome = new ArrayList<Object>();
+        Thread second = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    outcome.add(service.work("b"));
+                } catch (InterruptedException e) {
+                    outcome.add(e);
+                    outcome.add(Boolean.valueOf(isInterrupted()));
+                }
+            }
+        };
+        second.start();
+        Thread.sleep(50);
+        second.interrupt();
+        second.join(5000);
+        assertEquals(2, outcome.size());
+        assertTrue(outcome.get(0) instanceof InterruptedException);
+        assertEquals(Boolean.FALSE, outcome.get(1));
+        impl.latch.countDown();
+        first.join();
+        ThrottlingMonitor monitor = ThrottlingMonitor.class.cast(service);
+        assertEquals(1, monitor.getAcceptedCalls());
+        assertEquals(1, monitor.getRejectedCalls());
+    }
+
+    @Test
+    public void shouldGiveBackRateOfRejectedCall() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        impl.latch = new CountDownLatch(1);
+        Service service = Throttling.proxy(Service.class).with(impl)
+            .concurrent(1).rate(2).build(getFactory());
+        Thread thread = work(service, "a");
+        impl.entered.await();
+        try {
+            service.work("b");
+            fail("Thrown " + RejectedExecutionException.class.getName() + " expected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        impl.latch.countDown();
+        thread.join();
+        assertEquals("c", service.work("c"));
+        ThrottlingMonitor monitor = ThrottlingMonitor.class.cast(service);
+        assertEquals(2, monitor.getAcceptedCalls());
+        assertEquals(1, monitor.getRejectedCalls());
+    }
+
+    @Test
+    public void shouldWaitForRate() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        Service service = Throttling.proxy(Service.class).with(impl)
+            .rate(4).waiting(2, TimeUnit.SECONDS).build(getFactory());
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            service.work("a");
+        }
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        ThrottlingMonitor monitor = ThrottlingMonitor.class.cast(service);
+        assertEquals(5, monitor.getAcceptedCalls());
+        assertTrue(monitor.getMaxWaitNanos() >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void shouldReturnNullObjectForRejectedCall() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        Service service = Throttling.proxy(Service.class).with(impl)
+            .rate(1).rejecting(RejectionPolicy.NULL_RESULT).build(getFactory());
+        assertEquals(1, service.list().size());
+        assertEquals(0, service.list().size());
+        assertEquals(1, impl.calls.get());
+        assertEquals(1, ThrottlingMonitor.class.cast(service).getRejectedCalls());
+    }
+
+    @Test
+    public void shouldOnlyMonitorLimitsIfCallerRuns() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        Service service = Throttling.proxy(Service.class).with(impl)
+            .rate(1).rejecting(RejectionPolicy.CALLER_RUNS).build(getFactory());
+        assertEquals("a", service.work("a"));
+        assertEquals("b", service.work("b"));
+        assertEquals(2, impl.calls.get());
+        ThrottlingMonitor monitor = ThrottlingMonitor.class.cast(service);
+        assertEquals(1, monitor.getAcceptedCalls());
+        assertEquals(1, monitor.getRejectedCalls());
+    }
+
+    @Test
+    public void shouldLimitEachMethodSeparately() throws Exception {
+        ServiceImpl impl = new ServiceImpl();
+        Service service = Throttling.proxy(Service.class).with(impl).rate(1).perMethod().build(getFactory());
+        service.work("a");
+        service.list();
+        try {
+            service.work("b");
+            fail("Thrown " + RejectedExecutionException.class.getName() + " expected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        assertEquals(2, impl.calls.get());
+    }
+}
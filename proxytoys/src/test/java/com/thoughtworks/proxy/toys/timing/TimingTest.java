@@ -0,0 +1,126 @@
+/*
+ * (c) 2026 ThoughtWorks Ltd
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18-Oct-2026
+ */
+package com.thoughtworks.proxy.toys.timing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.thoughtworks.proxy.AbstractProxyTest;
+
+
+public class TimingTest extends AbstractProxyTest {
+
+    public static interface Service {
+        String echo(String text) throws IOException;
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    public static class ServiceImpl implements Service {
+        public String echo(String text) throws IOException {
+            if (text == null) {
+                throw new IOException("no text");
+            }
+            return text;
+        }
+
+        public void sleep(long millis) throws InterruptedException {
+            Thread.sleep(millis);
+        }
+    }
+
+    private static Method method(String name) throws NoSuchMethodException {
+        for (Method method : Service.class.getMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+    @Test
+    public void shouldCountCallsAndErrors() throws Exception {
+        Service service = Timing.proxy(Service.class).with(new ServiceImpl()).build(getFactory());
+        assertEquals("a", service.echo("a"));
+        assertEquals("b", service.echo("b"));
+        try {
+            service.echo(null);
+            fail("Thrown " + IOException.class.getName() + " expected");
+        } catch (IOException e) {
+            assertEquals("no text", e.getMessage());
+        }
+        Map<Method, TimingSnapshot> timings = TimingMonitor.class.cast(service).getTimings();
+        assertEquals(1, timings.size());
+        TimingSnapshot echo = timings.get(method("echo"));
+        assertEquals(3, echo.getCalls());
+        assertEquals(1, echo.getErrors());
+    }
+
+    @Test
+    public void shouldRecordLatencyHistogram() throws Exception {
+        Service service = Timing.proxy(Service.class).with(new ServiceImpl()).build(getFactory());
+        for (int i = 0; i < 4; i++) {
+            service.sleep(0);
+        }
+        service.sleep(50);
+        TimingSnapshot sleep = TimingMonitor.class.cast(service).getTimings().get(method("sleep"));
+        long fifty = TimeUnit.MILLISECONDS.toNanos(50);
+        assertEquals(5, sleep.getCalls());
+        assertTrue(sleep.getMaxNanos() >= fifty);
+        assertTrue(sleep.getPercentile(0.5) < fifty);
+        assertEquals(sleep.getMaxNanos(), sleep.getPercentile(1));
+        // the upper bound of a bucket differs at most 12.5 percent
+        assertTrue(sleep.getPercentile(0.99) >= sleep.getMaxNanos() / 8 * 7);
+        assertTrue(sleep.getMeanNanos() >= fifty / 5);
+    }
+
+    @Test
+    public void shouldResetTimings() throws Exception {
+        Service service = Timing.proxy(Service.class).with(new ServiceImpl()).build(getFactory());
+        service.echo("a");
+        TimingMonitor monitor = TimingMonitor.class.cast(service);
+        assertEquals(1, monitor.resetTimings().get(method("echo")).getCalls());
+        TimingSnapshot echo = monitor.getTimings().get(method("echo"));
+        assertEquals(0, echo.getCalls());
+        assertEquals(0, echo.getPercentile(0.5));
+    }
+
+    @Test
+    public void shouldReportTimingsPeriodically() throws Exception {
+        final BlockingQueue<Map<Method, TimingSnapshot>> reports = new LinkedBlockingQueue<Map<Method, TimingSnapshot>>();
+        Service service = Timing.proxy(Service.class).with(new ServiceImpl())
+            .reporting(new TimingReporter() {
+                public void report(Map<Method, TimingSnapshot> timings) {
+                    reports.add(timings);
+                }
+            }, 10, TimeUnit.MILLISECONDS).build(getFactory());
+        service.echo("a");
+        long calls = 0;
+        while (calls == 0) {
+            Map<Method, TimingSnapshot> report = reports.poll(5, TimeUnit.SECONDS);
+            assertTrue(report != null);
+            if (!report.isEmpty()) {
+                calls = report.get(method("echo")).getCalls();
+            }
+        }
+        assertEquals(1, calls);
+        assertEquals(0, TimingMonitor.class.cast(service).getTimings().get(method("echo")).getCalls());
+    }
+}